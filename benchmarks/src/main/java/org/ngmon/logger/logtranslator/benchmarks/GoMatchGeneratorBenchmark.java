@@ -0,0 +1,35 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.ngmon.logger.logtranslator.generator.GoMatchGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of GoMatch patterns from all logs of already translated log files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoMatchGeneratorBenchmark {
+
+    private Set<LogFile> translatedLogFiles;
+
+    @Setup(Level.Trial)
+    public void translateProject(ProjectState project) {
+        translatedLogFiles = TranslationFixture.translate(TranslationFixture.freshCopies(project.logFiles));
+    }
+
+    @Benchmark
+    public String createGoMatch() {
+        GoMatchGenerator.reset();
+        GoMatchGenerator.createGoMatch(translatedLogFiles);
+        return GoMatchGenerator.getGoMatchPatternListToString();
+    }
+}
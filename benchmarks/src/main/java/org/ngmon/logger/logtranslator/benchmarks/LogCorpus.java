@@ -0,0 +1,145 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.ngmon.logger.logtranslator.common.Log;
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.ngmon.logger.logtranslator.common.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Corpus of real log statements for microbenchmarks of per-log helpers.
+ * Statements are taken from translation of ProjectTesting (Hadoop sources) or of any
+ * other source tree given by -Dlogtranslator.corpusDir, e.g. Hadoop checkout.
+ * Translated logs carry variables, formatters and tags exactly as helpers see them.
+ */
+public class LogCorpus {
+
+    /** System property with path to source tree, from which log statements are taken */
+    public static final String CORPUS_DIR_PROPERTY = "logtranslator.corpusDir";
+    /** Formatted log statements added to ProjectTesting, which has none */
+    private static final List<String> FORMATTED_SOURCES = Arrays.asList("Slf4jFormattedLogs.java", "CommonsFormattedLogs.java");
+
+    private final List<Log> logs = new ArrayList<>();
+    private final List<String> arguments = new ArrayList<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<String> variableNames = new ArrayList<>();
+
+    private LogCorpus() {
+    }
+
+    /**
+     * Translate source tree and collect all its logs.
+     *
+     * @return corpus of translated log statements
+     * @throws IOException when source tree can not be read
+     */
+    public static LogCorpus load() throws IOException {
+        String corpusDir = System.getProperty(CORPUS_DIR_PROPERTY);
+        // ProjectTesting itself lies in src/test/, which is skipped by JavaLogFinder - use its copy
+        Path applicationHome = (corpusDir == null) ? TranslationFixture.createScaledProject(1) : Paths.get(corpusDir);
+        LogCorpus corpus = new LogCorpus();
+        try {
+            if (corpusDir == null) {
+                addFormattedSources(applicationHome);
+            }
+            TranslationFixture.initialize(applicationHome, "info");
+            for (LogFile logFile : TranslationFixture.translate(TranslationFixture.findLogFiles(applicationHome))) {
+                for (Log log : logFile.getLogs()) {
+                    corpus.add(log);
+                }
+            }
+        } finally {
+            if (corpusDir == null) {
+                TranslationFixture.deleteRecursively(applicationHome);
+            }
+        }
+        if (corpus.logs.isEmpty()) {
+            throw new IllegalStateException("No log statements found in " + applicationHome);
+        }
+        return corpus;
+    }
+
+    private static void addFormattedSources(Path applicationHome) throws IOException {
+        Path corpusDir = Files.createDirectories(applicationHome.resolve("corpus"));
+        for (String source : FORMATTED_SOURCES) {
+            try (InputStream is = LogCorpus.class.getResourceAsStream("/corpus/" + source)) {
+                Files.copy(is, corpusDir.resolve(source));
+            }
+        }
+    }
+
+    private void add(Log log) {
+        logs.add(log);
+        String logArguments = logArguments(log.getOriginalLog());
+        arguments.add(logArguments);
+        for (String word : logArguments.split(" ")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        for (LogFile.Variable variable : log.getVariables()) {
+            variableNames.add(variable.getName());
+        }
+    }
+
+    /**
+     * Cut arguments part of log statement in the same way as GoMatchGenerator does.
+     *
+     * @param originalLog whole log statement
+     * @return text between first and last bracket, including first bracket
+     */
+    public static String logArguments(String originalLog) {
+        String text = originalLog;
+        if (text.startsWith("LogFactory")) {
+            for (String level : Utils.DEFAULT_LOG_LEVELS) {
+                if (text.contains("." + level + "(")) {
+                    text = text.substring(text.indexOf(level));
+                    break;
+                }
+            }
+        }
+        return text.substring(text.indexOf("("), text.lastIndexOf(")"));
+    }
+
+    /**
+     * @param symbol formatting symbol (%, {}, {0})
+     * @return logs using given formatting symbol, which have some formatted variables
+     */
+    public List<Log> getFormattedLogs(String symbol) {
+        List<Log> formatted = new ArrayList<>();
+        for (Log log : logs) {
+            if (symbol.equals(log.getFormattingSymbol()) && log.getFormattedVariables() != null
+                && !log.getFormattedVariables().isEmpty()) {
+                formatted.add(log);
+            }
+        }
+        return formatted;
+    }
+
+    public List<Log> getLogs() {
+        return logs;
+    }
+
+    /** @return argument part of each log statement, index matches getLogs() */
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    /** @return all space separated words of log statements' arguments */
+    public List<String> getWords() {
+        return words;
+    }
+
+    /** @return names (expressions) of all variables used in log statements */
+    public List<String> getVariableNames() {
+        return variableNames;
+    }
+}
@@ -0,0 +1,25 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Discovery of log files - walking project directory tree by JavaLogFinder
+ * and assigning namespaces to found files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LogFilesFinderBenchmark {
+
+    @Benchmark
+    public Set<LogFile> findLogFiles(ProjectState project) {
+        return TranslationFixture.findLogFiles(project.applicationHome);
+    }
+}
@@ -0,0 +1,43 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.ngmon.logger.logtranslator.generator.NamespaceFileCreator;
+import org.ngmon.logger.logtranslator.generator.NgmonNamespaceFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation and StringTemplate rendering of NGMON namespace files
+ * from already translated log files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NamespaceFileCreatorBenchmark {
+
+    private Map<String, Set<LogFile>> namespaces;
+
+    @Setup(Level.Trial)
+    public void translateProject(ProjectState project) {
+        TranslationFixture.translate(TranslationFixture.freshCopies(project.logFiles));
+        namespaces = new TreeMap<>(NgmonNamespaceFactory.getNamespaceCreationMap());
+    }
+
+    @Benchmark
+    public void render(Blackhole blackhole) {
+        for (Map.Entry<String, Set<LogFile>> namespace : namespaces.entrySet()) {
+            NamespaceFileCreator nfc = new NamespaceFileCreator(namespace.getKey(), (TreeSet<LogFile>) namespace.getValue());
+            blackhole.consume(nfc.getNamespaceFileContent());
+        }
+    }
+}
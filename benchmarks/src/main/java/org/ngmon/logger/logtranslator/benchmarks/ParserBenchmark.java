@@ -0,0 +1,61 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.ngmon.logger.logtranslator.antlr.JavaLexer;
+import org.ngmon.logger.logtranslator.antlr.JavaParser;
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ANTLR lexing and parsing of all found log files. Sources are read into memory
+ * before measurement, so disk reads are not part of the result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    private List<String> sources;
+
+    @Setup(Level.Trial)
+    public void readSources(ProjectState project) throws IOException {
+        sources = new ArrayList<>();
+        for (LogFile logFile : project.logFiles) {
+            sources.add(new String(Files.readAllBytes(Paths.get(logFile.getFilepath())), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public int lex() {
+        int tokenCount = 0;
+        for (String source : sources) {
+            CommonTokenStream tokens = new CommonTokenStream(new JavaLexer(new ANTLRInputStream(source)));
+            tokens.fill();
+            tokenCount += tokens.size();
+        }
+        return tokenCount;
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String source : sources) {
+            CommonTokenStream tokens = new CommonTokenStream(new JavaLexer(new ANTLRInputStream(source)));
+            ParseTree tree = new JavaParser(tokens).compilationUnit();
+            blackhole.consume(tree);
+        }
+    }
+}
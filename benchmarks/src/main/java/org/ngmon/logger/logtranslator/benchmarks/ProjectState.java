@@ -0,0 +1,38 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Benchmark input shared by all stage benchmarks. Scale 1 is ProjectTesting
+ * itself, larger scales are synthetic projects made of ProjectTesting copies.
+ */
+@State(Scope.Benchmark)
+public class ProjectState {
+
+    @Param({"1", "50"})
+    public int scale;
+
+    @Param({"info"})
+    public String selfLogLevel;
+
+    public Path applicationHome;
+    public Set<LogFile> logFiles;
+
+    @Setup(Level.Trial)
+    public void createProject() throws IOException {
+        applicationHome = TranslationFixture.createScaledProject(scale);
+        TranslationFixture.initialize(applicationHome, selfLogLevel);
+        logFiles = TranslationFixture.findLogFiles(applicationHome);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteProject() throws IOException {
+        TranslationFixture.deleteRecursively(applicationHome);
+    }
+}
@@ -0,0 +1,72 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.ngmon.logger.logtranslator.generator.NamespaceFileCreator;
+import org.ngmon.logger.logtranslator.generator.NgmonNamespaceFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of translator stages on projects written by SyntheticProjectGenerator.
+ * Each invocation is a cold, whole-project run (discovery, translation including
+ * parsing of extends chains, namespace rendering), so single shot time is measured.
+ * Larger projects can be measured by -p files=100000, memory by -prof gc.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SyntheticScaleBenchmark {
+
+    @Param({"1000", "10000"})
+    public int files;
+
+    private Path applicationHome;
+    private Set<LogFile> logFiles;
+
+    @Setup(Level.Trial)
+    public void createProject() throws IOException {
+        applicationHome = TranslationFixture.createSyntheticProject(files);
+        TranslationFixture.initialize(applicationHome, "info", TranslationFixture.SYNTHETIC_NAMESPACE);
+    }
+
+    /** New log files for each invocation, so extending classes are parsed again as in real run */
+    @Setup(Level.Invocation)
+    public void findLogFiles() {
+        logFiles = TranslationFixture.findLogFiles(applicationHome);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteProject() throws IOException {
+        TranslationFixture.deleteRecursively(applicationHome);
+    }
+
+    @Benchmark
+    public Set<LogFile> discover() {
+        return TranslationFixture.findLogFiles(applicationHome);
+    }
+
+    @Benchmark
+    public Set<LogFile> translate() {
+        return TranslationFixture.translate(logFiles);
+    }
+
+    @Benchmark
+    public void translateAndCreateNamespaces(Blackhole blackhole) {
+        TranslationFixture.translate(logFiles);
+        for (Map.Entry<String, Set<LogFile>> namespace : NgmonNamespaceFactory.getNamespaceCreationMap().entrySet()) {
+            NamespaceFileCreator nfc = new NamespaceFileCreator(namespace.getKey(), (TreeSet<LogFile>) namespace.getValue());
+            blackhole.consume(nfc.getNamespaceFileContent());
+        }
+    }
+}
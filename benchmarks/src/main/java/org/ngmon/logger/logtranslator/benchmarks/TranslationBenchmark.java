@@ -0,0 +1,80 @@
+package org.ngmon.logger.logtranslator.benchmarks;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.ngmon.logger.logtranslator.antlr.JavaLexer;
+import org.ngmon.logger.logtranslator.antlr.JavaParser;
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.ngmon.logger.logtranslator.translator.LogTranslator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LogTranslator walk over already parsed files and the whole per-file translation
+ * (read, lex, parse and walk) as done by ANTLRRunner.
+ * <p/>
+ * Each invocation translates fresh, unparsed copies of log files. Extending classes
+ * are parsed only in the first invocation, later ones find them already parsed.
+ * Cost of LogTranslator's own logging can be compared by running with
+ * -p selfLogLevel=info,trace
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranslationBenchmark {
+
+    private List<CommonTokenStream> tokenStreams;
+    private List<ParseTree> trees;
+    private Set<LogFile> logFiles;
+    private Set<LogFile> freshLogFiles;
+
+    @Setup(Level.Trial)
+    public void parseSources(ProjectState project) throws IOException {
+        logFiles = project.logFiles;
+        tokenStreams = new ArrayList<>();
+        trees = new ArrayList<>();
+        for (LogFile logFile : project.logFiles) {
+            String source = new String(Files.readAllBytes(Paths.get(logFile.getFilepath())), StandardCharsets.UTF_8);
+            CommonTokenStream tokens = new CommonTokenStream(new JavaLexer(new ANTLRInputStream(source)));
+            trees.add(new JavaParser(tokens).compilationUnit());
+            tokenStreams.add(tokens);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createFreshLogFiles() {
+        freshLogFiles = TranslationFixture.freshCopies(logFiles);
+    }
+
+    @Benchmark
+    public void walk(Blackhole blackhole) {
+        ParseTreeWalker walker = new ParseTreeWalker();
+        int i = 0;
+        for (LogFile logFile : freshLogFiles) {
+            LogTranslator listener = new LogTranslator(tokenStreams.get(i), logFile, false, false);
+            walker.walk(listener, trees.get(i));
+            blackhole.consume(listener.getRewriter().getText());
+            i++;
+        }
+    }
+
+    @Benchmark
+    public Set<LogFile> translate() {
+        return TranslationFixture.translate(freshLogFiles);
+    }
+}
@@ -0,0 +1,196 @@
+package org.ngmon.logger.logtranslator.common;
+
+import org.ngmon.logger.logtranslator.generator.NgmonNamespaceFactory;
+import org.ngmon.logger.logtranslator.generator.SyntheticProjectGenerator;
+import org.ngmon.logger.logtranslator.translator.ANTLRRunner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * TranslationFixture prepares input projects for benchmarks and runs single
+ * stages of translation in the same way as TranslatorStarter does.
+ * <p/>
+ * Class is placed in common package, so it can set TranslatorStarter's log files.
+ * LogTranslator looks into them, when it searches variables in extending classes.
+ */
+public class TranslationFixture {
+
+    /** System property with path to ProjectTesting directory */
+    public static final String TEST_PROJECT_PROPERTY = "logtranslator.testProject";
+    /** System property with path to property file used as template for benchmarks */
+    public static final String TEST_PROPERTIES_PROPERTY = "logtranslator.testProperties";
+    private static final String TESTING_PACKAGE = "resources.ProjectTesting";
+    /** Application namespace of projects written by SyntheticProjectGenerator */
+    public static final String SYNTHETIC_NAMESPACE = "org.synthetic";
+
+    public static Path getTestProject() {
+        return Paths.get(System.getProperty(TEST_PROJECT_PROPERTY, "../src/test/resources/ProjectTesting"));
+    }
+
+    public static Path getTestProperties() {
+        return Paths.get(System.getProperty(TEST_PROPERTIES_PROPERTY, "../src/test/resources/logtranslator-test.properties"));
+    }
+
+    /**
+     * Copy ProjectTesting into new temporary directory 'copies' times. Each copy is
+     * placed into its own package, so every copy gets its own NGMON namespaces.
+     *
+     * @param copies number of ProjectTesting copies in created project
+     * @return home directory of created project
+     * @throws IOException when copying fails
+     */
+    public static Path createScaledProject(int copies) throws IOException {
+        final Path source = getTestProject();
+        final Path target = Files.createTempDirectory("logtranslator-bench");
+        for (int i = 0; i < copies; i++) {
+            final String copyName = "copy" + i;
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (file.toString().endsWith(".java")) {
+                        Path relative = source.relativize(file);
+                        Path copy = target.resolve(copyName).resolve(relative.toString());
+                        Files.createDirectories(copy.getParent());
+                        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                        content = content.replace(TESTING_PACKAGE, TESTING_PACKAGE + "." + copyName);
+                        Files.write(copy, content.getBytes(StandardCharsets.UTF_8));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return target;
+    }
+
+    /**
+     * Write synthetic project by SyntheticProjectGenerator into new temporary directory.
+     *
+     * @param files number of generated classes
+     * @return home directory of created project
+     * @throws IOException when directory can not be created
+     */
+    public static Path createSyntheticProject(int files) throws IOException {
+        Path target = Files.createTempDirectory("logtranslator-synthetic");
+        SyntheticProjectGenerator generator = new SyntheticProjectGenerator();
+        generator.setFiles(files);
+        generator.generate(target);
+        return target;
+    }
+
+    /**
+     * Initialize Utils with test property file, pointed to given project.
+     * Translated files are never written (clean_run), so inputs stay untouched.
+     *
+     * @param applicationHome project to translate
+     * @param selfLogLevel    level of LogTranslator's own logging
+     * @throws IOException when property file can not be read or written
+     */
+    public static void initialize(Path applicationHome, String selfLogLevel) throws IOException {
+        initialize(applicationHome, selfLogLevel, null);
+    }
+
+    /**
+     * @param applicationNamespace overrides application_namespace of test property file, if not null
+     * @see #initialize(Path, String)
+     */
+    public static void initialize(Path applicationHome, String selfLogLevel, String applicationNamespace) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream is = Files.newInputStream(getTestProperties())) {
+            properties.load(is);
+        }
+        properties.setProperty("application_home", applicationHome.toString());
+        properties.setProperty("clean_run", "true");
+        properties.setProperty("self_log_level", selfLogLevel);
+        properties.setProperty("verbose_output", "false");
+        if (applicationNamespace != null) {
+            properties.setProperty("application_namespace", applicationNamespace);
+        }
+
+        Path propertyFile = Files.createTempFile("logtranslator-bench", ".properties");
+        try (OutputStream os = Files.newOutputStream(propertyFile)) {
+            properties.store(os, "generated by TranslationFixture");
+        }
+        Utils.initialize(propertyFile.toString());
+        Files.delete(propertyFile);
+        // exclude-list is read relatively to working directory, benchmark inputs have nothing to exclude
+        LogFilesFinder.excludeFilesList = new HashSet<>();
+    }
+
+    /**
+     * Search project for log files and assign them namespaces, as steps 1) and 2) of TranslatorStarter.
+     *
+     * @param applicationHome project to search in
+     * @return found log files
+     */
+    public static Set<LogFile> findLogFiles(Path applicationHome) {
+        LogFilesFinder.reset();
+        Set<LogFile> logFiles = new TreeSet<>(LogFilesFinder.commenceSearch(applicationHome.toString()));
+        NgmonNamespaceFactory.generateNamespaces(logFiles);
+        TranslatorStarter.logFiles = logFiles;
+        return logFiles;
+    }
+
+    /**
+     * Create new, not yet parsed, log files with same paths and packages as given ones.
+     *
+     * @param logFiles already found log files
+     * @return unparsed copies with assigned namespaces
+     */
+    public static Set<LogFile> freshCopies(Set<LogFile> logFiles) {
+        Set<LogFile> copies = new TreeSet<>();
+        for (LogFile logFile : logFiles) {
+            LogFile copy = new LogFile(logFile.getFilepath());
+            copy.setPackageName(logFile.getPackageName());
+            copies.add(copy);
+        }
+        NgmonNamespaceFactory.generateNamespaces(copies);
+        return copies;
+    }
+
+    /**
+     * Parse and translate all given log files and collect them into namespaces, as step 3) of TranslatorStarter.
+     *
+     * @param logFiles to translate
+     * @return same log files, translated
+     */
+    public static Set<LogFile> translate(Set<LogFile> logFiles) {
+        NgmonNamespaceFactory.reset();
+        for (LogFile logFile : logFiles) {
+            if (!logFile.isFinishedParsing()) {
+                ANTLRRunner.run(logFile, false, false);
+            }
+            if (logFile.isFinishedParsing()) {
+                NgmonNamespaceFactory.addToNamespaceCreationMap(logFile);
+            }
+        }
+        return logFiles;
+    }
+
+    public static void deleteRecursively(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
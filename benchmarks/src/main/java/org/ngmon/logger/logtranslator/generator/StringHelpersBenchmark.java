@@ -0,0 +1,106 @@
+package org.ngmon.logger.logtranslator.generator;
+
+import org.ngmon.logger.logtranslator.benchmarks.LogCorpus;
+import org.ngmon.logger.logtranslator.common.Log;
+import org.ngmon.logger.logtranslator.translator.CommonsLoggerLoader;
+import org.ngmon.logger.logtranslator.translator.Slf4jLoggerLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of per-log string helpers, driven by LogCorpus. One operation
+ * processes one corpus item (word, variable name or log statement), the next
+ * operation takes the next item, so results are per log statement.
+ * Run with -prof gc (or BenchmarkRunner) to get bytes allocated per operation.
+ * <p/>
+ * Benchmark lives in generator package, because GoMatchGenerator.extractVars is package-private.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class StringHelpersBenchmark {
+
+    private String[] words;
+    private String[] variableNames;
+    private Log[] logs;
+    private String[] logArguments;
+    private Log[] percentFormattedLogs;
+    private String[] percentFormattedArguments;
+    private Log[] bracketFormattedLogs;
+    private String[] bracketFormattedArguments;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void loadCorpus() throws IOException {
+        LogCorpus corpus = LogCorpus.load();
+        words = corpus.getWords().toArray(new String[0]);
+        variableNames = corpus.getVariableNames().toArray(new String[0]);
+        logs = corpus.getLogs().toArray(new Log[0]);
+        logArguments = corpus.getArguments().toArray(new String[0]);
+
+        List<Log> percentFormatted = corpus.getFormattedLogs("%");
+        percentFormattedLogs = percentFormatted.toArray(new Log[0]);
+        percentFormattedArguments = arguments(percentFormatted);
+        List<Log> bracketFormatted = corpus.getFormattedLogs("{}");
+        bracketFormattedLogs = bracketFormatted.toArray(new Log[0]);
+        bracketFormattedArguments = arguments(bracketFormatted);
+    }
+
+    private static String[] arguments(List<Log> logs) {
+        String[] arguments = new String[logs.size()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = LogCorpus.logArguments(logs.get(i).getOriginalLog());
+        }
+        return arguments;
+    }
+
+    private int next(int length) {
+        cursor = (cursor + 1 == Integer.MAX_VALUE) ? 0 : cursor + 1;
+        return cursor % length;
+    }
+
+    @Benchmark
+    public String cultureWord() {
+        return HelperGenerator.culture(words[next(words.length)]);
+    }
+
+    @Benchmark
+    public String cultureLogArguments() {
+        return HelperGenerator.culture(logArguments[next(logArguments.length)]);
+    }
+
+    @Benchmark
+    public String removeSpecialCharsFromText() {
+        return HelperGenerator.removeSpecialCharsFromText(variableNames[next(variableNames.length)]);
+    }
+
+    @Benchmark
+    public String commonsIsolateFormatters() {
+        if (percentFormattedLogs.length == 0) {
+            return null;
+        }
+        int i = next(percentFormattedLogs.length);
+        return CommonsLoggerLoader.isolateFormatters(percentFormattedArguments[i], percentFormattedLogs[i].getFormattedVariables());
+    }
+
+    @Benchmark
+    public String slf4jIsolateFormatters() {
+        if (bracketFormattedLogs.length == 0) {
+            return null;
+        }
+        int i = next(bracketFormattedLogs.length);
+        return Slf4jLoggerLoader.isolateFormatters(bracketFormattedArguments[i], bracketFormattedLogs[i].getFormattedVariables(), "{}");
+    }
+
+    @Benchmark
+    public String extractVars() {
+        int i = next(logs.length);
+        return GoMatchGenerator.extractVars(logArguments[i], logs[i]);
+    }
+}
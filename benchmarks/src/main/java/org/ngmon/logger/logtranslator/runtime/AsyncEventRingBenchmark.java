@@ -0,0 +1,75 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost paid by logging thread for one event: synchronous encoding (as default generated SimpleLogger)
+ * against copying event into AsyncEventRing, whose consumer thread does the same encoding.
+ * Encoding builds JSON similar to JSONer into StringBuilder, writing is left out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncEventRingBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"id", "host", "size"};
+
+    @Param({"wait", "drop"})
+    public String fullPolicy;
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final Object[] paramValues = {1073741825L, "datanode-7", 134217728};
+    private final JsonHandler handler = new JsonHandler();
+    private AsyncEventRing ring;
+
+    @Setup(Level.Trial)
+    public void startRing() {
+        ring = AsyncEventRing.start(new JsonHandler(), 65536, fullPolicy, "park", 256);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeRing() {
+        ring.close();
+    }
+
+    @Benchmark
+    public int synchronous() {
+        handler.onEvent(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG, true);
+        return handler.length;
+    }
+
+    @Benchmark
+    public boolean async() {
+        return ring.publish(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG);
+    }
+
+    static class JsonHandler implements AsyncEventRing.Handler {
+
+        private final StringBuilder json = new StringBuilder(256);
+        private int length;
+
+        @Override
+        public void onEvent(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,
+                            int level, boolean endOfBatch) {
+            json.setLength(0);
+            json.append("{\"Event\":{\"occurenceTime\":").append(System.currentTimeMillis())
+                .append(",\"level\":").append(level)
+                .append(",\"type\":\"").append(fqnNS).append('.').append(methodName)
+                .append("\",\"tags\":").append(tags)
+                .append(",\"_\":{");
+            for (int i = 0; i < paramNames.length; i++) {
+                json.append(i == 0 ? "\"" : ",\"").append(paramNames[i]).append("\":\"").append(paramValues[i]).append('"');
+            }
+            json.append("}}}");
+            length = json.length();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of one event with primitive values by BinaryEventEncoder against EventJsonEncoder,
+ * both written to channel, which discards them. Bytes written per event are printed after trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryEventEncoderBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"id", "host", "size", "isNew"};
+    private static final EventSchema SCHEMA = new EventSchema(Collections.singletonList(
+        new EventSchema.EventType(1, FQN, "block_received", PARAM_NAMES, new char[]{
+            EventSchema.getTypeCode("long"), EventSchema.getTypeCode("String"),
+            EventSchema.getTypeCode("int"), EventSchema.getTypeCode("boolean")})));
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final Object[] paramValues = {1073741825L, "datanode-7", 134217728, Boolean.TRUE};
+    private final EventJsonEncoderBenchmark.NullChannel binaryChannel = new EventJsonEncoderBenchmark.NullChannel();
+    private final EventJsonEncoderBenchmark.NullChannel jsonChannel = new EventJsonEncoderBenchmark.NullChannel();
+    private final BinaryEventEncoder binaryEncoder = new BinaryEventEncoder(binaryChannel, 65536, SCHEMA);
+    private final EventJsonEncoder jsonEncoder = new EventJsonEncoder(jsonChannel, 65536);
+    private long binaryEvents;
+    private long jsonEvents;
+
+    @Benchmark
+    public long binary() {
+        binaryEncoder.encode(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG,
+            ++binaryEvents % 64 == 0);
+        return binaryChannel.written;
+    }
+
+    @Benchmark
+    public long json() {
+        jsonEncoder.encode(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG,
+            ++jsonEvents % 64 == 0);
+        return jsonChannel.written;
+    }
+
+    @TearDown(Level.Trial)
+    public void printSize() {
+        if (binaryEvents > 0) {
+            System.out.printf("%nbinary: %.1f bytes/event%n", (double) binaryChannel.written / binaryEvents);
+        }
+        if (jsonEvents > 0) {
+            System.out.printf("%njson: %.1f bytes/event%n", (double) jsonChannel.written / jsonEvents);
+        }
+    }
+}
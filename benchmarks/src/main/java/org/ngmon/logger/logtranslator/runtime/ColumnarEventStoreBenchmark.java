@@ -0,0 +1,111 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appending of one event by ColumnarEventStore against EventJsonEncoder, and counting of events with size
+ * over limit in 64k events scanned by ColumnarEventScanner against searching the value in JSON lines
+ * (lower bound of parsing them by JSON library). Sizes of both files are printed after trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnarEventStoreBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"id", "host", "size", "isNew"};
+    private static final EventSchema SCHEMA = new EventSchema(Collections.singletonList(
+        new EventSchema.EventType(1, FQN, "block_received", PARAM_NAMES, new char[]{
+            EventSchema.getTypeCode("long"), EventSchema.getTypeCode("String"),
+            EventSchema.getTypeCode("int"), EventSchema.getTypeCode("boolean")})));
+    private static final int SCANNED_EVENTS = 65536;
+    private static final long SIZE_LIMIT = 120000000;
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final Object[] paramValues = {1073741825L, "datanode-7", 134217728, Boolean.TRUE};
+    private final EventJsonEncoderBenchmark.NullChannel columnarChannel = new EventJsonEncoderBenchmark.NullChannel();
+    private final EventJsonEncoderBenchmark.NullChannel jsonChannel = new EventJsonEncoderBenchmark.NullChannel();
+    private final ColumnarEventStore store = new ColumnarEventStore(columnarChannel, SCHEMA, 4096);
+    private final EventJsonEncoder jsonEncoder = new EventJsonEncoder(jsonChannel, 65536);
+    private long jsonEvents;
+    private ByteBuffer columnarEvents;
+    private byte[] jsonLines;
+
+    @Setup(Level.Trial)
+    public void writeEvents() {
+        ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ColumnarEventStore columnarStore = new ColumnarEventStore(Channels.newChannel(columnar), SCHEMA, 4096);
+        EventJsonEncoder jsonStore = new EventJsonEncoder(Channels.newChannel(json), 65536);
+        long time = 1400000000000L;
+        for (int i = 0; i < SCANNED_EVENTS; i++) {
+            Object[] values = {1073741825L + i, "datanode-" + (i % 50), (i * 7919) % 134217728, i % 3 == 0};
+            columnarStore.append(time + i, FQN, "block_received", tags, PARAM_NAMES, values, DirectNamespace.DEBUG);
+            jsonStore.encode(time + i, FQN, "block_received", tags, PARAM_NAMES, values, DirectNamespace.DEBUG, false);
+        }
+        columnarStore.close();
+        jsonStore.flush();
+        columnarEvents = ByteBuffer.wrap(columnar.toByteArray());
+        jsonLines = json.toByteArray();
+    }
+
+    @Benchmark
+    public long appendColumnar() {
+        store.append(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG);
+        return columnarChannel.written;
+    }
+
+    @Benchmark
+    public long appendJson() {
+        jsonEncoder.encode(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG,
+            ++jsonEvents % 64 == 0);
+        return jsonChannel.written;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long scanColumnar() {
+        return new ColumnarEventScanner("block_received", "size>" + SIZE_LIMIT).scan(columnarEvents.duplicate(), null);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long scanJson() {
+        String events = new String(jsonLines, StandardCharsets.UTF_8);
+        long matching = 0;
+        for (int start = 0, end; start < events.length(); start = end + 1) {
+            end = events.indexOf('\n', start);
+            String line = events.substring(start, end);
+            if (!line.contains("\"methodName\":\"block_received\"")) {
+                continue;
+            }
+            int value = line.indexOf("\"size\":") + 7;
+            int valueEnd = value;
+            while (Character.isDigit(line.charAt(valueEnd)) || line.charAt(valueEnd) == '-') {
+                valueEnd++;
+            }
+            if (Long.parseLong(line.substring(value, valueEnd)) > SIZE_LIMIT) {
+                matching++;
+            }
+        }
+        return matching;
+    }
+
+    @TearDown(Level.Trial)
+    public void printSize() {
+        System.out.printf("%n%d events: columnar %d bytes, json %d bytes%n", SCANNED_EVENTS,
+            columnarEvents.remaining(), jsonLines.length);
+    }
+}
@@ -0,0 +1,161 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.ngmon.logger.core.AbstractNamespace;
+import org.ngmon.logger.core.Logger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Many threads logging LOG.block_received(id, host).tag("hdfs").debug() through one shared namespace
+ * instance, as translated classes do. Compared namespaces:
+ * <ul>
+ * <li>threadConfined - generated direct dispatch namespace, per-thread reusable event holder</li>
+ * <li>allocating - new event object and values array per call</li>
+ * <li>locked - event state kept in shared namespace, locked from method call until level call</li>
+ * </ul>
+ * Run with -prof gc to see bytes allocated per event, -t to change number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class DirectNamespaceContentionBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] block_received_PARAMS = {"id", "host"};
+
+    /** consumes event, so that nothing is eliminated, without sharing any written state between threads */
+    private static final Logger LOGGER = new Logger() {
+        @Override
+        public void log(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues, int level) {
+            if (paramNames.length != paramValues.length || paramValues[1] == null || tags.isEmpty()) {
+                throw new IllegalStateException("Broken event " + methodName);
+            }
+        }
+    };
+
+    private final ThreadConfinedNamespace threadConfined = new ThreadConfinedNamespace(LOGGER);
+    private final AllocatingNamespace allocating = new AllocatingNamespace(LOGGER);
+    private final LockedNamespace locked = new LockedNamespace(LOGGER);
+
+    @State(Scope.Thread)
+    public static class Arguments {
+        long id = 1073741825L;
+        String host = "datanode-7";
+    }
+
+    @Benchmark
+    public void threadConfined(Arguments arguments) {
+        threadConfined.block_received(arguments.id, arguments.host).tag("hdfs").debug();
+    }
+
+    @Benchmark
+    public void allocating(Arguments arguments) {
+        allocating.block_received(arguments.id, arguments.host).tag("hdfs").debug();
+    }
+
+    @Benchmark
+    public void locked(Arguments arguments) {
+        locked.block_received(arguments.id, arguments.host).tag("hdfs").debug();
+    }
+
+    /** same code as generated by NamespaceFileCreator in direct dispatch mode */
+    static class ThreadConfinedNamespace extends DirectNamespace {
+
+        ThreadConfinedNamespace(Logger logger) {
+            super(logger);
+        }
+
+        public AbstractNamespace block_received(long id, String host) {
+            return event(FQN, "block_received", block_received_PARAMS).set(0, id).set(1, host);
+        }
+    }
+
+    static class AllocatingNamespace extends AbstractNamespace {
+
+        private final Logger logger;
+
+        AllocatingNamespace(Logger logger) {
+            this.logger = logger;
+        }
+
+        public AbstractNamespace block_received(long id, String host) {
+            return new AllocatedEvent(logger, "block_received", block_received_PARAMS, new Object[]{id, host});
+        }
+    }
+
+    static class AllocatedEvent extends AbstractNamespace {
+
+        private final Logger logger;
+        private final String methodName;
+        private final String[] paramNames;
+        private final Object[] paramValues;
+        private List<String> tags = Collections.emptyList();
+
+        AllocatedEvent(Logger logger, String methodName, String[] paramNames, Object[] paramValues) {
+            this.logger = logger;
+            this.methodName = methodName;
+            this.paramNames = paramNames;
+            this.paramValues = paramValues;
+        }
+
+        @Override
+        public AbstractNamespace tag(String tag) {
+            if (tags.isEmpty()) {
+                tags = new ArrayList<>(2);
+            }
+            tags.add(tag);
+            return this;
+        }
+
+        @Override
+        public void debug() {
+            logger.log(FQN, methodName, tags, paramNames, paramValues, DirectNamespace.DEBUG);
+        }
+    }
+
+    static class LockedNamespace extends AbstractNamespace {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Logger logger;
+        private final Object[] paramValues = new Object[2];
+        private final List<String> tags = new ArrayList<>(2);
+        private String methodName;
+
+        LockedNamespace(Logger logger) {
+            this.logger = logger;
+        }
+
+        public AbstractNamespace block_received(long id, String host) {
+            lock.lock();
+            methodName = "block_received";
+            paramValues[0] = id;
+            paramValues[1] = host;
+            tags.clear();
+            return this;
+        }
+
+        @Override
+        public AbstractNamespace tag(String tag) {
+            tags.add(tag);
+            return this;
+        }
+
+        @Override
+        public void debug() {
+            try {
+                logger.log(FQN, methodName, tags, block_received_PARAMS, paramValues, DirectNamespace.DEBUG);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing of one event by EventJsonEncoder, flushed after each event as by synchronous SimpleLogger:
+ * into memory-mapped EventJournal against appending to file by FileChannel.write.
+ * Files are created in temporary directory and deleted after trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventJournalBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"id", "host", "size", "isNew"};
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final Object[] paramValues = {1073741825L, "datanode-7", 134217728, Boolean.TRUE};
+    private File directory;
+    private EventJsonEncoder journalEncoder;
+    private EventJsonEncoder fileEncoder;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        directory = Files.createTempDirectory("ngmon-journal").toFile();
+        journalEncoder = EventJsonEncoder.open(EventJournal.open(new File(directory, "journal").getPath(), 16 << 20, 4), 65536);
+        fileEncoder = EventJsonEncoder.open(new File(directory, "events.json").getPath(), 65536);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        File[] files = new File(directory, "journal").listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        new File(directory, "journal").delete();
+        new File(directory, "events.json").delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public void journal() {
+        journalEncoder.encode(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG, true);
+    }
+
+    @Benchmark
+    public void fileChannel() {
+        fileEncoder.encode(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG, true);
+    }
+}
@@ -0,0 +1,86 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of one event with primitive values: EventJsonEncoder into reusable buffer against
+ * JSON String (as JSONer builds) encoded to bytes, both written to channel, which discards them.
+ * Run with -prof gc, EventJsonEncoder should allocate nothing per event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class EventJsonEncoderBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"id", "host", "size", "isNew"};
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final Object[] paramValues = {1073741825L, "datanode-7", 134217728, Boolean.TRUE};
+    private final NullChannel channel = new NullChannel();
+    private final EventJsonEncoder encoder = new EventJsonEncoder(channel, 65536);
+
+    @Param({"1", "64"})
+    public int eventsPerFlush;
+
+    private int counter;
+
+    @Benchmark
+    public long encoder() {
+        encoder.encode(FQN, "block_received", tags, PARAM_NAMES, paramValues, DirectNamespace.DEBUG,
+            ++counter % eventsPerFlush == 0);
+        return channel.written;
+    }
+
+    @Benchmark
+    public long string() throws Exception {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"time\":").append(System.currentTimeMillis())
+            .append(",\"level\":").append(DirectNamespace.DEBUG)
+            .append(",\"fqnNS\":\"").append(FQN)
+            .append("\",\"methodName\":\"").append("block_received")
+            .append("\",\"tags\":[");
+        for (int i = 0; i < tags.size(); i++) {
+            json.append(i == 0 ? "\"" : ",\"").append(tags.get(i)).append('"');
+        }
+        json.append("],\"_\":{");
+        for (int i = 0; i < PARAM_NAMES.length; i++) {
+            json.append(i == 0 ? "\"" : ",\"").append(PARAM_NAMES[i]).append("\":").append(paramValues[i]);
+        }
+        json.append("}}\n");
+        channel.write(ByteBuffer.wrap(json.toString().getBytes(StandardCharsets.UTF_8)));
+        return channel.written;
+    }
+
+    static class NullChannel implements WritableByteChannel {
+
+        long written;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int length = src.remaining();
+            src.position(src.limit());
+            written += length;
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
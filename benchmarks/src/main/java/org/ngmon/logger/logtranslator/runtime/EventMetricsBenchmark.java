@@ -0,0 +1,52 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cost added to call of generated namespace method by event_metrics=true - METRICS.requested() with estimate
+ * of event size, against call without metrics and against counters in one shared (not striped) array.
+ * Run with -t to see contention of threads recording the same event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventMetricsBenchmark {
+
+    private final EventMetrics metrics = EventMetrics.register("log_events.bench.BenchNamespace",
+        "block_received", "packet_sent");
+    private final AtomicLongArray shared = new AtomicLongArray(4);
+
+    @State(Scope.Thread)
+    public static class Arguments {
+        long id = 1073741825L;
+        String host = "datanode-7";
+    }
+
+    @Benchmark
+    public void unrecorded(Arguments arguments, Blackhole blackhole) {
+        blackhole.consume(arguments.id);
+        blackhole.consume(arguments.host);
+    }
+
+    @Benchmark
+    public void recorded(Arguments arguments, Blackhole blackhole) {
+        metrics.requested(0, 118 + EventMetrics.length(arguments.host));
+        blackhole.consume(arguments.id);
+        blackhole.consume(arguments.host);
+    }
+
+    @Benchmark
+    public void recordedShared(Arguments arguments, Blackhole blackhole) {
+        shared.getAndIncrement(0);
+        shared.getAndAdd(1, 118 + EventMetrics.length(arguments.host));
+        blackhole.consume(arguments.id);
+        blackhole.consume(arguments.host);
+    }
+}
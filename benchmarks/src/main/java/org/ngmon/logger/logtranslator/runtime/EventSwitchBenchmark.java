@@ -0,0 +1,70 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of guard around translated log call, when event is switched off or on.
+ * Switch guard (static final invoker of EventSwitch) is compared with volatile
+ * boolean flag and with no guard at all. Guarded work builds log message from
+ * arguments, so disabled guard shows, whether arguments evaluation was dropped.
+ * <p/>
+ * Switched off events are listed in ngmon.events.disabled before EventSwitch is loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dngmon.events.disabled=log_events.bench.BenchNamespace.disabled")
+@State(Scope.Thread)
+public class EventSwitchBenchmark {
+
+    private static final MethodHandle DISABLED_SWITCH = EventSwitch.register("log_events.bench.BenchNamespace", "disabled");
+    private static final MethodHandle ENABLED_SWITCH = EventSwitch.register("log_events.bench.BenchNamespace", "enabled");
+
+    private static volatile boolean disabledFlag = false;
+    private static volatile boolean enabledFlag = true;
+
+    private long blockId = 42;
+    private String host = "datanode-7";
+
+    private String message() {
+        return "block " + blockId + " received from " + host;
+    }
+
+    @Benchmark
+    public void noGuard(Blackhole blackhole) {
+        blackhole.consume(message());
+    }
+
+    @Benchmark
+    public void switchDisabled(Blackhole blackhole) {
+        if (EventSwitch.isOn(DISABLED_SWITCH)) {
+            blackhole.consume(message());
+        }
+    }
+
+    @Benchmark
+    public void switchEnabled(Blackhole blackhole) {
+        if (EventSwitch.isOn(ENABLED_SWITCH)) {
+            blackhole.consume(message());
+        }
+    }
+
+    @Benchmark
+    public void volatileDisabled(Blackhole blackhole) {
+        if (disabledFlag) {
+            blackhole.consume(message());
+        }
+    }
+
+    @Benchmark
+    public void volatileEnabled(Blackhole blackhole) {
+        if (enabledFlag) {
+            blackhole.consume(message());
+        }
+    }
+}
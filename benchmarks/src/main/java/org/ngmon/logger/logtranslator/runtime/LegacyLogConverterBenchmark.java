@@ -0,0 +1,103 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matching of one legacy message by GoMatchEngine against trying regexes of all patterns in order of file,
+ * for 2000 patterns (size of GoMatch patterns of whole Hadoop), and conversion of 4 MB chunk of Hadoop log
+ * by LegacyLogConverter (one thread, throughput of more threads is this times number of cores).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LegacyLogConverterBenchmark {
+
+    private static final int PATTERNS = 2000;
+    private static final int MESSAGES = 1024;
+    private static final int CHUNK_SIZE = 4 << 20;
+    private static final String[] WORDS = {"block", "replica", "datanode", "received", "deleting", "lease", "packet",
+        "container", "allocated", "recovered", "finalized", "heartbeat", "checkpoint", "snapshot", "queue"};
+
+    private final String[] messages = new String[MESSAGES];
+    private final List<Pattern> linearPatterns = new ArrayList<>();
+    private GoMatchEngine.MessageMatcher matcher;
+    private LegacyLogConverter converter;
+    private ByteBuffer chunk;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createPatterns() {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        List<String[]> templates = new ArrayList<>();
+        for (int i = 0; i < PATTERNS; i++) {
+            String first = WORDS[random.nextInt(WORDS.length)];
+            String second = WORDS[random.nextInt(WORDS.length)];
+            String[] template = {capitalize(first) + " " + second + " " + i + " of ", " from ", " in ", " ms"};
+            templates.add(template);
+            lines.add("org.apache.hadoop.hdfsnamespace." + first + "_" + second + "_" + i + "##" + template[0]
+                + "%{STRING:name}" + template[1] + "%{STRING:host}" + template[2] + "%{LONG:time}" + template[3]);
+            linearPatterns.add(Pattern.compile(Pattern.quote(template[0]) + "(.*?)" + Pattern.quote(template[1])
+                + "(.*?)" + Pattern.quote(template[2]) + "(-?\\d+)" + Pattern.quote(template[3])));
+        }
+        GoMatchEngine engine = new GoMatchEngine(lines);
+        matcher = engine.newMatcher();
+        for (int i = 0; i < MESSAGES; i++) {
+            String[] template = templates.get(random.nextInt(PATTERNS));
+            messages[i] = template[0] + "blk_" + random.nextInt(1000000) + template[1] + "datanode-" + random.nextInt(50)
+                + template[2] + random.nextInt(1000) + template[3];
+        }
+        StringBuilder log = new StringBuilder(CHUNK_SIZE + 256);
+        for (int i = 0; log.length() < CHUNK_SIZE; i++) {
+            log.append("2014-03-01 12:").append(10 + i / 60000 % 50).append(':').append(10 + i / 1000 % 50).append(',')
+                .append(100 + i % 900).append(" INFO org.apache.hadoop.hdfs.server.datanode.DataNode: ")
+                .append(messages[i % MESSAGES]).append('\n');
+        }
+        chunk = ByteBuffer.wrap(log.toString().getBytes(StandardCharsets.UTF_8));
+        converter = new LegacyLogConverter(engine, LegacyLogConverter.HADOOP_LAYOUT,
+            LegacyLogConverter.HADOOP_TIME_FORMAT, 1, CHUNK_SIZE);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    @Benchmark
+    public Object matchByEngine() {
+        String message = messages[next++ & (MESSAGES - 1)];
+        return matcher.match(message) ? matcher.getValues() : null;
+    }
+
+    @Benchmark
+    public Object matchLinear() {
+        String message = messages[next++ & (MESSAGES - 1)];
+        for (Pattern pattern : linearPatterns) {
+            Matcher regex = pattern.matcher(message);
+            if (regex.matches()) {
+                return new Object[]{regex.group(1), regex.group(2), Long.parseLong(regex.group(3))};
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public int convertChunk() {
+        return converter.convert(chunk.duplicate(), 0, chunk.limit()).getEvents().length;
+    }
+}
@@ -0,0 +1,58 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translated log call flooding output (event encoded with String argument built per call) against the same
+ * call guarded by sampled (1/100) and rate limited (1000/s) LogSite. Run with -t to measure contention
+ * of threads logging one site.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogSiteBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"block", "size"};
+    private static final LogSite SAMPLED = LogSite.sample(FQN, "packet_sampled", 100);
+    private static final LogSite RATE_LIMITED = LogSite.rate(FQN, "packet_limited", 1000);
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final EventJsonEncoder encoder = new EventJsonEncoder(new EventJsonEncoderBenchmark.NullChannel(), 65536);
+
+    @State(Scope.Thread)
+    public static class Call {
+        long block = 1073741825L;
+    }
+
+    @Benchmark
+    public void unlimited(Call call) {
+        log(call);
+    }
+
+    @Benchmark
+    public void sampled(Call call) {
+        if (SAMPLED.tryLog()) {
+            log(call);
+        }
+    }
+
+    @Benchmark
+    public void rateLimited(Call call) {
+        if (RATE_LIMITED.tryLog()) {
+            log(call);
+        }
+    }
+
+    private void log(Call call) {
+        encoder.encode(FQN, "packet", tags, PARAM_NAMES, new Object[]{"blk_" + call.block++, 65536},
+            DirectNamespace.DEBUG, false);
+    }
+}
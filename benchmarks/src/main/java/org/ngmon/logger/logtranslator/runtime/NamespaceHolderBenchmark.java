@@ -0,0 +1,75 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.apache.logging.log4j.LogManager;
+import org.ngmon.logger.core.AbstractNamespace;
+import org.ngmon.logger.core.Logger;
+import org.ngmon.logger.core.LoggerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static initialization of 'classes' translated classes, as when daemon starts. Each class either creates
+ * its namespace with new SimpleLogger() (Log4j logger lookup per class), or reads LOG of namespace holder
+ * (shared_loggers=true), which is created once per run. Run in single shot mode, every invocation starts
+ * with new holder, Log4j itself is initialized before.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NamespaceHolderBenchmark {
+
+    @Param({"1000", "10000"})
+    public int classes;
+
+    /** Logger as generated SimpleLogger, each instance looks up its Log4j logger */
+    public static class SimpleLogger implements Logger {
+
+        private final org.apache.logging.log4j.Logger log = LogManager.getLogger("Log4jLogger");
+
+        @Override
+        public void log(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,
+                        int level) {
+            if (log.isDebugEnabled()) {
+                log.debug(methodName);
+            }
+        }
+    }
+
+    public static class BenchNamespace extends AbstractNamespace {
+    }
+
+    /** generated holder, initialized on first use by JVM */
+    private static final class Holder {
+        final SimpleLogger shared = new SimpleLogger();
+        final BenchNamespace log = LoggerFactory.getLogger(BenchNamespace.class, shared);
+    }
+
+    @Setup
+    public void initLog4j() {
+        LogManager.getLogger("Log4jLogger");
+    }
+
+    @Benchmark
+    public void loggerPerClass(Blackhole blackhole) {
+        for (int i = 0; i < classes; i++) {
+            blackhole.consume(LoggerFactory.getLogger(BenchNamespace.class, new SimpleLogger()));
+        }
+    }
+
+    @Benchmark
+    public void sharedHolder(Blackhole blackhole) {
+        Holder holder = null;
+        for (int i = 0; i < classes; i++) {
+            if (holder == null) {
+                holder = new Holder();
+            }
+            blackhole.consume(holder.log);
+        }
+    }
+}
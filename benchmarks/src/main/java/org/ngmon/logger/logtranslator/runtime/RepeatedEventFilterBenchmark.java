@@ -0,0 +1,64 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry loop logging the same event (exception and parameters) encoded by EventJsonEncoder every time, against
+ * the same event passed through RepeatedEventFilter. distinctFiltered measures overhead of filter for events,
+ * which never repeat (all of them are written). Run with -t to see contention of lock stripes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepeatedEventFilterBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"host", "attempt", "exception"};
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final EventJsonEncoder encoder = new EventJsonEncoder(new EventJsonEncoderBenchmark.NullChannel(), 65536);
+    private final RepeatedEventFilter filter = new RepeatedEventFilter(new RepeatedEventFilter.Handler() {
+        @Override
+        public void onRepeated(String fqnNS, String methodName, List<String> tags, String[] paramNames,
+                               Object[] paramValues, int level) {
+            encoder.encode(fqnNS, methodName, tags, paramNames, paramValues, level, false);
+        }
+    }, 1000, 4096);
+
+    @State(Scope.Thread)
+    public static class Call {
+        final Object[] paramValues = {"datanode-7", 3, "java.net.ConnectException: Connection refused"};
+        long sequence;
+    }
+
+    @Benchmark
+    public void repeated(Call call) {
+        log(call.paramValues);
+    }
+
+    @Benchmark
+    public void repeatedFiltered(Call call) {
+        if (filter.isFirst(FQN, "retry_failed", tags, PARAM_NAMES, call.paramValues, DirectNamespace.WARN)) {
+            log(call.paramValues);
+        }
+    }
+
+    @Benchmark
+    public void distinctFiltered(Call call) {
+        call.paramValues[1] = ++call.sequence;
+        if (filter.isFirst(FQN, "retry_failed", tags, PARAM_NAMES, call.paramValues, DirectNamespace.WARN)) {
+            log(call.paramValues);
+        }
+    }
+
+    private void log(Object[] paramValues) {
+        encoder.encode(FQN, "retry_failed", tags, PARAM_NAMES, paramValues, DirectNamespace.WARN, false);
+    }
+}
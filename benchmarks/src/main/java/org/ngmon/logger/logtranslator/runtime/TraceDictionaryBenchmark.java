@@ -0,0 +1,78 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catch block logging the same exception (with cause) encoded by EventJsonEncoder with its whole stack trace
+ * in every event, against reference into TraceDictionary (exception_traces=true), which prints the trace once.
+ * Exception is thrown again in each call, so fingerprint is computed from fresh stack trace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraceDictionaryBenchmark {
+
+    private static final String FQN = "log_events.bench.BenchNamespace";
+    private static final String[] PARAM_NAMES = {"host", "exception"};
+
+    private final List<String> tags = Arrays.asList("hdfs");
+    private final EventJsonEncoder encoder = new EventJsonEncoder(new EventJsonEncoderBenchmark.NullChannel(), 65536);
+    private final TraceDictionary traces = new TraceDictionary(new Writer() {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    });
+
+    @Benchmark
+    public void stackTrace() {
+        try {
+            connect();
+        } catch (IOException e) {
+            StringWriter trace = new StringWriter();
+            e.printStackTrace(new PrintWriter(trace));
+            log(new Object[]{"datanode-7", trace.toString()});
+        }
+    }
+
+    @Benchmark
+    public void traceReference() {
+        try {
+            connect();
+        } catch (IOException e) {
+            Object[] paramValues = {"datanode-7", e};
+            traces.replaceThrowables(paramValues);
+            log(paramValues);
+        }
+    }
+
+    private void log(Object[] paramValues) {
+        encoder.encode(FQN, "connect_failed", tags, PARAM_NAMES, paramValues, DirectNamespace.WARN, false);
+    }
+
+    private static void connect() throws IOException {
+        try {
+            throw new IllegalStateException("Connection refused");
+        } catch (IllegalStateException e) {
+            throw new IOException("Cannot connect to datanode-7", e);
+        }
+    }
+}
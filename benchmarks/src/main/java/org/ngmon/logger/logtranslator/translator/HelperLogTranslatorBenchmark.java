@@ -0,0 +1,47 @@
+package org.ngmon.logger.logtranslator.translator;
+
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.TranslationFixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HelperLogTranslator method lookup in extending class. Every lookup parses
+ * whole file again, so this is cost of each method call found in log statement.
+ * <p/>
+ * Benchmark lives in translator package, because HelperLogTranslator is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HelperLogTranslatorBenchmark {
+
+    @Param({"getShortUserName()", "toString()"})
+    public String method;
+
+    private String filepath;
+    private List<String> typeArguments = Arrays.asList("String");
+
+    @Setup(Level.Trial)
+    public void initialize() throws Exception {
+        TranslationFixture.initialize(TranslationFixture.getTestProject(), "info");
+        filepath = TranslationFixture.getTestProject().resolve("UserGroupInformation.java").toString();
+    }
+
+    @Benchmark
+    public boolean findMethod() {
+        // new LogFile, found methods are stored into it as variables
+        return HelperLogTranslator.findMethod(new LogFile(filepath), method, null);
+    }
+
+    @Benchmark
+    public boolean findMethodWithArguments() {
+        return HelperLogTranslator.findMethod(new LogFile(filepath), method, typeArguments);
+    }
+}
@@ -0,0 +1,22 @@
+package resources.corpus;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Commons logging statements with String.format formatters, written in style of Hadoop's logs.
+ * Part of LogCorpus, ProjectTesting contains no formatted log statements.
+ */
+public class CommonsFormattedLogs {
+
+    private static final Log LOG = LogFactory.getLog(CommonsFormattedLogs.class);
+    private int period;
+    private long startTxId;
+
+    public void logs(String containerId, String oldState, String newState, int numEdits, float usage) {
+        LOG.info(String.format("Scheduled snapshot period at %d second(s).", period));
+        LOG.debug(String.format("Container %s transitioned from %s to %s", containerId, oldState, newState));
+        LOG.info(String.format("Loaded %d edits starting from txid %d", numEdits, startTxId));
+        LOG.warn(String.format("Disk of container %s is %f full", containerId, usage));
+    }
+}
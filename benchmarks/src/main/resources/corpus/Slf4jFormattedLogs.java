@@ -0,0 +1,25 @@
+package resources.corpus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Slf4j log statements with {} formatters, written in style of Hadoop's logs.
+ * Part of LogCorpus, ProjectTesting contains no formatted log statements.
+ */
+public class Slf4jFormattedLogs {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Slf4jFormattedLogs.class);
+    private String hostname;
+    private int port;
+    private long blockId;
+
+    public void logs(String path, int replication, long length, String state) {
+        LOG.info("Starting RPC server on {}:{}", hostname, port);
+        LOG.debug("Block {} of file {} has {} replicas", blockId, path, replication);
+        LOG.warn("Unable to close file {} of length {}", path, length);
+        LOG.info("Application {} changed state to {}", path, state);
+        LOG.trace("Received heartbeat from {} after {} ms", hostname, length);
+        LOG.error("Lost connection to {} while reading block {}", hostname, blockId);
+    }
+}
@@ -22,6 +22,11 @@ public class Log {
     private String formattingSymbol;
     private List<String> ternaryValues;
     private LogFile logFile;
+    /** number of for, while and do loops around log call in its method */
+    private int loopDepth;
+    /** name of method (or constructor) containing log call, null for initializers */
+    private String enclosingMethod;
+    private int line;
 
     public Log() {
         comments = new ArrayList<>();
@@ -202,4 +207,28 @@ public class Log {
     public LogFile getLogFile() {
         return logFile;
     }
+
+    public int getLoopDepth() {
+        return loopDepth;
+    }
+
+    public void setLoopDepth(int loopDepth) {
+        this.loopDepth = loopDepth;
+    }
+
+    public String getEnclosingMethod() {
+        return enclosingMethod;
+    }
+
+    public void setEnclosingMethod(String enclosingMethod) {
+        this.enclosingMethod = enclosingMethod;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
 }
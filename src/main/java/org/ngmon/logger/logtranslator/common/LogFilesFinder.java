@@ -28,6 +28,8 @@ public class LogFilesFinder {
 
     public static Set<LogFile> commenceSearch(String loggingApplicationHome) {
         Path path = Paths.get(loggingApplicationHome);
+        /** files found by previous search in this JVM (e.g. by another test) would be processed twice */
+        reset();
 
         try {
             if (Files.exists(path, LinkOption.NOFOLLOW_LINKS) && Files.isDirectory(path) && Files.isReadable(path)) {
@@ -40,12 +42,23 @@ public class LogFilesFinder {
             e.printStackTrace();
         }
 
-        System.out.println("NO LOG def found=" + processFilesNoLogDeclaration.size());
+        if (Utils.verbose) {
+            System.out.println("NO LOG def found=" + processFilesNoLogDeclaration.size());
+        }
         LOG.no_log_definition_files(processFilesNoLogDeclaration.size()).info();
         processFiles.addAll(processFilesNoLogDeclaration);
         return processFiles;
     }
 
+    /**
+     * Forget all found files, so search can be started again in the same JVM.
+     */
+    public static void reset() {
+        processFiles.clear();
+        processFilesNoLogDeclaration.clear();
+        allJavaFiles.clear();
+    }
+
     public static SortedSet<String> getAllJavaFiles() {
         return allJavaFiles;
     }
@@ -109,7 +122,9 @@ class JavaLogFinder extends SimpleFileVisitor<Path> {
         }
         // Skip this tree, it contains no directories or no java files
         if (count == 0) {
-            LOG.skippingDirectoryTree(dir.toString()).debug();
+            if (Utils.isDebugEnabled()) {
+                LOG.skippingDirectoryTree(dir.toString()).debug();
+            }
             return FileVisitResult.SKIP_SUBTREE;
         }
         return FileVisitResult.CONTINUE;
@@ -165,7 +180,9 @@ class JavaLogFinder extends SimpleFileVisitor<Path> {
                             foundLog = true;
                         }
                         if (foundLog) {
-                            LOG.foundLogCall(line, file.toString()).trace();
+                            if (Utils.isTraceEnabled()) {
+                                LOG.foundLogCall(line, file.toString()).trace();
+                            }
                         }
                     }
 
@@ -1,47 +1,105 @@
 package org.ngmon.logger.logtranslator.common;
 
+import org.ngmon.logger.logtranslator.generator.FileCreator;
 import org.ngmon.logger.logtranslator.ngmonLogging.LogTranslatorNamespace;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class Statistics counts number of parsed files,
  * changed and generated log methods, extra parsed files, because of
  * extending from other classes and total length of run itself.
+ * All counters are kept in TranslationMetrics registry, which is
+ * exported at the end of run.
  */
 public class Statistics {
 
-    private static int changedLogMethodsCount;
-    private static Map<String, Integer> loggerTypeCountMap = new HashMap<>();
-    private static Set<LogFile> nonLogLogFiles = new HashSet<>();
+    private static final TranslationMetrics metrics = new TranslationMetrics();
+    private static final StripedCounter changedLogMethodsCount = metrics.total("changed_log_methods");
+    private static final StripedCounter counter = metrics.total("processed_files");
+    private static final StripedCounter extraParsedFilesCount = metrics.total("extra_parsed_files");
+    private static Set<LogFile> nonLogLogFiles = Collections.newSetFromMap(new ConcurrentHashMap<LogFile, Boolean>());
     private static LogTranslatorNamespace LOG = Utils.getLogger();
-    protected static int counter = 0;
     private static long start;
     private static long stop;
 
+    public static TranslationMetrics getMetrics() {
+        return metrics;
+    }
+
     public static void addChangedLogMethodsCount() {
-        changedLogMethodsCount++;
+        changedLogMethodsCount.increment();
     }
 
     public static int getChangedLogMethodsCount() {
-        return changedLogMethodsCount;
+        return (int) changedLogMethodsCount.sum();
+    }
+
+    /**
+     * Count one translated log call by its original logging framework,
+     * level and NGMON namespace it was translated into.
+     *
+     * @param loggerType original logging framework (commons, slf4j, log4j..)
+     * @param level      log level of translated call
+     * @param namespace  whole NGMON namespace of translated call
+     */
+    public static void addTranslatedCall(String loggerType, String level, String namespace) {
+        addChangedLogMethodsCount();
+        metrics.increment(TranslationMetrics.Dimension.FRAMEWORK, loggerType);
+        metrics.increment(TranslationMetrics.Dimension.LEVEL, level);
+        metrics.increment(TranslationMetrics.Dimension.NAMESPACE, namespace);
+    }
+
+    /**
+     * Count log call removed from translated sources, because its level is below min_log_level.
+     *
+     * @param level log level of removed call
+     */
+    public static void addStrippedCall(String level) {
+        metrics.increment(TranslationMetrics.Dimension.STRIPPED, level);
+    }
+
+    /**
+     * Count translated log call wrapped in LogGlobal level check, because its arguments are expensive.
+     *
+     * @param level log level of guarded call
+     */
+    public static void addLevelGuard(String level) {
+        metrics.increment(TranslationMetrics.Dimension.GUARDED, level);
+    }
+
+    /**
+     * Count variable used in log call by the way it was resolved.
+     *
+     * @param resolutionPath one of TranslationMetrics.RESOLVED_* values
+     */
+    public static void addVariableResolution(String resolutionPath) {
+        metrics.increment(TranslationMetrics.Dimension.RESOLUTION, resolutionPath);
+    }
+
+    /**
+     * Count failure, which occurred during translation.
+     *
+     * @param failureKind one of TranslationMetrics.FAILURE_* values
+     */
+    public static void addFailure(String failureKind) {
+        metrics.increment(TranslationMetrics.Dimension.FAILURE, failureKind);
     }
 
     public static void addLoggerTypeCount(String loggerType) {
-        int actCount;
-        if (loggerTypeCountMap.get(loggerType) == null) {
-            actCount = 0;
-        } else {
-            actCount = loggerTypeCountMap.get(loggerType);
-        }
-        loggerTypeCountMap.put(loggerType, actCount);
+        metrics.increment(TranslationMetrics.Dimension.LOADER, loggerType);
     }
 
+    /**
+     * Log number of created logger loaders for each logging framework.
+     */
     public static void reportLoaderType() {
-        // add +1 to map of Stats<key, count>
+        for (Map.Entry<String, Long> loader : metrics.snapshot(TranslationMetrics.Dimension.LOADER).entrySet()) {
+            LOG.loggerTypeCount(loader.getKey(), loader.getValue()).info();
+        }
     }
 
     /**
@@ -52,7 +110,9 @@ public class Statistics {
      *  @param logFile containing no logs, but variable declarations or methods
      */
     public static void addNonLogLogFile(LogFile logFile) {
-        nonLogLogFiles.add(logFile);
+        if (nonLogLogFiles.add(logFile)) {
+            extraParsedFilesCount.increment();
+        }
     }
 
     public static Set<LogFile> getNonLogLogFiles() {
@@ -67,12 +127,28 @@ public class Statistics {
 
         StringBuilder toPublish = new StringBuilder();
         toPublish.append(String.format("Changed %d log methods, in %f seconds.%n", getChangedLogMethodsCount(), finish));
+        if (Utils.isStrippingLevels()) {
+            long stripped = 0;
+            for (long count : metrics.snapshot(TranslationMetrics.Dimension.STRIPPED).values()) {
+                stripped += count;
+            }
+            toPublish.append(String.format("Removed %d log methods below minimum level.%n", stripped));
+        }
+        if (Utils.levelGuards) {
+            long guarded = 0;
+            for (long count : metrics.snapshot(TranslationMetrics.Dimension.GUARDED).values()) {
+                guarded += count;
+            }
+            toPublish.append(String.format("Guarded %d log methods with expensive arguments by level check.%n", guarded));
+        }
         toPublish.append(String.format("\nProcessed %d of %d files. Extra files parsed by extending %d.%n%n",
-            counter - nonLogLogFiles.size(), TranslatorStarter.logFiles.size(), nonLogLogFiles.size()));
+            getProcessedFilesCount() - nonLogLogFiles.size(), TranslatorStarter.logFiles.size(), nonLogLogFiles.size()));
 
         LOG.changedMethodsCount(getChangedLogMethodsCount());
-        LOG.processed_log_and_extra_files(counter - nonLogLogFiles.size(), nonLogLogFiles.size()).debug();
-
+        if (Utils.isDebugEnabled()) {
+            LOG.processed_log_and_extra_files(getProcessedFilesCount() - nonLogLogFiles.size(), nonLogLogFiles.size()).debug();
+        }
+        reportLoaderType();
 
         return toPublish.toString();
     }
@@ -82,7 +158,36 @@ public class Statistics {
      * raise counter by one.
      */
     public static void addProcessedFilesCounter() {
-        counter++;
+        counter.increment();
+    }
+
+    public static int getProcessedFilesCount() {
+        return (int) counter.sum();
+    }
+
+    /**
+     * Write all collected metrics as JSON and Prometheus text files
+     * to locations set in property file.
+     */
+    public static void exportMetrics() {
+        if (Utils.metricsJsonLocation != null) {
+            FileCreator.createFile(FileCreator.createPathFromString(Utils.metricsJsonLocation), metrics.toJson());
+            LOG.createdFile(Utils.metricsJsonLocation).info();
+        }
+        if (Utils.metricsPrometheusLocation != null) {
+            FileCreator.createFile(FileCreator.createPathFromString(Utils.metricsPrometheusLocation), metrics.toPrometheus());
+            LOG.createdFile(Utils.metricsPrometheusLocation).info();
+        }
+    }
+
+    /**
+     * Zero all counters and forget extra parsed files, so translation can be run again in the same JVM.
+     */
+    public static void reset() {
+        metrics.reset();
+        nonLogLogFiles.clear();
+        start = 0;
+        stop = 0;
     }
 
     /** Start timing the run of application */
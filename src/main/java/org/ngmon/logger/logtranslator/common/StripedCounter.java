@@ -0,0 +1,67 @@
+package org.ngmon.logger.logtranslator.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * StripedCounter is a long counter, which spreads concurrent increments
+ * over several cells. Each thread is mapped to its own cell, cells are padded
+ * to separate cache lines, so threads rarely contend on the same memory.
+ * Reading the value sums all cells.
+ * <p/>
+ * This is a Java 7 compatible replacement of java.util.concurrent.atomic.LongAdder.
+ */
+public class StripedCounter {
+
+    /** number of longs in one cache line (64 bytes) */
+    private static final int PADDING = 8;
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter() {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors()) {
+            stripes <<= 1;
+        }
+        this.mask = stripes - 1;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long value) {
+        cells.getAndAdd(cellIndex(), value);
+    }
+
+    /**
+     * Sum of all cells. Value is not an atomic snapshot, when
+     * other threads keep incrementing during the summing.
+     *
+     * @return current value of this counter
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    public void reset() {
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            cells.set(i, 0);
+        }
+    }
+
+    private int cellIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32));
+        return (hash & mask) * PADDING;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+}
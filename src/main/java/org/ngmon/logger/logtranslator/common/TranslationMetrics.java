@@ -0,0 +1,237 @@
+package org.ngmon.logger.logtranslator.common;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * TranslationMetrics is a registry of counters collected during translation.
+ * Counters are grouped into dimensions (logging framework, level, namespace,
+ * variable resolution path and failure kind), each dimension holds one counter
+ * per distinct key. Counters are striped, so the registry can be safely updated
+ * from multiple translating threads.
+ * <p/>
+ * At the end of run, registry can be exported as JSON or as Prometheus text format.
+ */
+public class TranslationMetrics {
+
+    /** Variable resolution paths */
+    public static final String RESOLVED_LOCAL = "local";
+    public static final String RESOLVED_FIELD = "field";
+    public static final String RESOLVED_SUPERCLASS = "superclass";
+    public static final String RESOLVED_METHOD_CALL = "method_call";
+    public static final String RESOLVED_FAILSAFE = "failsafe";
+
+    /** Failure kinds */
+    public static final String FAILURE_UNRESOLVED_VARIABLE = "unresolved_variable";
+    public static final String FAILURE_UNSUPPORTED_CHECKER = "unsupported_checker";
+    public static final String FAILURE_MISSING_LOG_FACTORY = "missing_log_factory";
+    public static final String FAILURE_PARSE_ERROR = "parse_error";
+    public static final String FAILURE_GOMATCH_PATTERN = "gomatch_pattern";
+
+    private static final String PROMETHEUS_PREFIX = "logtranslator_";
+
+    private final Map<Dimension, ConcurrentMap<String, StripedCounter>> dimensions = new EnumMap<>(Dimension.class);
+    private final ConcurrentMap<String, StripedCounter> totals = new ConcurrentHashMap<>();
+
+    public TranslationMetrics() {
+        // all dimensions are created up front, map itself is never modified later
+        for (Dimension dimension : Dimension.values()) {
+            dimensions.put(dimension, new ConcurrentHashMap<String, StripedCounter>());
+        }
+    }
+
+    /**
+     * Raise counter of given key in dimension by one.
+     *
+     * @param dimension to which counter belongs
+     * @param key       counter name in dimension (framework name, level, namespace..), null is counted as "unknown"
+     */
+    public void increment(Dimension dimension, String key) {
+        counter(dimensions.get(dimension), (key == null) ? "unknown" : key).increment();
+    }
+
+    /**
+     * Return global (dimension-less) counter of given name, create it if it does not exist yet.
+     *
+     * @param name of counter, in snake_case
+     * @return striped counter
+     */
+    public StripedCounter total(String name) {
+        return counter(totals, name);
+    }
+
+    public long get(Dimension dimension, String key) {
+        StripedCounter counter = dimensions.get(dimension).get(key);
+        return (counter == null) ? 0 : counter.sum();
+    }
+
+    /**
+     * @param dimension to take snapshot of
+     * @return sorted copy of current values of all counters in given dimension
+     */
+    public SortedMap<String, Long> snapshot(Dimension dimension) {
+        return snapshot(dimensions.get(dimension));
+    }
+
+    /**
+     * Forget all counters of dimensions and zero totals. Totals are zeroed in place,
+     * because their counters are kept by callers of total().
+     */
+    public void reset() {
+        for (ConcurrentMap<String, StripedCounter> counters : dimensions.values()) {
+            counters.clear();
+        }
+        for (StripedCounter total : totals.values()) {
+            total.reset();
+        }
+    }
+
+    /**
+     * Export all counters as one JSON object. Totals are stored as top level
+     * numbers, each dimension as nested object of key : count pairs.
+     *
+     * @return JSON representation of this registry
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        boolean first = true;
+        for (Map.Entry<String, Long> total : snapshot(totals).entrySet()) {
+            if (!first) {
+                json.append(",\n");
+            }
+            json.append("  ").append(jsonString(total.getKey())).append(": ").append(total.getValue());
+            first = false;
+        }
+        for (Dimension dimension : Dimension.values()) {
+            if (!first) {
+                json.append(",\n");
+            }
+            json.append("  ").append(jsonString(dimension.getMetricName())).append(": {");
+            boolean firstKey = true;
+            for (Map.Entry<String, Long> entry : snapshot(dimension).entrySet()) {
+                json.append(firstKey ? "\n" : ",\n");
+                json.append("    ").append(jsonString(entry.getKey())).append(": ").append(entry.getValue());
+                firstKey = false;
+            }
+            json.append(firstKey ? "}" : "\n  }");
+            first = false;
+        }
+        return json.append("\n}\n").toString();
+    }
+
+    /**
+     * Export all counters in Prometheus text exposition format.
+     *
+     * @return text suitable for node_exporter's textfile collector or pushgateway
+     */
+    public String toPrometheus() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Long> total : snapshot(totals).entrySet()) {
+            String metric = PROMETHEUS_PREFIX + total.getKey() + "_total";
+            text.append("# TYPE ").append(metric).append(" counter\n");
+            text.append(metric).append(" ").append(total.getValue()).append("\n");
+        }
+        for (Dimension dimension : Dimension.values()) {
+            String metric = PROMETHEUS_PREFIX + dimension.getMetricName() + "_total";
+            text.append("# HELP ").append(metric).append(" ").append(dimension.getHelp()).append("\n");
+            text.append("# TYPE ").append(metric).append(" counter\n");
+            for (Map.Entry<String, Long> entry : snapshot(dimension).entrySet()) {
+                text.append(metric).append("{").append(dimension.getLabel()).append("=\"")
+                    .append(prometheusLabelValue(entry.getKey())).append("\"} ").append(entry.getValue()).append("\n");
+            }
+        }
+        return text.toString();
+    }
+
+    private static StripedCounter counter(ConcurrentMap<String, StripedCounter> counters, String key) {
+        StripedCounter counter = counters.get(key);
+        if (counter == null) {
+            StripedCounter newCounter = new StripedCounter();
+            counter = counters.putIfAbsent(key, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    private static SortedMap<String, Long> snapshot(Map<String, StripedCounter> counters) {
+        SortedMap<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, StripedCounter> entry : counters.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().sum());
+        }
+        return snapshot;
+    }
+
+    private static String jsonString(String text) {
+        StringBuilder escaped = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '"':
+                    escaped.append("\\\"");
+                    break;
+                case '\\':
+                    escaped.append("\\\\");
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\t':
+                    escaped.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.append("\"").toString();
+    }
+
+    private static String prometheusLabelValue(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Dimensions of translated calls. Metric name is used as JSON key and
+     * Prometheus metric name, label as Prometheus label name.
+     */
+    public enum Dimension {
+        FRAMEWORK("framework", "translated_calls_by_framework", "Translated log calls by original logging framework."),
+        LEVEL("level", "translated_calls_by_level", "Translated log calls by log level."),
+        NAMESPACE("namespace", "translated_calls_by_namespace", "Translated log calls by generated NGMON namespace."),
+        RESOLUTION("path", "variable_resolutions", "Log call variables by resolution path."),
+        FAILURE("kind", "failures", "Translation failures by kind."),
+        LOADER("loader", "logger_loaders", "Created logger loaders (processed files) by logging framework."),
+        STRIPPED("level", "stripped_calls_by_level", "Log calls removed below minimum level (min_log_level)."),
+        GUARDED("level", "guarded_calls_by_level", "Translated log calls with expensive arguments wrapped in level check (level_guards).");
+
+        private final String label;
+        private final String metricName;
+        private final String help;
+
+        Dimension(String label, String metricName, String help) {
+            this.label = label;
+            this.metricName = metricName;
+            this.help = help;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+
+        public String getHelp() {
+            return help;
+        }
+    }
+}
@@ -30,6 +30,7 @@ public class TranslatorStarter {
                 }
             }
         }
+        reset();
         LOG.startingLogTranslation(Statistics.startTiming()).debug();
         /** 0) Initialize property file */
         Utils.initialize(propertyFilePath);
@@ -58,9 +59,13 @@ public class TranslatorStarter {
             /** 3) Visit each logFile and parse variables, imports, log definitions, methods
              Main part of this program */
             for (LogFile logFile : logFiles) {
-                System.out.println(Statistics.counter + "  " + logFile.getFilepath());
+                if (Utils.verbose) {
+                    System.out.println(Statistics.getProcessedFilesCount() + "  " + logFile.getFilepath());
+                }
                 if (!logFile.isFinishedParsing()) {
-                    LOG.antlrParsingFile(Statistics.counter, logFile.getFilepath()).debug();
+                    if (Utils.isDebugEnabled()) {
+                        LOG.antlrParsingFile(Statistics.getProcessedFilesCount(), logFile.getFilepath()).debug();
+                    }
                     ANTLRRunner.run(logFile, false, false);
                 }
                 if (logFile.isFinishedParsing()) {
@@ -93,9 +98,28 @@ public class TranslatorStarter {
 
             /** 9) Put GoMatch patterns into one file */
             FileCreator.createFile(FileCreator.createPathFromString(Utils.goMatchLocation), GoMatchGenerator.getGoMatchPatternListToString());
+
+            /** 10) Report log calls in loops and hot methods next to GoMatch patterns */
+            FileCreator.createFile(FileCreator.createPathFromString(Utils.hotLogSitesLocation), HotLogSiteReport.createReport(logFiles));
         }
         /** Print runtime length and simple statistics */
         System.out.println(Statistics.publishRunInfo());
+
+        /** Export translation metrics as JSON and Prometheus text */
+        Statistics.exportMetrics();
+    }
+
+    /**
+     * Clear state left by previous translation, so translation can be run again in the same JVM.
+     */
+    private static void reset() {
+        Statistics.reset();
+        LogFilesFinder.reset();
+        NgmonNamespaceFactory.reset();
+        GoMatchGenerator.reset();
+        EventSchemaGenerator.reset();
+        RuntimeSupportGenerator.reset();
+        tempList.clear();
     }
 
     /**
@@ -107,7 +131,7 @@ public class TranslatorStarter {
         /** Write NGMON namespaces on filesystem */
         FileCreator.flushNamespaces();
 
-        /** Add "dummy" LogGlobal logger, which handles isXEnabled() -> true */
+        /** Add LogGlobal logger, which handles isXEnabled() calls by configured Log4j level */
         LogGlobalGenerator.create();
         LOG.createdFile(LogGlobalGenerator.getPath()).info();
 
@@ -115,7 +139,53 @@ public class TranslatorStarter {
         SimpleLoggerGenerator.create();
         LOG.createdFile(SimpleLoggerGenerator.getPath()).info();
 
-        /** Create LogTranslator's default pom.xml to target location */
+        /** Copy runtime classes used by optional features of generated code (see logtranslator.properties) */
+        if (Utils.eventSwitches) {
+            RuntimeSupportGenerator.create("EventSwitch", "EventSwitchControlMBean", "EventSwitchControl");
+        }
+        if (Utils.directDispatch) {
+            RuntimeSupportGenerator.create("DirectNamespace");
+        }
+        if (Utils.eventMetrics) {
+            RuntimeSupportGenerator.create("EventMetrics", "EventMetricsMBean");
+        }
+        if (Utils.asyncLogger) {
+            RuntimeSupportGenerator.create("AsyncEventRing", "AsyncEventRingMBean");
+        }
+        if (Utils.isBufferEventEncoder()) {
+            RuntimeSupportGenerator.create("AbstractEventEncoder", "EventJsonEncoder");
+        }
+        if (Utils.isBinaryEventEncoder()) {
+            RuntimeSupportGenerator.create("AbstractEventEncoder", "EventJsonEncoder", "EventSchema", "BinaryEventEncoder",
+                "BinaryEventDecoder");
+        }
+        if (Utils.isColumnarEventEncoder()) {
+            RuntimeSupportGenerator.create("AbstractEventEncoder", "EventJsonEncoder", "EventSchema", "ColumnarEventStore",
+                "ColumnarEventScanner");
+        }
+        if (Utils.eventJournal) {
+            RuntimeSupportGenerator.create("EventJournal", "EventJournalReader");
+        }
+        if (Utils.exceptionTraces) {
+            RuntimeSupportGenerator.create("TraceDictionary");
+        }
+        if (Utils.isRepeatedEventFilter()) {
+            RuntimeSupportGenerator.create("RepeatedEventFilter");
+        }
+        if (Utils.hasLogSitePolicies()) {
+            RuntimeSupportGenerator.create("LogSite");
+        }
+        for (String runtimeFile : RuntimeSupportGenerator.getCreatedFiles()) {
+            LOG.createdFile(runtimeFile).info();
+        }
+
+        /** Write schema of binary and columnar events, methods keep IDs from previous schema */
+        if (Utils.isEventSchemaGenerated()) {
+            EventSchemaGenerator.create();
+            LOG.createdFile(EventSchemaGenerator.getPath()).info();
+        }
+
+        /** Create LogTranslator's default pom.xml to target location, without AspectJ for direct dispatch */
         LogTranslatorPom.create();
         LOG.createdFile(LogTranslatorPom.getPath()).info();
     }
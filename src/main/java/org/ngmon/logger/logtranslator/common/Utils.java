@@ -12,6 +12,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Class reads settings from logtranslator.properties file and
@@ -42,13 +43,47 @@ public class Utils {
     public static final List<String> JAVA_ESCAPE_CHARS = Arrays.asList("\\b", "\\t", "\\n", "\\f", "\\r", "\\\"", "\\\'", "\\\\");
     public static final List<String> DEFAULT_LOG_LEVELS = Arrays.asList("trace", "debug", "info", "warn", "error", "fatal", "log");
     public static final String sep = File.separator;
+    /** names of methods called for each record, request or element in Hadoop-like applications */
+    public static final String DEFAULT_HOT_METHOD_PATTERN = "run|call|map|reduce|next|hasNext|read|write|process\\w*|handle\\w*";
     private static final LogTranslatorNamespace NgmonLogger = LoggerFactory.getLogger(LogTranslatorNamespace.class, new SimpleLogger());
     public static List<String> FORMATTERS = Arrays.asList("String.format", "MessageFormatter.format", "StringUtils", "Formatter.format", "print", "formatMessage", "{}", "%");
     public static boolean ignoreParsingErrors;
     public static boolean goMatchDebug;
     public static boolean goMatchWorkaround;
     public static String goMatchLocation;
+    public static String hotLogSitesLocation;
+    public static Pattern hotMethodPattern;
     public static String debugOutputLocation;
+    public static String metricsJsonLocation;
+    public static String metricsPrometheusLocation;
+    public static boolean verbose;
+    public static boolean logGlobalLevelAware;
+    public static long logGlobalRefreshInterval;
+    public static boolean eventSwitches;
+    public static boolean eventMetrics;
+    public static boolean directDispatch;
+    public static boolean sharedLoggers;
+    public static boolean lazyArguments;
+    public static boolean levelGuards;
+    public static boolean asyncLogger;
+    public static int asyncBufferSize;
+    public static String asyncFullPolicy;
+    public static String asyncWaitStrategy;
+    public static int asyncBatchSize;
+    public static String eventEncoder;
+    public static String eventOutputFile;
+    public static int eventBufferSize;
+    public static int eventBlockRows;
+    public static long eventBlockFlushInterval;
+    public static boolean eventJournal;
+    public static String eventJournalDir;
+    public static int eventJournalSegmentSize;
+    public static int eventJournalSegments;
+    public static String logSitePolicyFile;
+    public static long eventRepeatWindow;
+    public static boolean exceptionTraces;
+    public static String exceptionTraceFile;
+    public static int eventRepeatTableSize;
     static String applicationHome;
     static String applicationNamespace;
     static String ngmonLogImport;
@@ -68,6 +103,13 @@ public class Utils {
     private static StringBuilder oldNewLogList = new StringBuilder(); // list of old & new generated log
     private static int ngmonMaxLogLength;
     static boolean cleanRun;
+    /** self-logging thresholds, precomputed from self_log_level, so hot paths check only a boolean */
+    private static boolean selfLogTrace;
+    private static boolean selfLogDebug;
+    /** index of lowest level kept in translated sources (DEFAULT_LOG_LEVELS order), 0 keeps all levels */
+    private static int minLogLevel;
+    /** sample rate (1/N) or max rate (N/s) of NGMON events, keyed by namespace class (simple or FQN) and method */
+    private static Properties logSitePolicies = new Properties();
 
 
     public static void initialize(String propertyPath) {
@@ -107,9 +149,48 @@ public class Utils {
             goMatchDebug = Boolean.parseBoolean(properties.getProperty("gomatch_debug_mode", "false"));
             goMatchWorkaround = Boolean.parseBoolean(properties.getProperty("gomatch_workaround", "false"));
             goMatchLocation = properties.getProperty("gomatch_generated_files", "generated/go-match.patterns");
+            hotLogSitesLocation = properties.getProperty("hot_log_sites_location", "generated/hot-log-sites");
+            hotMethodPattern = Pattern.compile(properties.getProperty("hot_method_pattern", DEFAULT_HOT_METHOD_PATTERN));
             debugOutputLocation = properties.getProperty("debug_output_location", "generated/ngmonold-newfiles");
             logTranslatorGeneratedProject = applicationHome + sep + properties.getProperty("generated_project_name", "logtranslator") + sep;
             cleanRun = Boolean.parseBoolean(properties.getProperty("clean_run", "false"));
+            metricsJsonLocation = properties.getProperty("metrics_json_location", "generated/translation-metrics.json");
+            metricsPrometheusLocation = properties.getProperty("metrics_prometheus_location", "generated/translation-metrics.prom");
+            setSelfLogLevel(properties.getProperty("self_log_level", "info"));
+            verbose = Boolean.parseBoolean(properties.getProperty("verbose_output", "false"));
+            logGlobalLevelAware = Boolean.parseBoolean(properties.getProperty("log_global_level_aware", "true"));
+            logGlobalRefreshInterval = Long.parseLong(properties.getProperty("log_global_refresh_interval", "5000"));
+            setMinLogLevel(properties.getProperty("min_log_level", "trace"));
+            eventSwitches = Boolean.parseBoolean(properties.getProperty("event_switches", "false"));
+            eventMetrics = Boolean.parseBoolean(properties.getProperty("event_metrics", "false"));
+            directDispatch = Boolean.parseBoolean(properties.getProperty("direct_dispatch", "false"));
+            sharedLoggers = Boolean.parseBoolean(properties.getProperty("shared_loggers", "false"));
+            lazyArguments = Boolean.parseBoolean(properties.getProperty("lazy_arguments", "false"));
+            levelGuards = Boolean.parseBoolean(properties.getProperty("level_guards", "false"));
+            asyncLogger = Boolean.parseBoolean(properties.getProperty("async_logger", "false"));
+            asyncBufferSize = Integer.parseInt(properties.getProperty("async_buffer_size", "65536"));
+            asyncFullPolicy = properties.getProperty("async_full_policy", "wait");
+            asyncWaitStrategy = properties.getProperty("async_wait_strategy", "park");
+            asyncBatchSize = Integer.parseInt(properties.getProperty("async_batch_size", "256"));
+            eventEncoder = properties.getProperty("event_encoder", "jsoner");
+            eventOutputFile = properties.getProperty("event_output_file", "logs/ngmon-events.json");
+            eventBufferSize = Integer.parseInt(properties.getProperty("event_buffer_size", "65536"));
+            eventBlockRows = Integer.parseInt(properties.getProperty("event_block_rows", "4096"));
+            eventBlockFlushInterval = Long.parseLong(properties.getProperty("event_block_flush_interval", "5000"));
+            eventJournal = Boolean.parseBoolean(properties.getProperty("event_journal", "false"));
+            eventJournalDir = properties.getProperty("event_journal_dir", "logs/ngmon-journal");
+            eventJournalSegmentSize = Integer.parseInt(properties.getProperty("event_journal_segment_size", "16777216"));
+            eventJournalSegments = Integer.parseInt(properties.getProperty("event_journal_segments", "8"));
+            if (eventJournal && !isBufferEventEncoder() && !isBinaryEventEncoder() && !isColumnarEventEncoder()) {
+                // journal stores bytes of encoded events, JSONer's Strings go to Log4j
+                eventEncoder = "buffer";
+            }
+            eventRepeatWindow = Long.parseLong(properties.getProperty("event_repeat_window", "0"));
+            eventRepeatTableSize = Integer.parseInt(properties.getProperty("event_repeat_table_size", "4096"));
+            exceptionTraces = Boolean.parseBoolean(properties.getProperty("exception_traces", "false"));
+            exceptionTraceFile = properties.getProperty("exception_trace_file", "logs/ngmon-traces.txt");
+            logSitePolicyFile = properties.getProperty("log_site_policy_file", "");
+            loadLogSitePolicies(logSitePolicyFile);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -123,6 +204,141 @@ public class Utils {
         return NgmonLogger;
     }
 
+    /**
+     * Set level of LogTranslator's own logging. Trace and debug events of LogTranslator
+     * are not even created, unless level is set to trace or debug.
+     *
+     * @param level one of trace, debug, info, warn, error, fatal (unknown level is treated as info)
+     */
+    public static void setSelfLogLevel(String level) {
+        String lowerLevel = (level == null) ? "info" : level.trim().toLowerCase();
+        selfLogTrace = lowerLevel.equals("trace");
+        selfLogDebug = selfLogTrace || lowerLevel.equals("debug");
+    }
+
+    /**
+     * Set minimum level baked into translated sources. Log calls below this level
+     * are removed and LogGlobal reports their levels as disabled.
+     *
+     * @param level one of trace, debug, info, warn, error, fatal (unknown or empty level keeps all levels)
+     */
+    public static void setMinLogLevel(String level) {
+        String lowerLevel = (level == null) ? "" : level.trim().toLowerCase();
+        int index = DEFAULT_LOG_LEVELS.indexOf(lowerLevel);
+        minLogLevel = (index < 0 || lowerLevel.equals("log")) ? 0 : index;
+    }
+
+    public static boolean isStrippingLevels() {
+        return minLogLevel > 0;
+    }
+
+    /**
+     * @param level log method name (trace, debug..)
+     * @return true if calls of this level are removed from translated sources, other
+     * methods than trace..fatal (log, printf) are never removed
+     */
+    public static boolean isStrippedLevel(String level) {
+        int index = DEFAULT_LOG_LEVELS.indexOf(level);
+        return index >= 0 && index < minLogLevel;
+    }
+
+    /**
+     * @return true if generated SimpleLogger writes events by EventJsonEncoder instead of JSONer and Log4j
+     */
+    public static boolean isBufferEventEncoder() {
+        return "buffer".equalsIgnoreCase(eventEncoder);
+    }
+
+    /**
+     * @return true if generated SimpleLogger writes events by BinaryEventEncoder with schema of namespace methods
+     */
+    public static boolean isBinaryEventEncoder() {
+        return "binary".equalsIgnoreCase(eventEncoder);
+    }
+
+    /**
+     * @return true if generated SimpleLogger stores events by ColumnarEventStore in blocks per event type
+     */
+    public static boolean isColumnarEventEncoder() {
+        return "columnar".equalsIgnoreCase(eventEncoder);
+    }
+
+    /**
+     * @return true if schema of namespace methods is generated for binary or columnar events
+     */
+    public static boolean isEventSchemaGenerated() {
+        return isBinaryEventEncoder() || isColumnarEventEncoder();
+    }
+
+    /**
+     * @return true if generated SimpleLogger collapses repeats of the same event by RepeatedEventFilter
+     */
+    public static boolean isRepeatedEventFilter() {
+        return eventRepeatWindow > 0;
+    }
+
+    /**
+     * Read policy file of sampled and rate limited events, invalid policies are reported and ignored.
+     *
+     * @param policyFile properties file with lines namespace.method=1/N or namespace.method=N/s, empty for none
+     */
+    public static void loadLogSitePolicies(String policyFile) {
+        logSitePolicies = new Properties();
+        if (policyFile == null || policyFile.trim().isEmpty()) {
+            return;
+        }
+        Properties policies = new Properties();
+        try (InputStream is = new FileInputStream(policyFile.trim())) {
+            policies.load(is);
+        } catch (IOException e) {
+            System.err.println("Cannot read log site policy file " + policyFile + ": " + e.getMessage());
+            return;
+        }
+        for (String event : policies.stringPropertyNames()) {
+            String policy = policies.getProperty(event).trim();
+            if (policy.matches("1/[1-9][0-9]*|[1-9][0-9]*/s")) {
+                logSitePolicies.setProperty(event.trim(), policy);
+            } else {
+                System.err.println("Ignoring log site policy " + event + "=" + policy + ", use 1/N or N/s");
+            }
+        }
+    }
+
+    public static boolean hasLogSitePolicies() {
+        return !logSitePolicies.isEmpty();
+    }
+
+    /**
+     * Policy of event is looked up by FQN of namespace class, then by its simple name,
+     * method name * matches all methods of namespace.
+     *
+     * @param namespace      package of namespace class without ngmon_log_events_import_prefix
+     * @param namespaceClass simple name of namespace class
+     * @param method         NGMON method name
+     * @return 1/N (every N-th call is logged), N/s (at most N calls per second are logged) or null for all calls
+     */
+    public static String getLogSitePolicy(String namespace, String namespaceClass, String method) {
+        if (logSitePolicies.isEmpty()) {
+            return null;
+        }
+        String fqn = getNgmongLogEventsImportPrefix() + "." + namespace + "." + namespaceClass;
+        for (String event : new String[]{fqn + "." + method, namespaceClass + "." + method, fqn + ".*", namespaceClass + ".*"}) {
+            String policy = logSitePolicies.getProperty(event);
+            if (policy != null) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isTraceEnabled() {
+        return selfLogTrace;
+    }
+
+    public static boolean isDebugEnabled() {
+        return selfLogDebug;
+    }
+
     public static String getApplicationHome() {
         return applicationHome;
     }
@@ -222,6 +438,7 @@ public class Utils {
     }
 
     public static String getOldNewLogList(Set<LogFile> logFiles) {
+        oldNewLogList.setLength(0);
         for (LogFile logfs : logFiles) {
             for (Log log : logfs.getLogs()) {
                 String generatedNgmonLog = log.getGeneratedNgmonLog().
@@ -0,0 +1,114 @@
+package org.ngmon.logger.logtranslator.generator;
+
+import org.ngmon.logger.logtranslator.common.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class creates schema of binary and columnar events (event_encoder=binary|columnar) - numeric ID, namespace,
+ * method name, parameter names and types of each method of generated namespaces.
+ * Schema is written to resources of generated project, so that runtime EventSchema finds it on classpath,
+ * and it is needed by BinaryEventDecoder to read binary events back.
+ * <p/>
+ * IDs are stable - when schema already exists, its methods keep their IDs and new methods
+ * get next ones, so that events written by previous translation can be still decoded.
+ * ID 0 is reserved for events missing in schema.
+ */
+public class EventSchemaGenerator {
+
+    private static final String sep = Utils.sep;
+    /** schema line without ID, keyed by namespace, method name and parameter types */
+    private static final Map<String, String> methods = new TreeMap<>();
+
+    /**
+     * Add method of generated namespace to schema.
+     *
+     * @param namespaceClass FQN of namespace class
+     * @param ngmonMethod    method with its final parameter names and types
+     */
+    public static void addMethod(String namespaceClass, NGMONMethod ngmonMethod) {
+        StringBuilder parameters = new StringBuilder();
+        for (Map.Entry<String, String> parameter : ngmonMethod.getFormalParameters().entrySet()) {
+            if (parameters.length() > 0) {
+                parameters.append(',');
+            }
+            parameters.append(parameter.getKey()).append(':').append(parameter.getValue().replace(",", ";"));
+        }
+        methods.put(namespaceClass + "." + ngmonMethod.getMethodName() + ngmonMethod.getFormalParameters().values(),
+            namespaceClass + "\t" + ngmonMethod.getMethodName() + "\t" + parameters);
+    }
+
+    /**
+     * Forget methods of previous translation, so translation can be run again in the same JVM.
+     */
+    public static void reset() {
+        methods.clear();
+    }
+
+    public static void create() {
+        String path = getPath();
+        Path schemaPath = FileCreator.createPathFromString(path);
+        Map<Integer, String> lines = readSchema(schemaPath);
+        Map<String, Integer> ids = new HashMap<>();
+        int lastId = 0;
+        for (Map.Entry<Integer, String> line : lines.entrySet()) {
+            ids.put(getKey(line.getValue()), line.getKey());
+            lastId = Math.max(lastId, line.getKey());
+        }
+        // methods removed from namespaces stay in schema, their events can be in old files
+        for (String line : methods.values()) {
+            Integer id = ids.get(getKey(line));
+            lines.put((id != null) ? id : ++lastId, line);
+        }
+
+        StringBuilder schema = new StringBuilder("# NGMON binary events schema generated by LogTranslator - id, namespace, " +
+            "method, parameters (name:type)\n# IDs must not be changed, events written with them could not be decoded\n");
+        for (Map.Entry<Integer, String> line : lines.entrySet()) {
+            schema.append(line.getKey()).append('\t').append(line.getValue()).append('\n');
+        }
+        FileCreator.createDirectory(FileCreator.createPathFromString(path.substring(0, path.lastIndexOf(sep))));
+        FileCreator.createFile(schemaPath, schema.toString());
+    }
+
+    /**
+     * @return lines of existing schema without ID keyed by ID, empty if there is none
+     */
+    private static Map<Integer, String> readSchema(Path schemaPath) {
+        Map<Integer, String> lines = new TreeMap<>();
+        if (!Files.exists(schemaPath)) {
+            return lines;
+        }
+        try {
+            for (String line : Files.readAllLines(schemaPath, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    int tab = line.indexOf('\t');
+                    lines.put(Integer.parseInt(line.substring(0, tab)), line.substring(tab + 1));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return lines;
+    }
+
+    /** namespace, method name and parameter types - parameter names can change without new ID */
+    private static String getKey(String line) {
+        String[] columns = line.split("\t", -1);
+        StringBuilder key = new StringBuilder(columns[0]).append('\t').append(columns[1]).append('(');
+        for (String parameter : columns[2].isEmpty() ? new String[0] : columns[2].split(",")) {
+            key.append(parameter.substring(parameter.indexOf(':') + 1)).append(',');
+        }
+        return key.append(')').toString();
+    }
+
+    public static String getPath() {
+        return Utils.getLogTranslatorGeneratedProject() + "src" + sep + "main" + sep + "resources" + sep +
+            "ngmon-event-schema.txt";
+    }
+}
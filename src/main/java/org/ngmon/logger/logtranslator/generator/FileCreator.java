@@ -40,9 +40,17 @@ public class FileCreator {
             String filepath = dir + Utils.sep + nfc.getNamespaceClassName() + ".java";
 
             createDirectory(createPathFromString(dir));
-            LOG.writingNamespace(filepath).debug();
-            System.out.println("NS=" + filepath);
+            if (Utils.isDebugEnabled()) {
+                LOG.writingNamespace(filepath).debug();
+            }
+            if (Utils.verbose) {
+                System.out.println("NS=" + filepath);
+            }
             createFile(createPathFromString(filepath), nfc.getNamespaceFileContent());
+            if (Utils.sharedLoggers) {
+                String holderPath = dir + Utils.sep + NamespaceFileCreator.getHolderClassName(nfc.getNamespaceClassName()) + ".java";
+                createFile(createPathFromString(holderPath), nfc.getHolderFileContent());
+            }
         }
     }
 
@@ -2,6 +2,8 @@ package org.ngmon.logger.logtranslator.generator;
 
 import org.ngmon.logger.logtranslator.common.Log;
 import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.Statistics;
+import org.ngmon.logger.logtranslator.common.TranslationMetrics;
 import org.ngmon.logger.logtranslator.common.Utils;
 import org.ngmon.logger.logtranslator.ngmonLogging.LogTranslatorNamespace;
 import org.ngmon.logger.logtranslator.translator.CommonsLoggerLoader;
@@ -32,6 +34,14 @@ public class GoMatchGenerator {
         }
     }
 
+    /**
+     * Forget all created patterns, so translation can be run again in the same JVM.
+     */
+    public static void reset() {
+        goMatchPatternList.clear();
+        waveCounter = 0;
+    }
+
     public static String getGoMatchPatternListToString() {
         StringBuilder output = new StringBuilder();
         for (String pattern : goMatchPatternList) {
@@ -140,7 +150,10 @@ public class GoMatchGenerator {
 
         if (newGoMatch.contains("~")) {
             waveCounter++;
-            System.err.println(waveCounter + "=" + newGoMatch + " \n" + log.getOriginalLog());
+            Statistics.addFailure(TranslationMetrics.FAILURE_GOMATCH_PATTERN);
+            if (Utils.verbose) {
+                System.err.println(waveCounter + "=" + newGoMatch + " \n" + log.getOriginalLog());
+            }
             LOG.goMatchPatternError(waveCounter, newGoMatch, log.getOriginalLog()).error();
         }
 
@@ -199,7 +212,7 @@ public class GoMatchGenerator {
      * @param log  containing all information about this log
      * @return altered text without variables
      */
-    private static String extractVars(String text, Log log) {
+    static String extractVars(String text, Log log) {
         List<LogFile.Variable> formattedVariables = log.getFormattedVariables();
         String symbol = log.getFormattingSymbol();
         /** THE WORST FIX POSSIBLE FOR DUMBEST LOG USAGE EVER -> LOG.info(s = "sigma=" + sigma") where s is String!! Used twice! */
@@ -5,6 +5,8 @@ import org.ngmon.logger.logtranslator.common.LogFile;
 import org.ngmon.logger.logtranslator.common.Utils;
 import org.ngmon.logger.logtranslator.ngmonLogging.LogTranslatorNamespace;
 
+import java.util.regex.Pattern;
+
 /**
  * Class contains helper methods for generation
  * of new method names, whole NGMON log methods, add
@@ -13,6 +15,8 @@ import org.ngmon.logger.logtranslator.ngmonLogging.LogTranslatorNamespace;
 public class HelperGenerator {
 
     private static LogTranslatorNamespace LOG = Utils.getLogger();
+    /** name followed by parenthesis, casts and parenthesized math expressions are not calls */
+    private static final Pattern METHOD_CALL = Pattern.compile("[\\w$>\\]]\\s*\\(");
 
     /**
      * Generate method name from 'comments' list - strings found in given log method call.
@@ -67,7 +71,9 @@ public class HelperGenerator {
             }
 
             if (Utils.itemInList(Utils.JAVA_KEYWORDS, logName.toString()) || logName.length() == 0) {
-                LOG.log_name(logName.toString()).trace();
+                if (Utils.isTraceEnabled()) {
+                    LOG.log_name(logName.toString()).trace();
+                }
                 log.setMethodName(Utils.getNgmonEmptyLogStatement());
             } else {
                 log.setMethodName(logName.toString());
@@ -91,12 +97,16 @@ public class HelperGenerator {
             StringBuilder vars = new StringBuilder();
             StringBuilder tags = new StringBuilder();
 
-            LOG.variablesInLog(log.getVariables().toString()).trace();
+            if (Utils.isTraceEnabled()) {
+                LOG.variablesInLog(log.getVariables().toString()).trace();
+            }
             int j = 0;
             for (LogFile.Variable var : log.getVariables()) {
                 if (var != null) {
                     if (var.getChangeOriginalName() == null) {
                         vars.append(var.getName());
+                    } else if (isLazyArgument(var) || isThrowableArgument(var)) {
+                        vars.append(removeStringTypeCast(var.getChangeOriginalName()));
                     } else {
                         vars.append(var.getChangeOriginalName());
                     }
@@ -105,7 +115,8 @@ public class HelperGenerator {
                 }
                 // Append .toString() if variable is of any other type then NGMON allowed data types
                 if (var != null) {
-                    if (!Utils.itemInList(Utils.NGMON_ALLOWED_TYPES, var.getType().toLowerCase())) {
+                    if (!Utils.itemInList(Utils.NGMON_ALLOWED_TYPES, var.getType().toLowerCase()) && !isLazyArgument(var)
+                        && !isThrowableArgument(var)) {
                         vars.append(".toString()");
                     }
                 } else {
@@ -131,7 +142,9 @@ public class HelperGenerator {
             }
 
             String replacementLog = String.format("%s.%s(%s)%s.%s()", logName, log.getMethodName(), vars, tags, log.getLevel());
-            LOG.replacementLogOriginalLog(replacementLog, log.getOriginalLog()).trace();
+            if (Utils.isTraceEnabled()) {
+                LOG.replacementLogOriginalLog(replacementLog, log.getOriginalLog()).trace();
+            }
             log.setGeneratedReplacementLog(replacementLog);
             return replacementLog;
         } else {
@@ -156,6 +169,87 @@ public class HelperGenerator {
         }
     }
 
+    /**
+     * Arguments of translated call are expensive, if they call methods or allocate objects - method calls
+     * and 'new' found by LogTranslator (methodCall tag), other expressions with calls and toString()
+     * of variables of other than NGMON allowed types. Lazy and throwable arguments are passed as they are.
+     *
+     * @param log translated log
+     * @return true if building arguments of NGMON method costs more than reading variables
+     */
+    public static boolean hasExpensiveArguments(Log log) {
+        for (LogFile.Variable var : log.getVariables()) {
+            if (var == null) {
+                continue;
+            }
+            if ("methodCall".equals(var.getTag())) {
+                return true;
+            }
+            String argument = var.getName();
+            boolean passedAsIs = isLazyArgument(var) || isThrowableArgument(var);
+            if (var.getChangeOriginalName() != null) {
+                argument = passedAsIs ? removeStringTypeCast(var.getChangeOriginalName()) : var.getChangeOriginalName();
+            }
+            if (METHOD_CALL.matcher(argument).find() || argument.startsWith("new ")) {
+                return true;
+            }
+            if (!passedAsIs && !Utils.itemInList(Utils.NGMON_ALLOWED_TYPES, var.getType().toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * In lazy arguments mode, variables of other then NGMON allowed data types and variables typecast
+     * to String are passed to NGMON method as objects. Logger converts them to String only when
+     * event is really logged, so toString() is not called for disabled levels and null is no NPE.
+     *
+     * @param var variable used in log
+     * @return true if variable is passed as Object
+     */
+    public static boolean isLazyArgument(LogFile.Variable var) {
+        if (!Utils.lazyArguments) {
+            return false;
+        }
+        String changedName = var.getChangeOriginalName();
+        return !Utils.itemInList(Utils.NGMON_ALLOWED_TYPES, var.getType().toLowerCase()) ||
+            (changedName != null && (changedName.startsWith("String.valueOf(") || changedName.endsWith(".toString()")));
+    }
+
+    /**
+     * With exception_traces, exception variable (of catch clause, or of exception type) logged as it is
+     * is passed to NGMON method as Throwable. Logger refers to its stack trace in TraceDictionary.
+     *
+     * @param var variable used in log
+     * @return true if variable is passed as Throwable
+     */
+    public static boolean isThrowableArgument(LogFile.Variable var) {
+        if (!Utils.exceptionTraces) {
+            return false;
+        }
+        String type = var.getType();
+        boolean throwableType = "Exception".equals(var.getNgmonName()) || type.endsWith("Exception")
+            || type.endsWith("Error") || type.equals("Throwable");
+        String expression = (var.getChangeOriginalName() == null) ? var.getName() : removeStringTypeCast(var.getChangeOriginalName());
+        return throwableType && expression.equals(var.getName());
+    }
+
+    /**
+     * Revert addStringTypeCast() and explicit toString() call.
+     *
+     * @param typecast expression like String.valueOf(x) or x.toString()
+     * @return expression x
+     */
+    public static String removeStringTypeCast(String typecast) {
+        if (typecast.startsWith("String.valueOf(") && typecast.endsWith(")")) {
+            return typecast.substring("String.valueOf(".length(), typecast.length() - 1);
+        } else if (typecast.endsWith(".toString()")) {
+            return typecast.substring(0, typecast.length() - ".toString()".length());
+        }
+        return typecast;
+    }
+
 
     /**
      * Method used for dropping unnecessary symbols in comments.
@@ -0,0 +1,104 @@
+package org.ngmon.logger.logtranslator.generator;
+
+import org.ngmon.logger.logtranslator.common.Log;
+import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.Utils;
+
+import java.util.*;
+
+/**
+ * Class creates report of hot log sites - log calls nested in for, while and do loops
+ * or in frequently called methods (names matching hot_method_pattern), found by LogTranslator.
+ * <p/>
+ * Calls of info and higher levels with non-constant arguments are ranked by estimated cost:
+ * (1 + number of variables) * 10^(loop depth) * (10 in hot method). Other hot sites (trace and debug
+ * levels, constant messages) are listed below them, as they are cheap when their level is disabled.
+ */
+public class HotLogSiteReport {
+
+    private static final int LOOP_ITERATIONS = 10;
+    private static final int HOT_METHOD_CALLS = 10;
+    private static final String HEADER = "cost\tlevel\tloop_depth\tmethod\tvariables\tfile:line\toriginal log\n";
+
+    /**
+     * @param logFiles translated files
+     * @return report with one tab separated line per hot log site
+     */
+    public static String createReport(Set<LogFile> logFiles) {
+        List<Log> ranked = new ArrayList<>();
+        List<Log> others = new ArrayList<>();
+        for (LogFile logFile : logFiles) {
+            for (Log log : logFile.getLogs()) {
+                if (log.getLoopDepth() == 0 && !isHotMethod(log)) {
+                    continue;
+                }
+                if (isRanked(log)) {
+                    ranked.add(log);
+                } else {
+                    others.add(log);
+                }
+            }
+        }
+        Comparator<Log> byCost = new Comparator<Log>() {
+            @Override
+            public int compare(Log first, Log second) {
+                int result = Long.compare(estimateCost(second), estimateCost(first));
+                if (result == 0) {
+                    result = location(first).compareTo(location(second));
+                }
+                return result;
+            }
+        };
+        Collections.sort(ranked, byCost);
+        Collections.sort(others, byCost);
+
+        StringBuilder report = new StringBuilder();
+        report.append("# Log calls in loops or in methods matching hot_method_pattern (").append(Utils.hotMethodPattern)
+            .append(")\n# cost = (1 + variables) * ").append(LOOP_ITERATIONS).append("^loop_depth * ")
+            .append(HOT_METHOD_CALLS).append(" in hot method\n\n");
+        report.append("# info and higher levels with non-constant arguments\n").append(HEADER);
+        appendLogs(report, ranked);
+        report.append("\n# trace, debug and constant log calls\n").append(HEADER);
+        appendLogs(report, others);
+        return report.toString();
+    }
+
+    /**
+     * @return estimated relative cost of log call - variables are evaluated (and concatenated) in every iteration
+     */
+    public static long estimateCost(Log log) {
+        long cost = 1 + log.getVariables().size();
+        for (int i = 0; i < log.getLoopDepth(); i++) {
+            cost *= LOOP_ITERATIONS;
+        }
+        if (isHotMethod(log)) {
+            cost *= HOT_METHOD_CALLS;
+        }
+        return cost;
+    }
+
+    private static boolean isRanked(Log log) {
+        int level = Utils.DEFAULT_LOG_LEVELS.indexOf(log.getLevel());
+        return level >= Utils.DEFAULT_LOG_LEVELS.indexOf("info") && !log.getVariables().isEmpty();
+    }
+
+    private static boolean isHotMethod(Log log) {
+        return log.getEnclosingMethod() != null && Utils.hotMethodPattern.matcher(log.getEnclosingMethod()).matches();
+    }
+
+    private static String location(Log log) {
+        return log.getLogFile().getFilepath() + ":" + log.getLine();
+    }
+
+    private static void appendLogs(StringBuilder report, List<Log> logs) {
+        for (Log log : logs) {
+            report.append(estimateCost(log)).append('\t')
+                .append(log.getLevel()).append('\t')
+                .append(log.getLoopDepth()).append('\t')
+                .append(log.getEnclosingMethod()).append('\t')
+                .append(log.getVariables().size()).append('\t')
+                .append(location(log)).append('\t')
+                .append(log.getOriginalLog().replaceAll("\\s+", " ")).append('\n');
+        }
+    }
+}
@@ -12,7 +12,11 @@ import java.util.List;
  * These methods are for example used in following statemnts:
  * if (log.isInfoEnabled()) {...}
  *
- * By default, all these checking methods return true;
+ * Checking methods answer from level of Log4j logger, which is used by SimpleLogger.
+ * Level is cached in volatile field and refreshed, when Log4j is reconfigured,
+ * periodically and on demand by LogGlobal.refresh(), so each check costs only
+ * one volatile read. When level awareness is turned off, all checks return true.
+ * Levels below min_log_level always return false.
  */
 public class LogGlobalGenerator {
 
@@ -29,10 +33,76 @@ public class LogGlobalGenerator {
                 "        return true;\n" +
                 "    }\n" +
                 "}\n";
+        if (Utils.logGlobalLevelAware) {
+            LOG_GLOBAL_TEMPLATE = "package <packageNamespace>;\n\n" +
+                "import org.apache.logging.log4j.LogManager;\n" +
+                "import org.apache.logging.log4j.Logger;\n" +
+                "import org.apache.logging.log4j.core.LoggerContext;\n\n" +
+                "import java.beans.PropertyChangeEvent;\n" +
+                "import java.beans.PropertyChangeListener;\n" +
+                "import java.util.Timer;\n" +
+                "import java.util.TimerTask;\n\n" +
+                "public class LogGlobal {\n\n" +
+                "    private static final Logger LOG = LogManager.getLogger(\"<loggerName>\");\n" +
+                "    /** lowest enabled level - trace=0 .. fatal=5, 6 when logging is off */\n" +
+                "    private static volatile int enabledLevel;\n\n" +
+                "    static {\n" +
+                "        refresh();\n" +
+                "        Object context = LogManager.getContext(false);\n" +
+                "        if (context instanceof LoggerContext) {\n" +
+                "            ((LoggerContext) context).addPropertyChangeListener(new PropertyChangeListener() {\n" +
+                "                @Override\n" +
+                "                public void propertyChange(PropertyChangeEvent event) {\n" +
+                "                    refresh();\n" +
+                "                }\n" +
+                "            });\n" +
+                "        }\n" +
+                "        long interval = Long.getLong(\"logglobal.refresh.interval\", <refreshInterval>L);\n" +
+                "        if (interval > 0) {\n" +
+                "            new Timer(\"LogGlobal-refresh\", true).schedule(new TimerTask() {\n" +
+                "                @Override\n" +
+                "                public void run() {\n" +
+                "                    refresh();\n" +
+                "                }\n" +
+                "            }, interval, interval);\n" +
+                "        }\n" +
+                "    }\n\n" +
+                "    /** Read level from Log4j again, call after changing logger level programmatically. */\n" +
+                "    public static void refresh() {\n" +
+                "        if (LOG.isTraceEnabled()) {\n" +
+                "            enabledLevel = 0;\n" +
+                "        } else if (LOG.isDebugEnabled()) {\n" +
+                "            enabledLevel = 1;\n" +
+                "        } else if (LOG.isInfoEnabled()) {\n" +
+                "            enabledLevel = 2;\n" +
+                "        } else if (LOG.isWarnEnabled()) {\n" +
+                "            enabledLevel = 3;\n" +
+                "        } else if (LOG.isErrorEnabled()) {\n" +
+                "            enabledLevel = 4;\n" +
+                "        } else if (LOG.isFatalEnabled()) {\n" +
+                "            enabledLevel = 5;\n" +
+                "        } else {\n" +
+                "            enabledLevel = 6;\n" +
+                "        }\n" +
+                "    }\n\n" +
+                "    /** Check level of event written by SimpleLogger, event without level (6) is checked as fatal. */\n" +
+                "    public static boolean isLevelEnabled(int level) {\n" +
+                "        return enabledLevel \\<= Math.min(level, 5);\n" +
+                "    }\n\n" +
+                "<methods>" +
+                "    public static boolean log() {\n" +
+                "        return true;\n" +
+                "    }\n" +
+                "}\n";
+        }
         ST logGlobalFile = new ST(LOG_GLOBAL_TEMPLATE);
         String namespace = Utils.getNgmonLogGlobal();
         namespace = namespace.substring(0, namespace.lastIndexOf("."));
         logGlobalFile.add("packageNamespace", namespace);
+        if (Utils.logGlobalLevelAware) {
+            logGlobalFile.add("loggerName", SimpleLoggerGenerator.LOG4J_LOGGER_NAME);
+            logGlobalFile.add("refreshInterval", Utils.logGlobalRefreshInterval);
+        }
 
         StringBuilder methods = new StringBuilder();
         for (String level : levels) {
@@ -45,14 +115,24 @@ public class LogGlobalGenerator {
     }
 
     private static String generateMethod(String level) {
+        String check = "true";
+        if (Utils.isStrippedLevel(level)) {
+            // calls of this level were removed, constant result lets JIT drop guarded blocks
+            check = "false";
+        } else if (Utils.logGlobalLevelAware) {
+            // isEnabled() without level is true, when any level is enabled
+            int levelIndex = level.isEmpty() ? levels.indexOf("fatal") : levels.indexOf(level);
+            check = "enabledLevel <= " + levelIndex;
+        }
         if (level.length() > 0) {
             level = Character.toUpperCase(level.charAt(0)) + level.substring(1);
         }
         String METHOD = "    public static boolean is<level>Enabled() {\n" +
-                "        return true;\n" +
+                "        return <check>;\n" +
                 "    }\n\n";
         ST method = new ST(METHOD);
         method.add("level", level);
+        method.add("check", check);
         return method.render();
     }
 
@@ -60,4 +140,3 @@ public class LogGlobalGenerator {
         return path;
     }
 }
-
@@ -3,6 +3,7 @@ package org.ngmon.logger.logtranslator.generator;
 import org.ngmon.logger.logtranslator.common.Utils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -12,11 +13,14 @@ import java.nio.file.Path;
  * translated applications folder of LogTranslator,
  * which will ensure compatibility with an existing
  * maven project.
+ * In direct dispatch mode namespaces are not woven, so AspectJ plugin is removed from pom.
  */
 public class LogTranslatorPom {
 
     private static String LOGTRANSLATOR_POM = "src" + Utils.sep + "main" +Utils.sep +
             "resources" + Utils.sep + "logtranslatorPom.xml";
+    private static final String ASPECTJ_START = "<!-- ngmon logger and aspectJ dependency-->";
+    private static final String ASPECTJ_END = "<!-- end of ngmon logger -->";
 
     public static void create() {
         Path pomPath = FileSystems.getDefault().getPath(LOGTRANSLATOR_POM);
@@ -25,12 +29,29 @@ public class LogTranslatorPom {
             if (Files.exists(projectPath)) {
                 Files.delete(projectPath);
             }
-            Files.copy(pomPath, projectPath);
+            if (Utils.directDispatch) {
+                Files.write(projectPath, removeAspectJ(new String(Files.readAllBytes(pomPath), StandardCharsets.UTF_8))
+                    .getBytes(StandardCharsets.UTF_8));
+            } else {
+                Files.copy(pomPath, projectPath);
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    private static String removeAspectJ(String pom) {
+        int start = pom.indexOf(ASPECTJ_START);
+        int end = pom.indexOf(ASPECTJ_END);
+        if (start == -1 || end == -1) {
+            return pom;
+        }
+        // remove whole lines of both comments and everything between them
+        start = pom.lastIndexOf('\n', start) + 1;
+        end = pom.indexOf('\n', end) + 1;
+        return pom.substring(0, start) + pom.substring(end);
+    }
+
     public static String getPath() {
         return LOGTRANSLATOR_POM;
     }
@@ -43,6 +43,13 @@ public class NamespaceFileCreator {
     private ST namespaceFileContent;
     private List<String> importList = new ArrayList<>();
     private Set<String> tempImportSet = new HashSet<>();
+    /** direct dispatch mode - parameter names array field name, keyed by method name and its parameter names */
+    private Map<String, String> paramNamesFields = new HashMap<>();
+    private StringBuilder paramNamesDeclarations = new StringBuilder();
+    /** true if some method of this namespace is sampled or rate limited */
+    private boolean hasLogSites;
+    /** event metrics mode - method names in order of EventMetrics registration, null until all methods are known */
+    private List<String> metricsMethods;
 
     /**
      * Create all log methods connected for this namespace from logically associated logFiles.
@@ -72,6 +79,46 @@ public class NamespaceFileCreator {
         return namespaceClassName;
     }
 
+    /**
+     * Shared loggers mode - holder of the only namespace instance, translated classes of this namespace
+     * read its LOG field. Holder class (with namespace and SimpleLogger) is initialized by JVM when
+     * the first of these classes is initialized.
+     *
+     * @return holder java file content
+     */
+    public String getHolderFileContent() {
+        ST template = new ST("package log_events.<applicationNamespace>;\n\n"
+            + "<imports>\n"
+            + "/**\n"
+            + " * <namespaceClassName> shared by all classes logging into it, created on first use.\n"
+            + " */\n"
+            + "public final class <holderClassName> {\n\n"
+            + "    public static final <namespaceClassName> LOG = <creation>;\n\n"
+            + "    private <holderClassName>() {\n"
+            + "    }\n"
+            + "}\n");
+        template.add("applicationNamespace", namespace);
+        template.add("namespaceClassName", namespaceClassName);
+        template.add("holderClassName", getHolderClassName(namespaceClassName));
+        String imports = "import " + Utils.getNgmonSimpleLoggerImport() + ";\n";
+        if (Utils.directDispatch) {
+            template.add("creation", "new " + namespaceClassName + "(SimpleLogger.SHARED)");
+        } else {
+            imports += "import " + Utils.getNgmonLogFactoryImport() + ";\n";
+            template.add("creation", "LoggerFactory.getLogger(" + namespaceClassName + ".class, SimpleLogger.SHARED)");
+        }
+        template.add("imports", imports);
+        return template.render();
+    }
+
+    /**
+     * @param namespaceClassName NGMON namespace class name
+     * @return name of class holding shared instance of namespace, see shared_loggers
+     */
+    public static String getHolderClassName(String namespaceClassName) {
+        return namespaceClassName + "Holder";
+    }
+
     /**
      * Create NGMON namespace with proper imports, class declaration and log methods.
      *
@@ -82,12 +129,13 @@ public class NamespaceFileCreator {
         String NAMESPACE_JAVA_CLASS_STRING_TEMPLATE =
             "package log_events.<applicationNamespace>;\n\n"
                 + "<imports>\n\n"
-                + "public class <namespaceClassName> extends AbstractNamespace {\n\n"
+                + "public class <namespaceClassName> extends <superClass> {\n\n"
                 + "    <methods>"
                 + "}\n";
         ST template = new ST(NAMESPACE_JAVA_CLASS_STRING_TEMPLATE);
         template.add("applicationNamespace", namespace);
         template.add("namespaceClassName", namespaceClassName);
+        template.add("superClass", Utils.directDispatch ? "DirectNamespace" : "AbstractNamespace");
 
         return template;
     }
@@ -112,18 +160,210 @@ public class NamespaceFileCreator {
             }
         }
 
+        if (Utils.eventSwitches) {
+            methodsString.append(prepareEventSwitches());
+        }
+        if (Utils.hasLogSitePolicies()) {
+            methodsString.append(prepareLogSites());
+        }
+        if (Utils.eventMetrics) {
+            methodsString.append(prepareEventMetrics());
+        }
+        StringBuilder methodsBodies = new StringBuilder();
+        paramNamesFields.clear();
+        paramNamesDeclarations.setLength(0);
         for (NGMONMethod method : methods) {
+            if (Utils.directDispatch || Utils.eventMetrics) {
+                // generate again, so that only kept methods declare their parameter names and metrics indexes are known
+                method.getLog().setGeneratedNgmonLog(prettyPrintMethod(method));
+            }
             method.getLog().setUsedGeneratedNgmonLog(true);
-            methodsString.append(method.getLog().getGeneratedNgmonLog());
+            if (Utils.isEventSchemaGenerated()) {
+                EventSchemaGenerator.addMethod(Utils.getNgmongLogEventsImportPrefix() + "." + namespace + "." +
+                    namespaceClassName, method);
+            }
+            methodsBodies.append(method.getLog().getGeneratedNgmonLog());
+        }
+        if (Utils.directDispatch) {
+            methodsString.append(prepareDirectDispatchDescriptors());
         }
+        methodsString.append(methodsBodies);
         namespaceFileContent.add("methods", methodsString.toString());
     }
 
+    /**
+     * Create one runtime switch for each method name (overloaded methods share it).
+     * Translated log calls are guarded by these switches, see EventSwitch.
+     *
+     * @return static final fields holding switches of all methods in this namespace
+     */
+    private String prepareEventSwitches() {
+        String namespaceClass = "log_events." + namespace + "." + namespaceClassName;
+        Set<String> methodNames = new TreeSet<>();
+        for (NGMONMethod method : methods) {
+            methodNames.add(method.getMethodName());
+        }
+        StringBuilder switches = new StringBuilder();
+        for (String methodName : methodNames) {
+            switches.append(String.format("public static final MethodHandle %s = EventSwitch.register(\"%s\", \"%s\");\n",
+                getEventSwitchName(methodName), namespaceClass, methodName));
+        }
+        return switches.append("\n").toString();
+    }
+
+    /**
+     * Create one sampled or rate limited site for each method name with policy in log_site_policy_file.
+     * Translated log calls of these methods are guarded by their sites, see LogSite.
+     *
+     * @return static final fields holding sites of limited methods in this namespace
+     */
+    private String prepareLogSites() {
+        String namespaceClass = Utils.getNgmongLogEventsImportPrefix() + "." + namespace + "." + namespaceClassName;
+        Set<String> methodNames = new TreeSet<>();
+        for (NGMONMethod method : methods) {
+            methodNames.add(method.getMethodName());
+        }
+        StringBuilder sites = new StringBuilder();
+        for (String methodName : methodNames) {
+            String policy = Utils.getLogSitePolicy(namespace, namespaceClassName, methodName);
+            if (policy != null) {
+                String site = policy.endsWith("/s")
+                    ? String.format("LogSite.rate(\"%s\", \"%s\", %s)", namespaceClass, methodName, policy.substring(0, policy.length() - 2))
+                    : String.format("LogSite.sample(\"%s\", \"%s\", %s)", namespaceClass, methodName, policy.substring(2));
+                sites.append(String.format("public static final LogSite %s = %s;\n", getLogSiteName(methodName), site));
+            }
+        }
+        hasLogSites = sites.length() > 0;
+        return hasLogSites ? sites.append("\n").toString() : "";
+    }
+
+    /**
+     * Create metrics of this namespace, methods are referenced by index of their name (overloaded methods share it).
+     *
+     * @return static final field holding EventMetrics of this namespace
+     */
+    private String prepareEventMetrics() {
+        Set<String> methodNames = new TreeSet<>();
+        for (NGMONMethod method : methods) {
+            methodNames.add(method.getMethodName());
+        }
+        metricsMethods = new ArrayList<>(methodNames);
+        StringBuilder metrics = new StringBuilder(String.format("public static final EventMetrics METRICS = EventMetrics.register(\"%s.%s.%s\"",
+            Utils.getNgmongLogEventsImportPrefix(), namespace, namespaceClassName));
+        for (String methodName : metricsMethods) {
+            metrics.append(",\n    \"").append(methodName).append('"');
+        }
+        return metrics.append(");\n\n").toString();
+    }
+
+    /**
+     * Estimate of JSON event size - names of namespace, method and parameters with JSON syntax and fixed size
+     * of values are counted by LogTranslator, lengths of String values are added at runtime.
+     * Values of Object and Throwable parameters are not converted to String to get their length.
+     *
+     * @param ngmonMethod method to estimate event of
+     * @return java expression of estimated size
+     */
+    private String getEventBytesEstimate(NGMONMethod ngmonMethod) {
+        int constant = 48 + Utils.getNgmongLogEventsImportPrefix().length() + namespace.length() +
+            namespaceClassName.length() + ngmonMethod.getMethodName().length();
+        StringBuilder lengths = new StringBuilder();
+        for (Map.Entry<String, String> parameter : ngmonMethod.getFormalParameters().entrySet()) {
+            constant += parameter.getKey().length() + 6;
+            if (parameter.getValue().equals("String")) {
+                lengths.append(" + EventMetrics.length(").append(parameter.getKey()).append(")");
+            } else if (Utils.itemInList(Utils.NGMON_ALLOWED_TYPES, parameter.getValue().toLowerCase())) {
+                constant += 8;
+            } else {
+                constant += 16;
+            }
+        }
+        return constant + lengths.toString();
+    }
+
+    /**
+     * @param methodName NGMON method name
+     * @return name of static field with sampled or rate limited site of this method
+     */
+    public static String getLogSiteName(String methodName) {
+        return methodName + "_SITE";
+    }
+
+    /**
+     * @param methodName NGMON method name
+     * @return name of static field with switch of this method, uppercase suffix never clashes with method names
+     */
+    public static String getEventSwitchName(String methodName) {
+        return methodName + "_SWITCH";
+    }
+
+    /**
+     * Direct dispatch mode - constructor and static final descriptors shared by all calls of namespace methods.
+     *
+     * @return namespace FQN field, parameter names fields of all methods and constructor taking Logger
+     */
+    private String prepareDirectDispatchDescriptors() {
+        return String.format("private static final String FQN = \"%s.%s.%s\";\n",
+            Utils.getNgmongLogEventsImportPrefix(), namespace, namespaceClassName) +
+            paramNamesDeclarations +
+            "\npublic " + namespaceClassName + "(Logger logger) {\n" +
+            "    super(logger);\n" +
+            "}\n\n";
+    }
+
+    /**
+     * Direct dispatch mode - get field holding parameter names of this method, declare it if it does not exist.
+     * Overloaded methods with other parameter names get numbered fields.
+     *
+     * @param ngmonMethod method to get parameter names from
+     * @return name of static final String[] field
+     */
+    private String getParamNamesField(NGMONMethod ngmonMethod) {
+        Set<String> paramNames = ngmonMethod.getFormalParameters().keySet();
+        String key = ngmonMethod.getMethodName() + paramNames;
+        String field = paramNamesFields.get(key);
+        if (field == null) {
+            int overloads = 0;
+            for (String existingKey : paramNamesFields.keySet()) {
+                if (existingKey.startsWith(ngmonMethod.getMethodName() + "[")) {
+                    overloads++;
+                }
+            }
+            field = ngmonMethod.getMethodName() + "_PARAMS" + ((overloads == 0) ? "" : String.valueOf(overloads + 1));
+            paramNamesFields.put(key, field);
+
+            StringBuilder names = new StringBuilder();
+            for (String name : paramNames) {
+                if (names.length() > 0) {
+                    names.append(", ");
+                }
+                names.append('"').append(name).append('"');
+            }
+            paramNamesDeclarations.append("private static final String[] ").append(field)
+                .append(" = {").append(names).append("};\n");
+        }
+        return field;
+    }
+
     /**
      *  Add imports to AbstractNamespace generation class.
      */
     private void addImportsToFileContent() {
         importList.add("import " + Utils.getNgmonLoggerAbstractNamespaceImport() + ";\n");
+        if (Utils.directDispatch) {
+            importList.add("import " + Utils.getNgmonLogImport() + ";\n");
+            importList.add(RuntimeSupportGenerator.getImport("DirectNamespace") + ";\n");
+        }
+        if (Utils.eventSwitches) {
+            importList.add(RuntimeSupportGenerator.getImport("EventSwitch") + ";\n");
+            importList.add("import java.lang.invoke.MethodHandle;\n");
+        }
+        if (hasLogSites) {
+            importList.add(RuntimeSupportGenerator.getImport("LogSite") + ";\n");
+        }
+        if (Utils.eventMetrics) {
+            importList.add(RuntimeSupportGenerator.getImport("EventMetrics") + ";\n");
+        }
         for (String col : tempImportSet) {
             importList.add("import java.util." + col + ";\n");
         }
@@ -140,10 +380,29 @@ public class NamespaceFileCreator {
         ST methodTemplate = new ST(
             "public AbstractNamespace <methodName>(<formalParameters>) {\n" +
 //                        "    return log(<parameterNames>);\n" +
-                "    return this;\n" +
+                "<metrics>" +
+                "    return <returnValue>;\n" +
                 "}\n\n");
 
         methodTemplate.add("methodName", ngmonMethod.getMethodName());
+        if (metricsMethods != null) {
+            methodTemplate.add("metrics", String.format("    METRICS.requested(%d, %s);\n",
+                metricsMethods.indexOf(ngmonMethod.getMethodName()), getEventBytesEstimate(ngmonMethod)));
+        } else {
+            methodTemplate.add("metrics", "");
+        }
+        if (Utils.directDispatch) {
+            // values are set into event holder of current thread, no array is allocated per call
+            StringBuilder event = new StringBuilder(String.format("event(FQN, \"%s\", %s)",
+                ngmonMethod.getMethodName(), getParamNamesField(ngmonMethod)));
+            int index = 0;
+            for (String name : ngmonMethod.getFormalParameters().keySet()) {
+                event.append(".set(").append(index++).append(", ").append(name).append(")");
+            }
+            methodTemplate.add("returnValue", event);
+        } else {
+            methodTemplate.add("returnValue", "this");
+        }
         StringBuilder formalParameters = new StringBuilder();
 
         Map<String, String> formalParametersMap = ngmonMethod.getFormalParameters();
@@ -186,7 +445,11 @@ public class NamespaceFileCreator {
 
             /** Use String data type if variable is of any other data type then NGMON allowed data types */
             String varType = variable.getType();
-            if (Utils.isNgmonPrimitiveTypesOnly()) {
+            if (HelperGenerator.isThrowableArgument(variable)) {
+                varType = "Throwable";
+            } else if (HelperGenerator.isLazyArgument(variable)) {
+                varType = "Object";
+            } else if (Utils.isNgmonPrimitiveTypesOnly()) {
                 if (!Utils.itemInList(Utils.NGMON_ALLOWED_TYPES, varType.toLowerCase())) {
                     varType = "String";
                 }
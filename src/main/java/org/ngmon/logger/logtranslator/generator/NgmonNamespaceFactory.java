@@ -16,6 +16,18 @@ public class NgmonNamespaceFactory {
     private static Map<String, Set<LogFile>> namespaceCreationMap = new TreeMap<>();
     private static LogTranslatorNamespace LOG = Utils.getLogger();
 
+    /**
+     * Forget all created namespaces, so translation can be run again in the same JVM.
+     */
+    public static void reset() {
+        namespaceFileCreatorSet.clear();
+        namespaceCreationMap.clear();
+    }
+
+    public static Map<String, Set<LogFile>> getNamespaceCreationMap() {
+        return namespaceCreationMap;
+    }
+
     public static Set<NamespaceFileCreator> getNamespaceFileCreatorSet() {
         return namespaceFileCreatorSet;
     }
@@ -28,13 +40,17 @@ public class NgmonNamespaceFactory {
      * @return same list of logFiles, but each of them has filled appropriate namespace.
      */
     public static Set<LogFile> generateNamespaces(Set<LogFile> logFileList) {
-        LOG.applicationNamespaceLength(Utils.getApplicationNamespaceLength()).trace();
+        if (Utils.isTraceEnabled()) {
+            LOG.applicationNamespaceLength(Utils.getApplicationNamespaceLength()).trace();
+        }
         for (LogFile lf : logFileList) {
             if (lf.getPackageName() == null) {
                 LOG.emptyPackageNameInFile(lf.getFilepath()).error();
             }
             String namespace = createNamespace(lf.getPackageName());
-            LOG.new_namespace(namespace).trace();
+            if (Utils.isTraceEnabled()) {
+                LOG.new_namespace(namespace).trace();
+            }
             lf.setNamespace(namespace);
         }
 
@@ -79,7 +95,9 @@ public class NgmonNamespaceFactory {
             throw new IllegalArgumentException("logFile is null!");
         }
 
-        LOG.namespaceNamespaceClass(logFile.getWholeNamespace()).trace();
+        if (Utils.isTraceEnabled()) {
+            LOG.namespaceNamespaceClass(logFile.getWholeNamespace()).trace();
+        }
         Set<LogFile> logFiles;
         if (namespaceCreationMap.containsKey(logFile.getWholeNamespace()))  {
             logFiles = namespaceCreationMap.get(logFile.getWholeNamespace());
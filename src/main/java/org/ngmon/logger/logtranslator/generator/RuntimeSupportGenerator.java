@@ -0,0 +1,65 @@
+package org.ngmon.logger.logtranslator.generator;
+
+import org.ngmon.logger.logtranslator.common.Utils;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class copies sources of runtime support classes (org.ngmon.logger.logtranslator.runtime)
+ * into translated application's LogTranslator project. These classes are used by
+ * generated namespaces and translated log calls, when optional features are turned on.
+ * Sources are copied from LogTranslator's own source tree, in the same way as
+ * LogTranslatorPom copies pom.xml.
+ */
+public class RuntimeSupportGenerator {
+
+    private static final String RUNTIME_PACKAGE = "org.ngmon.logger.logtranslator.runtime";
+    private static final String RUNTIME_SOURCES = "src" + Utils.sep + "main" + Utils.sep + "java" + Utils.sep +
+        RUNTIME_PACKAGE.replace(".", Utils.sep) + Utils.sep;
+    private static final List<String> createdFiles = new ArrayList<>();
+
+    /**
+     * Copy given runtime classes into generated project.
+     *
+     * @param classNames simple names of classes from runtime package
+     */
+    public static void create(String... classNames) {
+        Path targetDirectory = FileCreator.createPathFromString(Utils.getLogTranslatorGeneratedProject() + RUNTIME_SOURCES);
+        FileCreator.createDirectory(targetDirectory);
+        for (String className : classNames) {
+            Path source = FileSystems.getDefault().getPath(RUNTIME_SOURCES + className + ".java");
+            Path target = targetDirectory.resolve(className + ".java");
+            try {
+                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+                createdFiles.add(target.toString());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @param className simple name of class from runtime package
+     * @return import declaration of this class, without semicolon
+     */
+    public static String getImport(String className) {
+        return "import " + RUNTIME_PACKAGE + "." + className;
+    }
+
+    /**
+     * Forget copied files, so translation can be run again in the same JVM.
+     */
+    public static void reset() {
+        createdFiles.clear();
+    }
+
+    public static List<String> getCreatedFiles() {
+        return createdFiles;
+    }
+}
@@ -7,9 +7,24 @@ import org.stringtemplate.v4.ST;
  * Class generates SimpleLogger java file, which is used partly as bridging
  * class between Log4j(2) and NGMON logging framework, and for logging
  * NGMON's method calls.
+ * Each event is written only when its level is enabled - by cached level of LogGlobal, which guards
+ * translated calls too, or by Log4j itself, when log_global_level_aware is off.
+ * With async_logger, SimpleLogger only copies events into AsyncEventRing and
+ * its consumer thread encodes and writes them.
+ * With event_encoder=buffer, events are not passed to Log4j as JSONer's Strings, but
+ * written by EventJsonEncoder straight to event_output_file. Log4j level is checked anyway.
+ * With event_encoder=binary, BinaryEventEncoder writes them with method IDs from EventSchemaGenerator's schema.
+ * With event_encoder=columnar, ColumnarEventStore buffers events per event type and writes them in column blocks.
+ * With event_journal, encoder writes into memory-mapped EventJournal instead of event_output_file.
+ * With event_repeat_window, repeats of the same event are counted by RepeatedEventFilter and written as one summary.
+ * With exception_traces, Throwable values are replaced by references into TraceDictionary just before writing.
+ * With event_metrics, each written event (and summary of repeats) is counted as emitted by EventMetrics.
+ * With shared_loggers, SHARED instance is used by namespace holders of all namespaces.
  */
 public class SimpleLoggerGenerator {
 
+    /** Log4j logger, which receives all NGMON events, LogGlobal checks its level */
+    public static final String LOG4J_LOGGER_NAME = "Log4jLogger";
     private static final String sep = Utils.sep;
     private static final String path = Utils.getLogTranslatorGeneratedProject() + "src" + sep + "main" + sep + "java" + sep +
         Utils.getNgmonSimpleLoggerImport().replace(".", sep) + ".java";
@@ -20,22 +35,151 @@ public class SimpleLoggerGenerator {
             "import org.apache.logging.log4j.LogManager;\n" +
             "import <loggerImport>;\n" +
             "import <jsonerImport>;\n" +
+            "<runtimeImports>" +
             "import java.util.List;\n\n" +
             "public class SimpleLogger implements Logger {\n\n" +
-            "    private org.apache.logging.log4j.Logger log = LogManager.getLogger(\"Log4jLogger\");\n\n" +
+            "    private <logModifiers>org.apache.logging.log4j.Logger log = LogManager.getLogger(\"<loggerName>\");<levelsField><encoderField><repeatField><tracesField>\n\n" +
+            "<sharedField>" +
             "    @Override\n" +
             "    public void log() {\n" +
             "    }\n\n" +
             "    public void log(String fqnNS, String methodName, List\\<String> tags, String[] paramNames, Object[] paramValues, int level) {\n" +
-            "        log.debug(JSONer.getEventJson(fqnNS, methodName, tags, paramNames, paramValues, level));\n" +
+            "        // values are converted to String only when event is written\n" +
+            "        if (<levelCheck><repeatCheck>) {\n" +
+            "            <writeEvent>\n" +
+            "        }\n" +
             "    }\n" +
             "}\n";
+        if (Utils.asyncLogger) {
+            SIMPLE_LOGGER_TEMPLATE = "package <packageNamespace>;\n\n" +
+                "import org.apache.logging.log4j.LogManager;\n" +
+                "import <loggerImport>;\n" +
+                "import <jsonerImport>;\n" +
+                "<runtimeImports>" +
+                "import java.util.List;\n\n" +
+                "public class SimpleLogger implements Logger {\n\n" +
+                "    private static final org.apache.logging.log4j.Logger log = LogManager.getLogger(\"<loggerName>\");<levelsField><encoderField><repeatField><tracesField>\n" +
+                "    /** events are encoded and written by one consumer thread, see AsyncEventRing */\n" +
+                "    private static final AsyncEventRing ring = AsyncEventRing.start(new AsyncEventRing.Handler() {\n" +
+                "        @Override\n" +
+                "        public void onEvent(String fqnNS, String methodName, List\\<String> tags, String[] paramNames, Object[] paramValues,\n" +
+                "                            int level, boolean endOfBatch) {\n" +
+                "            <writeEvent>\n" +
+                "        }\n" +
+                "    }, <bufferSize>, \"<fullPolicy>\", \"<waitStrategy>\", <batchSize>);\n\n" +
+                "<sharedField>" +
+                "    @Override\n" +
+                "    public void log() {\n" +
+                "    }\n\n" +
+                "    public void log(String fqnNS, String methodName, List\\<String> tags, String[] paramNames, Object[] paramValues, int level) {\n" +
+                "        if (<levelCheck><repeatCheck>) {\n" +
+                "            ring.publish(fqnNS, methodName, tags, paramNames, paramValues, level);\n" +
+                "        }\n" +
+                "    }\n" +
+                "}\n";
+        }
         ST simpleLoggerFile = new ST(SIMPLE_LOGGER_TEMPLATE);
         String namespace = Utils.getNgmonSimpleLoggerImport();
         namespace = namespace.substring(0, namespace.lastIndexOf("."));
         simpleLoggerFile.add("packageNamespace", namespace);
+        simpleLoggerFile.add("loggerName", LOG4J_LOGGER_NAME);
         simpleLoggerFile.add("loggerImport", Utils.getNgmonLogImport());
         simpleLoggerFile.add("jsonerImport", Utils.getNgmonJsonerImport());
+        StringBuilder runtimeImports = new StringBuilder();
+        String writeEvent;
+        if (Utils.asyncLogger) {
+            runtimeImports.append(RuntimeSupportGenerator.getImport("AsyncEventRing")).append(";\n");
+        }
+        if (Utils.isBufferEventEncoder() || Utils.isBinaryEventEncoder() || Utils.isColumnarEventEncoder()) {
+            String encoderClass = Utils.isBinaryEventEncoder() ? "BinaryEventEncoder"
+                : Utils.isColumnarEventEncoder() ? "ColumnarEventStore" : "EventJsonEncoder";
+            runtimeImports.append(RuntimeSupportGenerator.getImport(encoderClass)).append(";\n");
+            String output = String.format("System.getProperty(\"ngmon.events.file\", \"%s\")", Utils.eventOutputFile);
+            if (Utils.eventJournal) {
+                runtimeImports.append(RuntimeSupportGenerator.getImport("EventJournal")).append(";\n");
+                output = String.format("EventJournal.open(System.getProperty(\"ngmon.journal.dir\", \"%s\"), %d, %d)",
+                    Utils.eventJournalDir, Utils.eventJournalSegmentSize, Utils.eventJournalSegments);
+            }
+            if (Utils.isColumnarEventEncoder()) {
+                // blocks are written when they are full, by timer and on shutdown
+                simpleLoggerFile.add("encoderField", String.format("\n    private static final %1$s encoder = %1$s.open(%2$s, %3$d, %4$dL);",
+                    encoderClass, output, Utils.eventBlockRows, Utils.eventBlockFlushInterval));
+                writeEvent = "encoder.append(fqnNS, methodName, tags, paramNames, paramValues, level);";
+            } else {
+                simpleLoggerFile.add("encoderField", String.format("\n    private static final %1$s encoder = %1$s.open(%2$s, %3$d);",
+                    encoderClass, output, Utils.eventBufferSize));
+                // async consumer writes whole batch at once, synchronous logger writes each event
+                writeEvent = String.format("encoder.encode(fqnNS, methodName, tags, paramNames, paramValues, level, %s);",
+                    Utils.asyncLogger ? "endOfBatch" : "true");
+            }
+        } else {
+            simpleLoggerFile.add("encoderField", "");
+            writeEvent = "log.log(LEVELS[level], JSONer.getEventJson(fqnNS, methodName, tags, paramNames, paramValues, level));";
+        }
+        if (Utils.logGlobalLevelAware) {
+            // the same cached level as guards of translated calls, so guard and write agree
+            runtimeImports.append("import ").append(Utils.getNgmonLogGlobal()).append(";\n");
+            simpleLoggerFile.add("levelCheck", "LogGlobal.isLevelEnabled(level)");
+        } else {
+            simpleLoggerFile.add("levelCheck", "log.isEnabled(LEVELS[level])");
+        }
+        if (!Utils.logGlobalLevelAware || writeEvent.startsWith("log.")) {
+            runtimeImports.append("import org.apache.logging.log4j.Level;\n");
+            simpleLoggerFile.add("levelsField", "\n    /** Log4j levels of NGMON levels trace=0 .. fatal=5, events without level (6) are written as fatal */\n" +
+                "    private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR, Level.FATAL, Level.FATAL};");
+        } else {
+            simpleLoggerFile.add("levelsField", "");
+        }
+        if (Utils.eventMetrics) {
+            // counted where event is written, after level check and repeat filter, before Throwables are replaced
+            runtimeImports.append(RuntimeSupportGenerator.getImport("EventMetrics")).append(";\n");
+            writeEvent = "EventMetrics.emitted(fqnNS, methodName, paramNames, paramValues);\n" + writeEvent;
+        }
+        if (Utils.exceptionTraces) {
+            runtimeImports.append(RuntimeSupportGenerator.getImport("TraceDictionary")).append(";\n");
+            simpleLoggerFile.add("tracesField", String.format("\n    private static final TraceDictionary traces = " +
+                "TraceDictionary.open(System.getProperty(\"ngmon.traces.file\", \"%s\"));", Utils.exceptionTraceFile));
+            String replaceThrowables = "traces.replaceThrowables(paramValues);\n";
+            simpleLoggerFile.add("writeEvent", Utils.eventMetrics
+                ? writeEvent.replace("\n", "\n" + replaceThrowables) : replaceThrowables + writeEvent);
+        } else {
+            simpleLoggerFile.add("tracesField", "");
+            simpleLoggerFile.add("writeEvent", writeEvent);
+        }
+        if (Utils.isRepeatedEventFilter()) {
+            // summaries go the same way as events, through ring or straight to encoder
+            runtimeImports.append(RuntimeSupportGenerator.getImport("RepeatedEventFilter")).append(";\n");
+            String writeSummary = Utils.asyncLogger
+                ? "ring.publish(fqnNS, methodName, tags, paramNames, paramValues, level);" : writeEvent;
+            simpleLoggerFile.add("logModifiers", "static final ");
+            simpleLoggerFile.add("repeatField", "\n    /** repeats of event written during event_repeat_window are counted and written as one summary event */\n" +
+                "    private static final RepeatedEventFilter repeats = RepeatedEventFilter.start(new RepeatedEventFilter.Handler() {\n" +
+                "        @Override\n" +
+                "        public void onRepeated(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,\n" +
+                "                               int level) {\n" +
+                "            " + writeSummary + "\n" +
+                "        }\n" +
+                String.format("    }, %dL, %d);", Utils.eventRepeatWindow, Utils.eventRepeatTableSize));
+            simpleLoggerFile.add("repeatCheck", " && repeats.isFirst(fqnNS, methodName, tags, paramNames, paramValues, level)");
+        } else {
+            simpleLoggerFile.add("logModifiers", "");
+            simpleLoggerFile.add("repeatField", "");
+            simpleLoggerFile.add("repeatCheck", "");
+        }
+        if (Utils.sharedLoggers) {
+            // declared after all static fields, which are initialized before it
+            simpleLoggerFile.add("sharedField", "    /** instance used by all namespace holders, see shared_loggers */\n" +
+                "    public static final SimpleLogger SHARED = new SimpleLogger();\n\n");
+        } else {
+            simpleLoggerFile.add("sharedField", "");
+        }
+        simpleLoggerFile.add("runtimeImports", runtimeImports);
+        if (Utils.asyncLogger) {
+            simpleLoggerFile.add("bufferSize", Utils.asyncBufferSize);
+            simpleLoggerFile.add("fullPolicy", Utils.asyncFullPolicy);
+            simpleLoggerFile.add("waitStrategy", Utils.asyncWaitStrategy);
+            simpleLoggerFile.add("batchSize", Utils.asyncBatchSize);
+        }
 
         FileCreator.createDirectory(FileCreator.createPathFromString(path.substring(0, path.lastIndexOf(sep))));
         FileCreator.createFile(FileCreator.createPathFromString(path), simpleLoggerFile.render());
@@ -0,0 +1,309 @@
+package org.ngmon.logger.logtranslator.generator;
+
+import org.ngmon.logger.logtranslator.common.Utils;
+import org.stringtemplate.v4.ST;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SyntheticProjectGenerator writes maven project of configurable size, which is used
+ * to measure how LogTranslator scales - discovery, parsing, namespace generation and memory.
+ *
+ * Generated project contains classes in many packages, each class uses one of commons, slf4j,
+ * log4j or JUL loggers. Classes form extends chains (also across packages), log statements use
+ * concatenated, formatted, ternary, method call, inherited and statically imported variables,
+ * exceptions and isXEnabled() guards - all constructs which LogTranslator has to resolve.
+ * Same seed always generates same project.
+ *
+ * Usage: SyntheticProjectGenerator outputDirectory [files] [filesPerPackage] [extendsDepth] [seed]
+ */
+public class SyntheticProjectGenerator {
+
+    public static final List<String> FRAMEWORKS = Arrays.asList("commons", "slf4j", "log4j", "juli");
+    private static final String BASE_PACKAGE = "org.synthetic";
+    private static final String CONSTANTS_PACKAGE = BASE_PACKAGE + ".common";
+    private static final List<String> LEVELS = Arrays.asList("trace", "debug", "info", "warn", "error");
+    private static final List<String> JUL_LEVELS = Arrays.asList("finest", "fine", "info", "warning", "severe");
+    /** number of packages grouped into one module directory, keeps directory trees deep */
+    private static final int PACKAGES_PER_MODULE = 50;
+
+    private static final String CLASS_TEMPLATE = "package <package>;\n\n" +
+        "<imports>" +
+        "\n" +
+        "public class <className><extends> {\n\n" +
+        "    <logDeclaration>\n" +
+        "    protected int count<level>;\n" +
+        "    protected String source<level>;\n" +
+        "    private boolean active<level>;\n\n" +
+        "    public String getName<level>() {\n" +
+        "        return source<level>;\n" +
+        "    }\n\n" +
+        "<methods>" +
+        "}\n";
+
+    private static final String METHOD_TEMPLATE = "    public void <name>(String request, long elapsed, Exception cause) {\n" +
+        "<statements>" +
+        "    }\n\n";
+
+    private int files = 1000;
+    private int filesPerPackage = 10;
+    private int extendsDepth = 5;
+    private int methodsPerFile = 3;
+    private int logsPerMethod = 4;
+    private List<String> frameworks = FRAMEWORKS;
+    private long seed = 42;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticProjectGenerator outputDirectory [files] [filesPerPackage] [extendsDepth] [seed]");
+            System.exit(1);
+        }
+        SyntheticProjectGenerator generator = new SyntheticProjectGenerator();
+        if (args.length > 1) {
+            generator.setFiles(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            generator.setFilesPerPackage(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            generator.setExtendsDepth(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            generator.setSeed(Long.parseLong(args[4]));
+        }
+        int logs = generator.generate(FileCreator.createPathFromString(args[0]));
+        System.out.println("Generated " + generator.getFiles() + " files with " + logs + " log statements into " + args[0]);
+    }
+
+    /**
+     * Write whole maven project into given directory.
+     *
+     * @param projectHome directory of created project
+     * @return number of generated log statements
+     */
+    public int generate(Path projectHome) {
+        Random random = new Random(seed);
+        Path sources = projectHome.resolve("src").resolve("main").resolve("java");
+        FileCreator.createFile(projectHome.resolve("pom.xml"), createPom());
+        FileCreator.createFile(sources.resolve(CONSTANTS_PACKAGE.replace(".", Utils.sep)).resolve("Constants.java"), createConstants());
+
+        int logs = 0;
+        for (int i = 0; i < files; i++) {
+            String packageName = getPackageName(i);
+            Path file = sources.resolve(packageName.replace(".", Utils.sep)).resolve(getClassName(i) + ".java");
+            List<String> statements = new ArrayList<>();
+            FileCreator.createFile(file, createClass(i, random, statements));
+            logs += statements.size();
+        }
+        return logs;
+    }
+
+    String getPackageName(int file) {
+        int packageIndex = file / filesPerPackage;
+        return BASE_PACKAGE + ".m" + (packageIndex / PACKAGES_PER_MODULE) + ".p" + packageIndex;
+    }
+
+    String getClassName(int file) {
+        return "Service" + file;
+    }
+
+    /**
+     * @param file index of generated file
+     * @return position of class in its extends chain, 0 is base class extending nothing
+     */
+    int getChainLevel(int file) {
+        return (extendsDepth <= 1) ? 0 : file % extendsDepth;
+    }
+
+    /**
+     * Create class content. Class extends previous generated class, unless it starts new extends chain.
+     *
+     * @param file       index of generated file
+     * @param random     source of variety of log statements
+     * @param statements collects generated log statements
+     * @return java source of class
+     */
+    String createClass(int file, Random random, List<String> statements) {
+        String framework = frameworks.get(random.nextInt(frameworks.size()));
+        String className = getClassName(file);
+        int level = getChainLevel(file);
+        boolean staticImport = random.nextInt(4) == 0;
+
+        ST classTemplate = new ST(CLASS_TEMPLATE);
+        classTemplate.add("package", getPackageName(file));
+        classTemplate.add("className", className);
+        classTemplate.add("level", level);
+
+        List<String> imports = new ArrayList<>();
+        if (level > 0) {
+            classTemplate.add("extends", " extends " + getClassName(file - 1));
+            if (!getPackageName(file - 1).equals(getPackageName(file))) {
+                imports.add(getPackageName(file - 1) + "." + getClassName(file - 1));
+            }
+        } else {
+            classTemplate.add("extends", "");
+        }
+        if (staticImport) {
+            imports.add("static " + CONSTANTS_PACKAGE + ".Constants.*");
+        }
+        switch (framework) {
+            case "commons":
+                imports.add("org.apache.commons.logging.Log");
+                imports.add("org.apache.commons.logging.LogFactory");
+                classTemplate.add("logDeclaration", "private static final Log LOG = LogFactory.getLog(" + className + ".class);");
+                break;
+            case "slf4j":
+                imports.add("org.slf4j.Logger");
+                imports.add("org.slf4j.LoggerFactory");
+                classTemplate.add("logDeclaration", "private static final Logger LOG = LoggerFactory.getLogger(" + className + ".class);");
+                break;
+            case "log4j":
+                imports.add("org.apache.log4j.Logger");
+                classTemplate.add("logDeclaration", "private static final Logger LOG = Logger.getLogger(" + className + ".class);");
+                break;
+            default:
+                imports.add("java.util.logging.Logger");
+                classTemplate.add("logDeclaration", "private static final Logger LOG = Logger.getLogger(" + className + ".class.getName());");
+        }
+        StringBuilder importLines = new StringBuilder();
+        for (String imp : imports) {
+            importLines.append("import ").append(imp).append(";\n");
+        }
+        classTemplate.add("imports", importLines.toString());
+
+        StringBuilder methods = new StringBuilder();
+        for (int m = 0; m < methodsPerFile; m++) {
+            ST method = new ST(METHOD_TEMPLATE);
+            method.add("name", "process" + m);
+            StringBuilder body = new StringBuilder();
+            for (int s = 0; s < logsPerMethod; s++) {
+                String statement = createLogStatement(random, framework, level, staticImport);
+                statements.add(statement);
+                body.append("        ").append(statement).append("\n");
+            }
+            method.add("statements", body.toString());
+            methods.append(method.render());
+        }
+        classTemplate.add("methods", methods.toString());
+        return classTemplate.render();
+    }
+
+    /**
+     * Create one log statement of random kind using variables visible in class.
+     */
+    private String createLogStatement(Random random, String framework, int level, boolean staticImport) {
+        boolean jul = framework.equals("juli");
+        int levelIndex = random.nextInt(LEVELS.size());
+        String logLevel = jul ? JUL_LEVELS.get(levelIndex) : LEVELS.get(levelIndex);
+        String count = "count" + level;
+        String source = "source" + level;
+
+        switch (random.nextInt(8)) {
+            case 0:
+                if (jul) {
+                    break;
+                }
+                if (framework.equals("slf4j")) {
+                    return "LOG." + logLevel + "(\"Loaded {} records from {}\", " + count + ", " + source + ");";
+                }
+                return "LOG." + logLevel + "(String.format(\"Loaded %d records from %s\", " + count + ", " + source + "));";
+            case 1:
+                return "LOG." + logLevel + "(\"Node \" + " + source + " + \" is \" + (active" + level + " ? \"active\" : \"standby\"));";
+            case 2:
+                return "LOG." + logLevel + "(\"Name of service is \" + getName" + level + "());";
+            case 3:
+                return "LOG." + logLevel + "(\"Request \" + request + \" finished in \" + elapsed + \" ms\");";
+            case 4:
+                // LogTranslator resolves fields of superclass, deeper chain is walked, but not searched
+                if (level > 0) {
+                    return "LOG." + logLevel + "(\"Inherited counter \" + count" + (level - 1) + " + \" of \" + source" + (level - 1) + ");";
+                }
+                break;
+            case 5:
+                if (staticImport) {
+                    return "LOG." + logLevel + "(\"Using timeout \" + DEFAULT_TIMEOUT + \" with \" + MAX_RETRIES + \" retries\");";
+                }
+                break;
+            case 6:
+                if (!jul) {
+                    return "if (LOG.isDebugEnabled()) { LOG.debug(\"Cache \" + " + source + " + \" has \" + " + count + " + \" entries\"); }";
+                }
+                break;
+            case 7:
+                if (!jul) {
+                    return "LOG." + logLevel + "(\"Failed to process \" + request, cause);";
+                }
+                break;
+        }
+        return "LOG." + logLevel + "(\"Processing \" + " + count + " + \" items from \" + " + source + ");";
+    }
+
+    private String createConstants() {
+        return "package " + CONSTANTS_PACKAGE + ";\n\n" +
+            "public class Constants {\n" +
+            "    public static final int DEFAULT_TIMEOUT = 30;\n" +
+            "    public static final int MAX_RETRIES = 3;\n" +
+            "}\n";
+    }
+
+    private String createPom() {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"\n" +
+            "         xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+            "         xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\">\n" +
+            "    <modelVersion>4.0.0</modelVersion>\n\n" +
+            "    <groupId>" + BASE_PACKAGE + "</groupId>\n" +
+            "    <artifactId>synthetic-project</artifactId>\n" +
+            "    <version>1.0-SNAPSHOT</version>\n\n" +
+            "    <dependencies>\n" +
+            dependency("commons-logging", "commons-logging", "1.1.3") +
+            dependency("org.slf4j", "slf4j-api", "1.7.5") +
+            dependency("log4j", "log4j", "1.2.17") +
+            "    </dependencies>\n" +
+            "</project>\n";
+    }
+
+    private static String dependency(String groupId, String artifactId, String version) {
+        return "        <dependency>\n" +
+            "            <groupId>" + groupId + "</groupId>\n" +
+            "            <artifactId>" + artifactId + "</artifactId>\n" +
+            "            <version>" + version + "</version>\n" +
+            "        </dependency>\n";
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    public void setFiles(int files) {
+        this.files = files;
+    }
+
+    public void setFilesPerPackage(int filesPerPackage) {
+        this.filesPerPackage = filesPerPackage;
+    }
+
+    public void setExtendsDepth(int extendsDepth) {
+        this.extendsDepth = extendsDepth;
+    }
+
+    public void setMethodsPerFile(int methodsPerFile) {
+        this.methodsPerFile = methodsPerFile;
+    }
+
+    public void setLogsPerMethod(int logsPerMethod) {
+        this.logsPerMethod = logsPerMethod;
+    }
+
+    public void setFrameworks(List<String> frameworks) {
+        this.frameworks = frameworks;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -187,4 +187,12 @@ public class LogTranslatorNamespace extends AbstractNamespace {
     public AbstractNamespace no_log_definition_files(int noLogDefinitionFilesSize) {
         return this;
     }
+
+    public AbstractNamespace loggerTypeCount(String loggerType, long count) {
+        return this;
+    }
+
+    public AbstractNamespace translationPerformance(String corpus, String metrics) {
+        return this;
+    }
 }
@@ -19,6 +19,9 @@ public class SimpleLogger implements Logger {
 
     @Override
     public void log(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues, int level) {
-        LOG4J_LOGGER.debug(JSONer.getEventJson(fqnNS, methodName, tags, paramNames, paramValues, level));
+        // do not serialize event into JSON, when log4j would throw it away anyway
+        if (LOG4J_LOGGER.isDebugEnabled()) {
+            LOG4J_LOGGER.debug(JSONer.getEventJson(fqnNS, methodName, tags, paramNames, paramValues, level));
+        }
     }
 }
\ No newline at end of file
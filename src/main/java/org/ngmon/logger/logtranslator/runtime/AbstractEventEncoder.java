@@ -0,0 +1,136 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Common part of NGMON event encoders used by generated SimpleLogger instead of JSONer and Log4j.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Events are encoded straight into reusable byte buffer of current thread and from the buffer to channel.
+ * Buffer of thread is written to channel, when encode() is called with flush (every event of synchronous
+ * SimpleLogger, end of batch of asynchronous one) or when the buffer is full. Channel opened by openChannel()
+ * appends whole buffer by one write, so events of different threads are not interleaved.
+ */
+public abstract class AbstractEventEncoder {
+
+    private final WritableByteChannel channel;
+    private final int bufferSize;
+    private final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocate(bufferSize);
+        }
+    };
+
+    /**
+     * @param channel    destination of encoded events
+     * @param bufferSize size of buffer of each thread, buffer grows for larger events
+     */
+    protected AbstractEventEncoder(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Open channel appending to file, directories are created. Channel stays open until JVM exits,
+     * so that events drained on shutdown are written.
+     */
+    protected static FileChannel openChannel(String file) {
+        try {
+            Path path = Paths.get(file);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open NGMON events file " + file, e);
+        }
+    }
+
+    /**
+     * Encode event happening now into buffer of current thread.
+     *
+     * @param flush write buffer to channel after this event
+     */
+    public void encode(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,
+                       int level, boolean flush) {
+        encode(System.currentTimeMillis(), fqnNS, methodName, tags, paramNames, paramValues, level, flush);
+    }
+
+    /**
+     * Encode event into buffer of current thread.
+     *
+     * @param time  time of event in milliseconds
+     * @param flush write buffer to channel after this event
+     */
+    public void encode(long time, String fqnNS, String methodName, List<String> tags, String[] paramNames,
+                       Object[] paramValues, int level, boolean flush) {
+        ByteBuffer buffer = buffers.get();
+        int start = buffer.position();
+        while (true) {
+            try {
+                encodeEvent(buffer, time, fqnNS, methodName, tags, paramNames, paramValues, level);
+                break;
+            } catch (BufferOverflowException e) {
+                // write events before this one and try again, grow buffer if this event alone does not fit
+                buffer.position(start);
+                if (start > 0) {
+                    write(buffer);
+                } else {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                    buffers.set(buffer);
+                }
+                start = 0;
+            }
+        }
+        if (flush) {
+            write(buffer);
+        }
+    }
+
+    /**
+     * Write buffered events of current thread to channel.
+     */
+    public void flush() {
+        write(buffers.get());
+    }
+
+    /**
+     * Write bytes, which are not event (file header), directly to channel.
+     */
+    protected void writeRaw(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            // application must not fail because of logging
+        }
+    }
+
+    private void write(ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            writeRaw(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Encode one event at current position of buffer.
+     *
+     * @throws BufferOverflowException when event does not fit, encode() handles it
+     */
+    protected abstract void encodeEvent(ByteBuffer buffer, long time, String fqnNS, String methodName, List<String> tags,
+                                        String[] paramNames, Object[] paramValues, int level);
+}
@@ -0,0 +1,277 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous backend of generated SimpleLogger.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Logging thread only claims slot of pre-allocated ring and copies event fields into it
+ * (references of values, tags are copied into slot's own list). One consumer thread takes
+ * published events in batches of at most batchSize, passes them to Handler (JSON encoding and
+ * writing) and releases whole batch at once. Values are converted to String on consumer thread,
+ * so mutable objects should not be logged by reference, when their later state is different.
+ * <p/>
+ * When ring is full, logging thread either waits (FullPolicy.WAIT) or drops event (FullPolicy.DROP).
+ * WaitStrategy is used by waiting logging threads and by consumer thread without events.
+ * Defaults are baked into generated SimpleLogger and can be overridden by system properties
+ * ngmon.async.buffer_size, ngmon.async.full_policy, ngmon.async.wait_strategy and ngmon.async.batch_size.
+ */
+public final class AsyncEventRing implements AsyncEventRingMBean {
+
+    public static final String OBJECT_NAME = "org.ngmon.logger:type=AsyncEventRing";
+
+    /** Consumer of events, always called from single consumer thread. */
+    public interface Handler {
+        /**
+         * @param paramValues array is reused, handler must not keep it
+         * @param endOfBatch  true for last event of batch, handler can flush its output
+         */
+        void onEvent(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,
+                     int level, boolean endOfBatch);
+    }
+
+    public enum FullPolicy {
+        WAIT, DROP
+    }
+
+    public enum WaitStrategy {
+        SPIN, YIELD, PARK;
+
+        private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+        void idle() {
+            switch (this) {
+                case SPIN:
+                    break;
+                case YIELD:
+                    Thread.yield();
+                    break;
+                default:
+                    LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    private static final class Slot {
+        /** sequence of event in this slot, slot is published when it equals claimed sequence */
+        private volatile long sequence = -1;
+        private String fqnNS;
+        private String methodName;
+        private final List<String> tags = new ArrayList<>(4);
+        private String[] paramNames;
+        private Object[] paramValues = new Object[8];
+        private int level;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int batchSize;
+    private final FullPolicy fullPolicy;
+    private final WaitStrategy waitStrategy;
+    private final Handler handler;
+    /** next sequence to be claimed by logging thread */
+    private final AtomicLong claimed = new AtomicLong(0);
+    /** last sequence released by consumer thread */
+    private final AtomicLong consumed = new AtomicLong(-1);
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    /** consumer's values arrays by number of parameters, handler gets array of exact length */
+    private final Object[][] valuesByArity = new Object[16][];
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity     number of slots, rounded up to power of two
+     * @param fullPolicy   what logging thread does, when ring is full
+     * @param waitStrategy how threads wait for free slot or new event
+     * @param batchSize    maximal number of events released at once
+     * @param handler      consumer of events
+     */
+    public AsyncEventRing(int capacity, FullPolicy fullPolicy, WaitStrategy waitStrategy, int batchSize, Handler handler) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.batchSize = Math.max(1, batchSize);
+        this.fullPolicy = fullPolicy;
+        this.waitStrategy = waitStrategy;
+        this.handler = handler;
+        this.consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                consume();
+            }
+        }, "NGMON-async-logger");
+        consumer.setDaemon(true);
+    }
+
+    /**
+     * Create and start ring configured by system properties, register it in JMX and drain it on JVM shutdown.
+     * Called from generated SimpleLogger with defaults from LogTranslator's properties.
+     */
+    public static AsyncEventRing start(Handler handler, int defaultCapacity, String defaultFullPolicy,
+                                       String defaultWaitStrategy, int defaultBatchSize) {
+        final AsyncEventRing ring = new AsyncEventRing(
+            Integer.getInteger("ngmon.async.buffer_size", defaultCapacity),
+            FullPolicy.valueOf(System.getProperty("ngmon.async.full_policy", defaultFullPolicy).toUpperCase()),
+            WaitStrategy.valueOf(System.getProperty("ngmon.async.wait_strategy", defaultWaitStrategy).toUpperCase()),
+            Integer.getInteger("ngmon.async.batch_size", defaultBatchSize),
+            handler);
+        ring.consumer.start();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(ring, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // already registered by another class loader, or JMX is not available - ring works anyway
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread("NGMON-async-logger-shutdown") {
+            @Override
+            public void run() {
+                ring.close();
+            }
+        });
+        return ring;
+    }
+
+    /**
+     * Copy event into ring. Caller must not change tags list or values array until this method returns.
+     *
+     * @return false if event was dropped
+     */
+    public boolean publish(String fqnNS, String methodName, List<String> tags, String[] paramNames,
+                           Object[] paramValues, int level) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed.get() > slots.length) {
+                if (fullPolicy == FullPolicy.DROP || !running) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                waitStrategy.idle();
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.fqnNS = fqnNS;
+        slot.methodName = methodName;
+        slot.tags.clear();
+        for (String tag : tags) {
+            slot.tags.add(tag);
+        }
+        slot.paramNames = paramNames;
+        if (slot.paramValues.length < paramValues.length) {
+            slot.paramValues = new Object[paramValues.length];
+        }
+        System.arraycopy(paramValues, 0, slot.paramValues, 0, paramValues.length);
+        slot.level = level;
+        slot.sequence = sequence;
+        return true;
+    }
+
+    private void consume() {
+        long next = 0;
+        while (running || next < claimed.get()) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.sequence != next) {
+                waitStrategy.idle();
+                continue;
+            }
+            int processed = 0;
+            while (slot != null) {
+                Slot following = slots[(int) ((next + 1) & mask)];
+                boolean endOfBatch = ++processed == batchSize || following.sequence != next + 1;
+                handle(slot, endOfBatch);
+                next++;
+                slot = endOfBatch ? null : following;
+            }
+            // release whole batch to logging threads
+            consumed.lazySet(next - 1);
+        }
+    }
+
+    private void handle(Slot slot, boolean endOfBatch) {
+        int arity = slot.paramNames.length;
+        Object[] values = (arity < valuesByArity.length) ? valuesByArity[arity] : null;
+        if (values == null) {
+            values = new Object[arity];
+            if (arity < valuesByArity.length) {
+                valuesByArity[arity] = values;
+            }
+        }
+        System.arraycopy(slot.paramValues, 0, values, 0, arity);
+        try {
+            handler.onEvent(slot.fqnNS, slot.methodName, slot.tags, slot.paramNames, values, slot.level, endOfBatch);
+        } catch (Throwable t) {
+            if (failed.getAndIncrement() == 0) {
+                t.printStackTrace();
+            }
+        }
+        // do not keep application objects reachable from ring
+        Arrays.fill(slot.paramValues, null);
+        Arrays.fill(values, null);
+    }
+
+    /**
+     * Stop accepting events, wait until consumer writes all published events.
+     */
+    public void close() {
+        running = false;
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return Math.max(0, claimed.get() - consumed.get() - 1);
+    }
+
+    @Override
+    public long getPublished() {
+        return claimed.get();
+    }
+
+    @Override
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public String getFullPolicy() {
+        return fullPolicy.name();
+    }
+
+    @Override
+    public String getWaitStrategy() {
+        return waitStrategy.name();
+    }
+}
@@ -0,0 +1,33 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+/**
+ * JMX counters of asynchronous NGMON logger, registered as org.ngmon.logger:type=AsyncEventRing.
+ */
+public interface AsyncEventRingMBean {
+
+    int getCapacity();
+
+    /**
+     * @return number of events waiting for consumer thread
+     */
+    long getQueueDepth();
+
+    /**
+     * @return number of events accepted into ring
+     */
+    long getPublished();
+
+    /**
+     * @return number of events dropped, because ring was full (drop policy) or already closed
+     */
+    long getDropped();
+
+    /**
+     * @return number of events, whose handler threw exception
+     */
+    long getFailed();
+
+    String getFullPolicy();
+
+    String getWaitStrategy();
+}
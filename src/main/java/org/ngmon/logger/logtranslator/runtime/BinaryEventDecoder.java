@@ -0,0 +1,160 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line tool converting events written by BinaryEventEncoder back to JSON lines
+ * of EventJsonEncoder, with original time of events.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <pre>
+ *     java org.ngmon.logger.logtranslator.runtime.BinaryEventDecoder ngmon-event-schema.txt logs/ngmon-events.bin
+ * </pre>
+ * Schema must be the one application was running with, or newer one (IDs of methods are stable).
+ * Events file "-" is read from standard input, for example from EventJournalReader.
+ */
+public final class BinaryEventDecoder {
+
+    private final Map<Integer, EventSchema.EventType> eventTypes = new HashMap<>();
+    private final EventJsonEncoder output;
+
+    /**
+     * @param schema schema of events
+     * @param output JSON lines destination
+     */
+    public BinaryEventDecoder(EventSchema schema, WritableByteChannel output) {
+        for (EventSchema.EventType eventType : schema.getEventTypes()) {
+            this.eventTypes.put(eventType.id, eventType);
+        }
+        this.output = new EventJsonEncoder(output, 65536);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryEventDecoder <schema file> <events file>");
+            System.exit(1);
+        }
+        EventSchema schema;
+        try (FileInputStream input = new FileInputStream(args[0])) {
+            schema = EventSchema.read(input);
+        }
+        BinaryEventDecoder decoder = new BinaryEventDecoder(schema, Channels.newChannel(System.out));
+        if ("-".equals(args[1])) {
+            ByteArrayOutputStream events = new ByteArrayOutputStream();
+            byte[] bytes = new byte[65536];
+            for (int read; (read = System.in.read(bytes)) != -1; ) {
+                events.write(bytes, 0, read);
+            }
+            decoder.decode(ByteBuffer.wrap(events.toByteArray()));
+        } else {
+            try (FileChannel events = FileChannel.open(Paths.get(args[1]), StandardOpenOption.READ)) {
+                decoder.decode(events.map(FileChannel.MapMode.READ_ONLY, 0, events.size()));
+            }
+        }
+        System.out.flush();
+    }
+
+    /**
+     * Decode all events of buffer, file header is skipped.
+     *
+     * @return number of decoded events
+     */
+    public long decode(ByteBuffer events) {
+        byte[] header = new byte[BinaryEventEncoder.HEADER.length];
+        if (events.remaining() >= header.length) {
+            events.duplicate().get(header);
+            if (Arrays.equals(header, BinaryEventEncoder.HEADER)) {
+                events.position(events.position() + header.length);
+            }
+        }
+        long count = 0;
+        List<String> tags = new ArrayList<>();
+        while (events.hasRemaining()) {
+            decodeEvent(events, tags);
+            count++;
+        }
+        output.flush();
+        return count;
+    }
+
+    private void decodeEvent(ByteBuffer events, List<String> tags) {
+        int id = (int) getVarLong(events);
+        long time = getVarLong(events);
+        int level = events.get();
+        tags.clear();
+        for (long i = getVarLong(events); i > 0; i--) {
+            tags.add(getString(events));
+        }
+        if (id == BinaryEventEncoder.UNKNOWN_EVENT) {
+            String fqnNS = getString(events);
+            String methodName = getString(events);
+            String[] paramNames = new String[(int) getVarLong(events)];
+            Object[] paramValues = new Object[paramNames.length];
+            for (int i = 0; i < paramNames.length; i++) {
+                paramNames[i] = getString(events);
+                paramValues[i] = getString(events);
+            }
+            output.encode(time, fqnNS, methodName, tags, paramNames, paramValues, level, false);
+            return;
+        }
+        EventSchema.EventType eventType = eventTypes.get(id);
+        if (eventType == null) {
+            throw new IllegalArgumentException("Event ID " + id + " is not in schema, use schema of the application");
+        }
+        Object[] paramValues = new Object[eventType.types.length];
+        for (int i = 0; i < paramValues.length; i++) {
+            switch (eventType.types[i]) {
+                case EventSchema.LONG:
+                    long zigzag = getVarLong(events);
+                    paramValues[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+                    break;
+                case EventSchema.DOUBLE:
+                    paramValues[i] = events.getDouble();
+                    break;
+                case EventSchema.BOOLEAN:
+                    paramValues[i] = events.get() != 0;
+                    break;
+                case EventSchema.CHAR:
+                    paramValues[i] = (char) getVarLong(events);
+                    break;
+                default:
+                    paramValues[i] = getString(events);
+            }
+        }
+        output.encode(time, eventType.fqnNS, eventType.methodName, tags, eventType.paramNames, paramValues, level, false);
+    }
+
+    private static long getVarLong(ByteBuffer events) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = events.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer events) {
+        int length = (int) getVarLong(events) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        events.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,164 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Compact binary encoder of NGMON events, used by generated SimpleLogger instead of JSONer and Log4j.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * LogTranslator assigns stable numeric ID to each method of generated namespaces and writes them
+ * into schema (resource ngmon-event-schema.txt, see EventSchema). Event is then written without namespace,
+ * method and parameter names:
+ * <pre>
+ *     varint id, varint time, byte level, varint tag count, tags, values
+ * </pre>
+ * Values are typed by schema - byte, short, int and long as zigzag varint, float and double as 8 bytes,
+ * boolean as 1 byte, char as varint. Other types (String, Object, boxed types) are written as String -
+ * varint length + 1 (0 is null) and UTF-8 bytes. Event missing in schema has ID 0 followed by namespace,
+ * method name, parameter count and pairs of name and value as String.
+ * File starts by header "NGMB" and format version (records of EventJournal have no header),
+ * BinaryEventDecoder converts it back to JSON lines.
+ */
+public final class BinaryEventEncoder extends AbstractEventEncoder {
+
+    static final byte[] HEADER = {'N', 'G', 'M', 'B', 1};
+    static final int UNKNOWN_EVENT = 0;
+
+    private final EventSchema schema;
+
+    /**
+     * @param channel    destination of encoded events, header is not written
+     * @param bufferSize size of buffer of each thread, buffer grows for larger events
+     * @param schema     schema of events
+     */
+    public BinaryEventEncoder(WritableByteChannel channel, int bufferSize, EventSchema schema) {
+        super(channel, bufferSize);
+        this.schema = schema;
+    }
+
+    /**
+     * Open encoder appending to file, directories are created and header is written to empty file.
+     * Schema is read from classpath, events are written as unknown without it.
+     */
+    public static BinaryEventEncoder open(String file, int bufferSize) {
+        FileChannel channel = openChannel(file);
+        BinaryEventEncoder encoder = open(channel, bufferSize);
+        try {
+            if (channel.size() == 0) {
+                encoder.writeRaw(ByteBuffer.wrap(HEADER));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write NGMON events file " + file, e);
+        }
+        return encoder;
+    }
+
+    /**
+     * Open encoder writing to channel without file header, for example EventJournal.
+     * Schema is read from classpath, events are written as unknown without it.
+     */
+    public static BinaryEventEncoder open(WritableByteChannel channel, int bufferSize) {
+        return new BinaryEventEncoder(channel, bufferSize, EventSchema.load());
+    }
+
+    @Override
+    protected void encodeEvent(ByteBuffer buffer, long time, String fqnNS, String methodName, List<String> tags,
+                               String[] paramNames, Object[] paramValues, int level) {
+        EventSchema.EventType eventType = schema.getEventType(fqnNS, methodName, paramNames, paramValues);
+        putVarLong(buffer, (eventType == null) ? UNKNOWN_EVENT : eventType.id);
+        putVarLong(buffer, time);
+        buffer.put((byte) level);
+        putVarLong(buffer, tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            putString(buffer, tags.get(i));
+        }
+        if (eventType == null) {
+            putString(buffer, fqnNS);
+            putString(buffer, methodName);
+            putVarLong(buffer, paramNames.length);
+            for (int i = 0; i < paramNames.length; i++) {
+                putString(buffer, paramNames[i]);
+                putString(buffer, (i < paramValues.length) ? paramValues[i] : null);
+            }
+            return;
+        }
+        for (int i = 0; i < eventType.types.length; i++) {
+            Object value = paramValues[i];
+            switch (eventType.types[i]) {
+                case EventSchema.LONG:
+                    long number = ((Number) value).longValue();
+                    putVarLong(buffer, (number << 1) ^ (number >> 63));
+                    break;
+                case EventSchema.DOUBLE:
+                    buffer.putDouble(((Number) value).doubleValue());
+                    break;
+                case EventSchema.BOOLEAN:
+                    buffer.put((byte) ((Boolean) value ? 1 : 0));
+                    break;
+                case EventSchema.CHAR:
+                    putVarLong(buffer, (Character) value);
+                    break;
+                default:
+                    putString(buffer, value);
+            }
+        }
+    }
+
+    /** unsigned varint, 7 bits per byte from the lowest ones */
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7fL) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /** varint length + 1 and UTF-8 bytes, unpaired surrogate is written as '?' like in EventJsonEncoder */
+    private static void putString(ByteBuffer buffer, Object value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        String text = (value instanceof String) ? (String) value : String.valueOf(value);
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += (c < 0x80 || Character.isSurrogate(c)) ? 1 : (c < 0x800) ? 2 : 3;
+            }
+        }
+        putVarLong(buffer, length + 1);
+        if (buffer.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xf0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xe0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+}
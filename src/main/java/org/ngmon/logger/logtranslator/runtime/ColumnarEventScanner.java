@@ -0,0 +1,374 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Command line tool scanning events written by ColumnarEventStore, printed as JSON lines of EventJsonEncoder.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <pre>
+ *     java org.ngmon.logger.logtranslator.runtime.ColumnarEventScanner [-e namespace.method] [-w column=value] [-c] events
+ * </pre>
+ * -e selects blocks of one event type (namespace FQN and method name, or just method name), -w filters events
+ * by one column (operators =, !=, &lt;, &gt;, numeric comparison for numeric columns), -c prints only number of events.
+ * Blocks of other event types are skipped without inflating any column, blocks whose min and max of LONG column
+ * exclude the filter are skipped too. Only filter column is inflated and decoded, STRING filter is evaluated
+ * once per dictionary value. Other columns are decoded only for blocks with matching events.
+ * Events file "-" is read from standard input, for example from EventJournalReader.
+ */
+public final class ColumnarEventScanner {
+
+    private static final String[] OPERATORS = {"!=", "=", "<", ">"};
+
+    private final String eventType;
+    private final String filterColumn;
+    private final String operator;
+    private final String filterValue;
+    private final Inflater inflater = new Inflater();
+    private long scannedBlocks;
+    private long skippedBlocks;
+
+    /**
+     * @param eventType namespace FQN and method name, or method name, null for all events
+     * @param filter    column, operator and value, null for all events
+     */
+    public ColumnarEventScanner(String eventType, String filter) {
+        this.eventType = eventType;
+        if (filter == null) {
+            filterColumn = operator = filterValue = null;
+            return;
+        }
+        for (String candidate : OPERATORS) {
+            int index = filter.indexOf(candidate);
+            if (index > 0) {
+                filterColumn = filter.substring(0, index);
+                operator = candidate;
+                filterValue = filter.substring(index + candidate.length());
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Filter must be column=value, column!=value, column<value or column>value");
+    }
+
+    public static void main(String[] args) throws IOException {
+        String eventType = null;
+        String filter = null;
+        boolean count = false;
+        String file = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("-e".equals(args[i]) && i + 1 < args.length) {
+                eventType = args[++i];
+            } else if ("-w".equals(args[i]) && i + 1 < args.length) {
+                filter = args[++i];
+            } else if ("-c".equals(args[i])) {
+                count = true;
+            } else {
+                file = args[i];
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: ColumnarEventScanner [-e namespace.method] [-w column=value] [-c] <events file>");
+            System.exit(1);
+        }
+        ColumnarEventScanner scanner = new ColumnarEventScanner(eventType, filter);
+        EventJsonEncoder output = count ? null : new EventJsonEncoder(Channels.newChannel(System.out), 65536);
+        long events;
+        if ("-".equals(file)) {
+            ByteArrayOutputStream input = new ByteArrayOutputStream();
+            byte[] bytes = new byte[65536];
+            for (int read; (read = System.in.read(bytes)) != -1; ) {
+                input.write(bytes, 0, read);
+            }
+            events = scanner.scan(ByteBuffer.wrap(input.toByteArray()), output);
+        } else {
+            try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+                events = scanner.scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), output);
+            }
+        }
+        if (count) {
+            System.out.println(events);
+        }
+        System.out.flush();
+        System.err.println("Scanned blocks: " + scanner.scannedBlocks + ", skipped blocks: " + scanner.skippedBlocks);
+    }
+
+    /**
+     * Scan all blocks of buffer, file header is skipped.
+     *
+     * @param output destination of matching events, null when they are only counted
+     * @return number of matching events
+     */
+    public long scan(ByteBuffer events, EventJsonEncoder output) {
+        byte[] header = new byte[ColumnarEventStore.HEADER.length];
+        if (events.remaining() >= header.length) {
+            events.duplicate().get(header);
+            if (Arrays.equals(header, ColumnarEventStore.HEADER)) {
+                events.position(events.position() + header.length);
+            }
+        }
+        long matching = 0;
+        while (events.remaining() >= 4) {
+            int length = events.getInt();
+            ByteBuffer block = events.slice();
+            block.limit(length);
+            events.position(events.position() + length);
+            matching += scanBlock(block, output);
+        }
+        if (output != null) {
+            output.flush();
+        }
+        return matching;
+    }
+
+    private long scanBlock(ByteBuffer block, EventJsonEncoder output) {
+        int rows = (int) getVarLong(block);
+        String fqnNS = getString(block);
+        String methodName = getString(block);
+        if (eventType != null && !eventType.equals(methodName) && !eventType.equals(fqnNS + "." + methodName)) {
+            skippedBlocks++;
+            return 0;
+        }
+        int columns = (int) getVarLong(block);
+        String[] names = new String[columns];
+        char[] types = new char[columns];
+        int filterIndex = -1;
+        boolean excluded = false;
+        for (int i = 0; i < columns; i++) {
+            names[i] = getString(block);
+            types[i] = (char) block.get();
+            if (names[i].equals(filterColumn)) {
+                filterIndex = i;
+            }
+            if (types[i] == EventSchema.LONG) {
+                long min = unzigzag(getVarLong(block));
+                long max = unzigzag(getVarLong(block));
+                if (i == filterIndex) {
+                    excluded = isExcluded(min, max);
+                }
+            }
+        }
+        if ((filterColumn != null && filterIndex < 0) || excluded) {
+            skippedBlocks++;
+            return 0;
+        }
+        scannedBlocks++;
+
+        // positions of compressed columns, only needed ones are inflated
+        int[] positions = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            positions[i] = block.position();
+            getVarLong(block);
+            int compressed = (int) getVarLong(block);
+            block.position(block.position() + compressed);
+        }
+        boolean[] matches = new boolean[rows];
+        int matching = 0;
+        if (filterIndex < 0) {
+            Arrays.fill(matches, true);
+            matching = rows;
+        } else if (types[filterIndex] == EventSchema.STRING) {
+            // filter is evaluated once per dictionary value, rows have only indexes
+            ByteBuffer data = inflate(block, positions[filterIndex]);
+            boolean[] dictionary = new boolean[(int) getVarLong(data) + 1];
+            dictionary[0] = matches(null, EventSchema.STRING);
+            for (int i = 1; i < dictionary.length; i++) {
+                dictionary[i] = matches(getString(data), EventSchema.STRING);
+            }
+            for (int row = 0; row < rows; row++) {
+                if (dictionary[(int) getVarLong(data)]) {
+                    matches[row] = true;
+                    matching++;
+                }
+            }
+        } else {
+            Object[] values = decodeColumn(block, positions[filterIndex], types[filterIndex], rows);
+            for (int row = 0; row < rows; row++) {
+                if (matches(values[row], types[filterIndex])) {
+                    matches[row] = true;
+                    matching++;
+                }
+            }
+        }
+        if (output == null || matching == 0) {
+            return matching;
+        }
+
+        Object[][] values = new Object[columns][];
+        for (int i = 0; i < columns; i++) {
+            values[i] = decodeColumn(block, positions[i], types[i], rows);
+        }
+        String[] paramNames = Arrays.copyOfRange(names, ColumnarEventStore.FIXED_COLUMNS, columns);
+        Object[] paramValues = new Object[paramNames.length];
+        for (int row = 0; row < rows; row++) {
+            if (!matches[row]) {
+                continue;
+            }
+            for (int i = 0; i < paramValues.length; i++) {
+                paramValues[i] = values[ColumnarEventStore.FIXED_COLUMNS + i][row];
+            }
+            String tags = (String) values[2][row];
+            List<String> tagList = (tags == null || tags.isEmpty()) ? Collections.<String>emptyList()
+                : Arrays.asList(tags.split(String.valueOf(ColumnarEventStore.TAGS_SEPARATOR)));
+            output.encode((Long) values[0][row], fqnNS, methodName, tagList, paramNames, paramValues,
+                ((Long) values[1][row]).intValue(), false);
+        }
+        return matching;
+    }
+
+    /** @return true if no value from min to max satisfies filter */
+    private boolean isExcluded(long min, long max) {
+        long value;
+        try {
+            value = Long.parseLong(filterValue);
+        } catch (NumberFormatException e) {
+            return !"!=".equals(operator);
+        }
+        switch (operator) {
+            case "=":
+                return value < min || value > max;
+            case "<":
+                return min >= value;
+            case ">":
+                return max <= value;
+            default:
+                return min == max && min == value;
+        }
+    }
+
+    private boolean matches(Object value, char type) {
+        int comparison;
+        if (value == null || "null".equals(filterValue)) {
+            // null equals only "null"
+            boolean equal = (value == null) == "null".equals(filterValue);
+            return "=".equals(operator) ? equal : "!=".equals(operator) && !equal;
+        }
+        try {
+            switch (type) {
+                case EventSchema.LONG:
+                    comparison = Long.compare((Long) value, Long.parseLong(filterValue));
+                    break;
+                case EventSchema.DOUBLE:
+                    comparison = Double.compare((Double) value, Double.parseDouble(filterValue));
+                    break;
+                default:
+                    comparison = String.valueOf(value).compareTo(filterValue);
+            }
+        } catch (NumberFormatException e) {
+            return "!=".equals(operator);
+        }
+        switch (operator) {
+            case "=":
+                return comparison == 0;
+            case "<":
+                return comparison < 0;
+            case ">":
+                return comparison > 0;
+            default:
+                return comparison != 0;
+        }
+    }
+
+    /**
+     * Inflate and decode one column, values of STRING column are shared dictionary entries.
+     */
+    private Object[] decodeColumn(ByteBuffer block, int position, char type, int rows) {
+        ByteBuffer data = inflate(block, position);
+        Object[] values = new Object[rows];
+        switch (type) {
+            case EventSchema.LONG:
+                long previous = 0;
+                for (int row = 0; row < rows; row++) {
+                    previous += unzigzag(getVarLong(data));
+                    values[row] = previous;
+                }
+                break;
+            case EventSchema.DOUBLE:
+                for (int row = 0; row < rows; row++) {
+                    values[row] = data.getDouble();
+                }
+                break;
+            case EventSchema.BOOLEAN:
+                for (int row = 0; row < rows; row++) {
+                    values[row] = getVarLong(data) != 0;
+                }
+                break;
+            case EventSchema.CHAR:
+                for (int row = 0; row < rows; row++) {
+                    values[row] = (char) getVarLong(data);
+                }
+                break;
+            default:
+                List<String> dictionary = new ArrayList<>();
+                for (long i = getVarLong(data); i > 0; i--) {
+                    dictionary.add(getString(data));
+                }
+                for (int row = 0; row < rows; row++) {
+                    int index = (int) getVarLong(data);
+                    values[row] = (index == 0) ? null : dictionary.get(index - 1);
+                }
+        }
+        return values;
+    }
+
+    /**
+     * @return inflated data of column starting at position of block
+     */
+    private ByteBuffer inflate(ByteBuffer block, int position) {
+        ByteBuffer column = block.duplicate();
+        column.position(position);
+        int rawLength = (int) getVarLong(column);
+        int compressed = (int) getVarLong(column);
+        byte[] input = new byte[compressed];
+        column.get(input);
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            inflater.inflate(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupted NGMON columnar block", e);
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) getVarLong(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public long getScannedBlocks() {
+        return scannedBlocks;
+    }
+
+    public long getSkippedBlocks() {
+        return skippedBlocks;
+    }
+}
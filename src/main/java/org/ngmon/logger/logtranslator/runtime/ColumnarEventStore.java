@@ -0,0 +1,425 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
+
+/**
+ * Columnar storage of NGMON events, used by generated SimpleLogger instead of JSONer and Log4j
+ * (event_encoder=columnar). This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Events are buffered per event type (namespace, method and parameters from EventSchema) in columns -
+ * time, level, tags and one column per parameter. Full block (blockRows events), blocks older than flush
+ * interval and all blocks on JVM shutdown are written as
+ * <pre>
+ *     int block length, varint rows, namespace, method name, varint columns,
+ *     columns (name, type code, min and max for LONG), column data (varint raw length, varint deflated length, bytes)
+ * </pre>
+ * Column data is compressed by Deflater separately, so that ColumnarEventScanner filtering on one column
+ * inflates only this column. LONG columns (time too) are delta encoded as zigzag varints, STRING columns
+ * (tags too, separated by \u001f) are dictionary encoded - dictionary of distinct values and varint index
+ * of value per row (0 is null). DOUBLE columns are stored as 8 bytes, BOOLEAN and CHAR as varints.
+ * Events missing in schema get block type with STRING columns named by their parameters.
+ * File starts by header "NGMC" and format version (blocks written into EventJournal have no header).
+ */
+public final class ColumnarEventStore {
+
+    static final byte[] HEADER = {'N', 'G', 'M', 'C', 1};
+    static final String TIME = "time";
+    static final String LEVEL = "level";
+    static final String TAGS = "tags";
+    static final char TAGS_SEPARATOR = '\u001f';
+    /** time, level and tags precede parameter columns */
+    static final int FIXED_COLUMNS = 3;
+
+    /** Events of one type buffered in columns, guarded by its own lock. */
+    private static final class Block {
+        private final String fqnNS;
+        private final String methodName;
+        private final String[] columnNames;
+        private final char[] types;
+        /** LONG, BOOLEAN and CHAR values, DOUBLE values as raw long bits */
+        private final long[][] numbers;
+        private final String[][] strings;
+        private int rows;
+
+        private Block(String fqnNS, String methodName, String[] paramNames, char[] paramTypes, int blockRows) {
+            this.fqnNS = fqnNS;
+            this.methodName = methodName;
+            int columns = FIXED_COLUMNS + paramNames.length;
+            this.columnNames = new String[columns];
+            this.types = new char[columns];
+            columnNames[0] = TIME;
+            types[0] = EventSchema.LONG;
+            columnNames[1] = LEVEL;
+            types[1] = EventSchema.LONG;
+            columnNames[2] = TAGS;
+            types[2] = EventSchema.STRING;
+            System.arraycopy(paramNames, 0, columnNames, FIXED_COLUMNS, paramNames.length);
+            System.arraycopy(paramTypes, 0, types, FIXED_COLUMNS, paramTypes.length);
+            this.numbers = new long[columns][];
+            this.strings = new String[columns][];
+            for (int i = 0; i < columns; i++) {
+                if (types[i] == EventSchema.STRING) {
+                    strings[i] = new String[blockRows];
+                } else {
+                    numbers[i] = new long[blockRows];
+                }
+            }
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final EventSchema schema;
+    private final int blockRows;
+    /** blocks of schema types, keys are compared by identity */
+    private final ConcurrentMap<EventSchema.EventType, Block> blocks = new ConcurrentHashMap<>();
+    /** blocks of events missing in schema, by namespace, method and parameter names */
+    private final ConcurrentMap<String, Block> unknownBlocks = new ConcurrentHashMap<>();
+    /** buffers for encoding and compression, used only with lock of this store */
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Bytes column = new Bytes();
+    private final Bytes block = new Bytes();
+    private byte[] deflated = new byte[4096];
+    private volatile boolean closed;
+
+    /**
+     * @param channel   destination of blocks, header is not written
+     * @param schema    schema of events
+     * @param blockRows maximal number of events in one block
+     */
+    public ColumnarEventStore(WritableByteChannel channel, EventSchema schema, int blockRows) {
+        this.channel = channel;
+        this.schema = schema;
+        this.blockRows = Math.max(1, blockRows);
+    }
+
+    /**
+     * Open store appending to file, directories are created and header is written to empty file.
+     * Schema is read from classpath, events are stored as unknown without it.
+     *
+     * @param flushInterval blocks are written at least this often (milliseconds), and on JVM shutdown
+     */
+    public static ColumnarEventStore open(String file, int blockRows, long flushInterval) {
+        FileChannel channel = AbstractEventEncoder.openChannel(file);
+        try {
+            if (channel.size() == 0) {
+                channel.write(ByteBuffer.wrap(HEADER));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write NGMON events file " + file, e);
+        }
+        return open(channel, blockRows, flushInterval);
+    }
+
+    /**
+     * Open store writing blocks to channel without file header, for example EventJournal.
+     *
+     * @param flushInterval blocks are written at least this often (milliseconds), and on JVM shutdown
+     */
+    public static ColumnarEventStore open(WritableByteChannel channel, int blockRows, long flushInterval) {
+        final ColumnarEventStore store = new ColumnarEventStore(channel, EventSchema.load(), blockRows);
+        new Timer("NGMON-columnar-flush", true).schedule(new TimerTask() {
+            @Override
+            public void run() {
+                store.flush();
+            }
+        }, flushInterval, flushInterval);
+        Runtime.getRuntime().addShutdownHook(new Thread("NGMON-columnar-shutdown") {
+            @Override
+            public void run() {
+                store.close();
+            }
+        });
+        return store;
+    }
+
+    /**
+     * Add event happening now to block of its type, block is written when it is full.
+     * Values of STRING columns are converted to String at once.
+     */
+    public void append(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,
+                       int level) {
+        append(System.currentTimeMillis(), fqnNS, methodName, tags, paramNames, paramValues, level);
+    }
+
+    /**
+     * Add event to block of its type, block is written when it is full.
+     *
+     * @param time time of event in milliseconds
+     */
+    public void append(long time, String fqnNS, String methodName, List<String> tags, String[] paramNames,
+                       Object[] paramValues, int level) {
+        Block block = getBlock(fqnNS, methodName, paramNames, paramValues);
+        synchronized (block) {
+            int row = block.rows;
+            block.numbers[0][row] = time;
+            block.numbers[1][row] = level;
+            block.strings[2][row] = joinTags(tags);
+            for (int i = FIXED_COLUMNS; i < block.types.length; i++) {
+                Object value = (i - FIXED_COLUMNS < paramValues.length) ? paramValues[i - FIXED_COLUMNS] : null;
+                switch (block.types[i]) {
+                    case EventSchema.LONG:
+                        block.numbers[i][row] = ((Number) value).longValue();
+                        break;
+                    case EventSchema.DOUBLE:
+                        block.numbers[i][row] = Double.doubleToRawLongBits(((Number) value).doubleValue());
+                        break;
+                    case EventSchema.BOOLEAN:
+                        block.numbers[i][row] = (Boolean) value ? 1 : 0;
+                        break;
+                    case EventSchema.CHAR:
+                        block.numbers[i][row] = (Character) value;
+                        break;
+                    default:
+                        block.strings[i][row] = (value == null || value instanceof String) ? (String) value : String.valueOf(value);
+                }
+            }
+            block.rows++;
+            // after close, nobody would write the block later
+            if (block.rows == blockRows || closed) {
+                write(block);
+            }
+        }
+    }
+
+    private Block getBlock(String fqnNS, String methodName, String[] paramNames, Object[] paramValues) {
+        EventSchema.EventType eventType = schema.getEventType(fqnNS, methodName, paramNames, paramValues);
+        if (eventType != null) {
+            Block block = blocks.get(eventType);
+            if (block == null) {
+                block = new Block(fqnNS, methodName, eventType.paramNames, eventType.types, blockRows);
+                Block existing = blocks.putIfAbsent(eventType, block);
+                block = (existing != null) ? existing : block;
+            }
+            return block;
+        }
+        String key = fqnNS + '\t' + methodName + Arrays.toString(paramNames);
+        Block block = unknownBlocks.get(key);
+        if (block == null) {
+            char[] types = new char[paramNames.length];
+            Arrays.fill(types, EventSchema.STRING);
+            block = new Block(fqnNS, methodName, paramNames.clone(), types, blockRows);
+            Block existing = unknownBlocks.putIfAbsent(key, block);
+            block = (existing != null) ? existing : block;
+        }
+        return block;
+    }
+
+    private static String joinTags(List<String> tags) {
+        if (tags.isEmpty()) {
+            return "";
+        }
+        if (tags.size() == 1) {
+            return tags.get(0);
+        }
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < tags.size(); i++) {
+            if (i > 0) {
+                joined.append(TAGS_SEPARATOR);
+            }
+            joined.append(tags.get(i));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Write all buffered events.
+     */
+    public void flush() {
+        for (Block block : blocks.values()) {
+            synchronized (block) {
+                write(block);
+            }
+        }
+        for (Block block : unknownBlocks.values()) {
+            synchronized (block) {
+                write(block);
+            }
+        }
+    }
+
+    /**
+     * Write all buffered events, events added later are written at once.
+     */
+    public void close() {
+        closed = true;
+        flush();
+    }
+
+    /** encode, compress and write block, caller holds its lock */
+    private void write(Block source) {
+        if (source.rows == 0) {
+            return;
+        }
+        synchronized (this) {
+            block.clear();
+            block.putVarLong(source.rows);
+            block.putString(source.fqnNS);
+            block.putString(source.methodName);
+            block.putVarLong(source.columnNames.length);
+            for (int i = 0; i < source.columnNames.length; i++) {
+                block.putString(source.columnNames[i]);
+                block.put(source.types[i]);
+                if (source.types[i] == EventSchema.LONG) {
+                    long min = Long.MAX_VALUE;
+                    long max = Long.MIN_VALUE;
+                    for (int row = 0; row < source.rows; row++) {
+                        min = Math.min(min, source.numbers[i][row]);
+                        max = Math.max(max, source.numbers[i][row]);
+                    }
+                    block.putVarLong(zigzag(min));
+                    block.putVarLong(zigzag(max));
+                }
+            }
+            for (int i = 0; i < source.columnNames.length; i++) {
+                encodeColumn(source, i);
+                deflate();
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(4 + block.size);
+            bytes.putInt(block.size).put(block.data, 0, block.size).flip();
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            } catch (IOException e) {
+                // application must not fail because of logging
+            }
+        }
+        source.rows = 0;
+        for (String[] values : source.strings) {
+            if (values != null) {
+                Arrays.fill(values, null);
+            }
+        }
+    }
+
+    private void encodeColumn(Block source, int index) {
+        column.clear();
+        long[] numbers = source.numbers[index];
+        switch (source.types[index]) {
+            case EventSchema.LONG:
+                long previous = 0;
+                for (int row = 0; row < source.rows; row++) {
+                    column.putVarLong(zigzag(numbers[row] - previous));
+                    previous = numbers[row];
+                }
+                break;
+            case EventSchema.DOUBLE:
+                for (int row = 0; row < source.rows; row++) {
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        column.put((byte) (numbers[row] >>> shift));
+                    }
+                }
+                break;
+            case EventSchema.BOOLEAN:
+            case EventSchema.CHAR:
+                for (int row = 0; row < source.rows; row++) {
+                    column.putVarLong(numbers[row]);
+                }
+                break;
+            default:
+                String[] values = source.strings[index];
+                Map<String, Integer> dictionary = new HashMap<>();
+                int[] indexes = new int[source.rows];
+                for (int row = 0; row < source.rows; row++) {
+                    if (values[row] != null) {
+                        Integer entry = dictionary.get(values[row]);
+                        if (entry == null) {
+                            entry = dictionary.size() + 1;
+                            dictionary.put(values[row], entry);
+                        }
+                        indexes[row] = entry;
+                    }
+                }
+                String[] entries = new String[dictionary.size()];
+                for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+                    entries[entry.getValue() - 1] = entry.getKey();
+                }
+                column.putVarLong(entries.length);
+                for (String entry : entries) {
+                    column.putString(entry);
+                }
+                for (int row = 0; row < source.rows; row++) {
+                    column.putVarLong(indexes[row]);
+                }
+        }
+    }
+
+    /** append column compressed by Deflater to block */
+    private void deflate() {
+        deflater.reset();
+        deflater.setInput(column.data, 0, column.size);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == deflated.length) {
+                deflated = Arrays.copyOf(deflated, deflated.length * 2);
+            }
+            length += deflater.deflate(deflated, length, deflated.length - length);
+        }
+        block.putVarLong(column.size);
+        block.putVarLong(length);
+        block.put(deflated, 0, length);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /** Growable byte array. */
+    private static final class Bytes {
+        private byte[] data = new byte[4096];
+        private int size;
+
+        private void clear() {
+            size = 0;
+        }
+
+        private void ensure(int length) {
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + length));
+            }
+        }
+
+        private void put(char value) {
+            put((byte) value);
+        }
+
+        private void put(byte value) {
+            ensure(1);
+            data[size++] = value;
+        }
+
+        private void put(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+        }
+
+        private void putVarLong(long value) {
+            while ((value & ~0x7fL) != 0) {
+                put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            put((byte) value);
+        }
+
+        private void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(bytes.length);
+            put(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import org.ngmon.logger.core.AbstractNamespace;
+import org.ngmon.logger.core.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class of NGMON namespaces generated in direct dispatch mode.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Methods of woven namespace only return this and AspectJ advice collects method name,
+ * parameter names and values of each call. Methods generated in direct dispatch mode pass
+ * precomputed static final descriptors and values to event() instead:
+ * <pre>
+ *     private static final String[] started_PARAMS = {"time", "host"};
+ *
+ *     public AbstractNamespace started(long time, String host) {
+ *         return event(FQN, "started", started_PARAMS).set(0, time).set(1, host);
+ *     }
+ * </pre>
+ * so no weaving is needed and no reflection happens on log call.
+ * <p/>
+ * Namespace instance is shared by all threads of class, so event is never built in namespace
+ * itself. Each thread reuses its own Event holder (with values arrays and tags list), so chain
+ * LOG.method(a, b).tag("x").debug() is thread-confined and allocates nothing but boxed primitives.
+ * Logger must not keep paramValues array or tags list after log() returns - they are reused
+ * by next event of the same thread. Events created while Logger is logging (logger which logs
+ * itself by NGMON) get new holder.
+ */
+public abstract class DirectNamespace extends AbstractNamespace {
+
+    /** levels passed to Logger, in order of LogGlobal checks */
+    public static final int TRACE = 0;
+    public static final int DEBUG = 1;
+    public static final int INFO = 2;
+    public static final int WARN = 3;
+    public static final int ERROR = 4;
+    public static final int FATAL = 5;
+    public static final int LOG = 6;
+
+    private static final ThreadLocal<Event> events = new ThreadLocal<Event>() {
+        @Override
+        protected Event initialValue() {
+            return new Event();
+        }
+    };
+
+    private final Logger logger;
+
+    protected DirectNamespace(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Start event of one NGMON method call in holder of current thread. Values are filled by Event.set(),
+     * event is logged by its level method - info(), debug() etc.
+     *
+     * @param fqn        fully qualified name of namespace
+     * @param methodName name of NGMON method
+     * @param paramNames names of method parameters, shared by all calls
+     * @return event to be filled, tagged and logged
+     */
+    protected Event event(String fqn, String methodName, String[] paramNames) {
+        Event event = events.get();
+        if (event.dispatching) {
+            event = new Event();
+        }
+        return event.start(logger, fqn, methodName, paramNames);
+    }
+
+    protected static final class Event extends AbstractNamespace {
+
+        private static final int CACHED_ARITY = 16;
+
+        /** values arrays by number of parameters, created on first use */
+        private final Object[][] valuesByArity = new Object[CACHED_ARITY][];
+        private final List<String> tags = new ArrayList<>(4);
+        private Logger logger;
+        private String fqn;
+        private String methodName;
+        private String[] paramNames;
+        private Object[] paramValues;
+        private boolean dispatching;
+
+        private Event start(Logger logger, String fqn, String methodName, String[] paramNames) {
+            this.logger = logger;
+            this.fqn = fqn;
+            this.methodName = methodName;
+            this.paramNames = paramNames;
+            this.paramValues = values(paramNames.length);
+            tags.clear();
+            return this;
+        }
+
+        private Object[] values(int arity) {
+            if (arity >= CACHED_ARITY) {
+                return new Object[arity];
+            }
+            Object[] values = valuesByArity[arity];
+            if (values == null) {
+                values = new Object[arity];
+                valuesByArity[arity] = values;
+            }
+            return values;
+        }
+
+        /**
+         * @param index index of parameter in paramNames
+         * @param value value of parameter
+         * @return this event
+         */
+        public Event set(int index, Object value) {
+            paramValues[index] = value;
+            return this;
+        }
+
+        @Override
+        public AbstractNamespace tag(String tag) {
+            tags.add(tag);
+            return this;
+        }
+
+        private void dispatch(int level) {
+            dispatching = true;
+            try {
+                logger.log(fqn, methodName, tags.isEmpty() ? Collections.<String>emptyList() : tags,
+                    paramNames, paramValues, level);
+            } finally {
+                dispatching = false;
+                // do not keep application objects reachable from thread
+                Arrays.fill(paramValues, null);
+            }
+        }
+
+        @Override
+        public void trace() {
+            dispatch(TRACE);
+        }
+
+        @Override
+        public void debug() {
+            dispatch(DEBUG);
+        }
+
+        @Override
+        public void info() {
+            dispatch(INFO);
+        }
+
+        @Override
+        public void warn() {
+            dispatch(WARN);
+        }
+
+        @Override
+        public void error() {
+            dispatch(ERROR);
+        }
+
+        @Override
+        public void fatal() {
+            dispatch(FATAL);
+        }
+
+        @Override
+        public void log() {
+            dispatch(LOG);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Crash-safe journal of encoded NGMON events in memory-mapped files, used by generated SimpleLogger
+ * as channel of EventJsonEncoder or BinaryEventEncoder (event_journal=true).
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Journal is a ring of segment files of the same size (segment-0.journal ..), each segment is mapped
+ * into memory once. Every write() (one event of synchronous SimpleLogger, one batch of asynchronous one)
+ * becomes one record. Threads claim space for records by CAS on shared write cursor and copy them
+ * into mapped segment without any lock. Written bytes are in page cache at once, so they are kept,
+ * when JVM crashes or is killed, and written to disk by operating system later.
+ * When the last segment is full, the oldest one is reused, journal keeps last segments * segmentSize bytes.
+ * <p/>
+ * Segment starts by header (magic, version, sequence number of segment, never 0). Record is aligned to 8 bytes:
+ * <pre>
+ *     int tag (low bits of segment sequence number), int length, payload
+ * </pre>
+ * Length is written as negative, when record is claimed, and as positive, when the whole payload is written,
+ * so that record of thread killed while writing is skipped by EventJournalReader. Tag tells records
+ * of previous use of the segment apart. Record with length 0 and current tag marks end of segment.
+ */
+public final class EventJournal implements WritableByteChannel {
+
+    static final int MAGIC = 0x4e474d4a;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER = 16;
+    static final int RECORD_HEADER = 8;
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final MappedByteBuffer[] segments;
+    private final int segmentSize;
+    /** logical position of next record - segment sequence number * segmentSize + offset in segment */
+    private final AtomicLong cursor;
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    /** duplicates of segment buffers for bulk copy, their position is owned by one thread */
+    private final ThreadLocal<ByteBuffer[]> views = new ThreadLocal<ByteBuffer[]>() {
+        @Override
+        protected ByteBuffer[] initialValue() {
+            return new ByteBuffer[segments.length];
+        }
+    };
+
+    private EventJournal(MappedByteBuffer[] segments, int segmentSize, long lastSequence) {
+        this.segments = segments;
+        this.segmentSize = segmentSize;
+        this.cursor = new AtomicLong((lastSequence + 1) * segmentSize + SEGMENT_HEADER);
+        startSegment(lastSequence + 1);
+    }
+
+    /**
+     * Open journal in directory, create or resize its segment files. Journal continues after
+     * the newest segment of previous run, so that events of crashed JVM are overwritten last.
+     *
+     * @param directory   directory of segment files, created if it does not exist
+     * @param segmentSize size of one segment file in bytes
+     * @param segments    number of segment files
+     */
+    public static EventJournal open(String directory, int segmentSize, int segments) {
+        File dir = new File(directory);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("Cannot create NGMON journal directory " + directory);
+        }
+        segmentSize = Math.max(segmentSize, 4096) & ~7;
+        MappedByteBuffer[] buffers = new MappedByteBuffer[Math.max(2, segments)];
+        long lastSequence = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            try (RandomAccessFile file = new RandomAccessFile(new File(dir, SEGMENT_PREFIX + i + SEGMENT_SUFFIX), "rw")) {
+                file.setLength(segmentSize);
+                // mapping stays valid after file is closed
+                buffers[i] = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot map NGMON journal segment in " + directory, e);
+            }
+            if (buffers[i].getInt(0) == MAGIC && buffers[i].getLong(8) % buffers.length == i) {
+                lastSequence = Math.max(lastSequence, buffers[i].getLong(8));
+            }
+        }
+        return new EventJournal(buffers, segmentSize, lastSequence);
+    }
+
+    /**
+     * Append bytes of src as one record, record larger than segment is dropped.
+     *
+     * @return number of bytes consumed from src, always all of them
+     */
+    @Override
+    public int write(ByteBuffer src) {
+        int length = src.remaining();
+        int size = RECORD_HEADER + ((length + 7) & ~7);
+        if (size > segmentSize - SEGMENT_HEADER) {
+            dropped.incrementAndGet();
+            src.position(src.limit());
+            return length;
+        }
+        while (true) {
+            long position = cursor.get();
+            long sequence = position / segmentSize;
+            int offset = (int) (position % segmentSize);
+            if (offset + size <= segmentSize) {
+                if (cursor.compareAndSet(position, position + size)) {
+                    writeRecord(sequence, offset, src, length);
+                    return length;
+                }
+            } else if (cursor.compareAndSet(position, (sequence + 1) * segmentSize + SEGMENT_HEADER)) {
+                // only the thread moving cursor to next segment closes this one and starts the next one
+                if (offset + RECORD_HEADER <= segmentSize) {
+                    segment(sequence).putLong(offset, header(sequence, 0));
+                }
+                startSegment(sequence + 1);
+            }
+        }
+    }
+
+    private void writeRecord(long sequence, int offset, ByteBuffer src, int length) {
+        MappedByteBuffer segment = segment(sequence);
+        segment.putLong(offset, header(sequence, -length));
+        ByteBuffer[] threadViews = views.get();
+        int index = (int) (sequence % segments.length);
+        if (threadViews[index] == null) {
+            threadViews[index] = segment.duplicate();
+        }
+        ByteBuffer view = threadViews[index];
+        view.clear();
+        view.position(offset + RECORD_HEADER);
+        view.put(src);
+        // atomic increment orders payload before positive length, reader never sees committed partial record
+        records.incrementAndGet();
+        segment.putLong(offset, header(sequence, length));
+    }
+
+    private void startSegment(long sequence) {
+        // records of previous use of segment stay, they have other tag
+        MappedByteBuffer segment = segment(sequence);
+        segment.putLong(8, sequence);
+        segment.putInt(4, VERSION);
+        segment.putInt(0, MAGIC);
+    }
+
+    private MappedByteBuffer segment(long sequence) {
+        return segments[(int) (sequence % segments.length)];
+    }
+
+    /** tag in high int, length in low int, both are written by one aligned 8 byte store */
+    static long header(long sequence, int length) {
+        return ((long) (int) sequence << 32) | (length & 0xffffffffL);
+    }
+
+    /**
+     * Ask operating system to write all segments to disk, needed only to survive operating system crash.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    public long getRecords() {
+        return records.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    /**
+     * Journal stays mapped until JVM exits, events written on shutdown are kept.
+     */
+    @Override
+    public void close() {
+    }
+}
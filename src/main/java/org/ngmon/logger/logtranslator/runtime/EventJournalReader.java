@@ -0,0 +1,171 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line tool printing events of EventJournal - payloads of records from the oldest segment
+ * to the newest one. With -f it keeps following journal of running application, like tail -f.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <pre>
+ *     java org.ngmon.logger.logtranslator.runtime.EventJournalReader [-f] logs/ngmon-journal
+ * </pre>
+ * Output is JSON lines of EventJsonEncoder, or stream of BinaryEventEncoder, which can be piped into
+ * BinaryEventDecoder with events file "-".
+ */
+public final class EventJournalReader {
+
+    /** record being written (its thread was killed) or rest of segment of stopped application is skipped after this time */
+    private static final long STALLED_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long POLL_MILLIS = 10;
+
+    private final MappedByteBuffer[] segments;
+    private final int segmentSize;
+    private final OutputStream output;
+    private final byte[] payload;
+
+    /**
+     * @param directory journal directory of EventJournal
+     * @param output    destination of record payloads
+     */
+    public EventJournalReader(File directory, OutputStream output) throws IOException {
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(EventJournal.SEGMENT_PREFIX) && name.endsWith(EventJournal.SEGMENT_SUFFIX);
+            }
+        });
+        if (files == null || files.length == 0) {
+            throw new IOException("No NGMON journal segments in " + directory);
+        }
+        this.segments = new MappedByteBuffer[files.length];
+        this.segmentSize = (int) files[0].length();
+        for (int i = 0; i < segments.length; i++) {
+            File file = new File(directory, EventJournal.SEGMENT_PREFIX + i + EventJournal.SEGMENT_SUFFIX);
+            try (RandomAccessFile segment = new RandomAccessFile(file, "r")) {
+                segments[i] = segment.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+            }
+        }
+        this.output = output;
+        this.payload = new byte[segmentSize];
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean follow = args.length == 2 && "-f".equals(args[0]);
+        if (args.length != (follow ? 2 : 1)) {
+            System.err.println("Usage: EventJournalReader [-f] <journal directory>");
+            System.exit(1);
+        }
+        EventJournalReader reader = new EventJournalReader(new File(args[args.length - 1]), System.out);
+        long position = reader.dump();
+        if (follow) {
+            reader.follow(position);
+        }
+        System.out.flush();
+    }
+
+    /**
+     * Print records of all segments from the oldest one.
+     *
+     * @return logical position after the last record, where follow() continues
+     */
+    public long dump() throws IOException {
+        Map<Long, MappedByteBuffer> bySequence = new TreeMap<>();
+        for (int i = 0; i < segments.length; i++) {
+            long sequence = segments[i].getLong(8);
+            if (segments[i].getInt(0) == EventJournal.MAGIC && sequence % segments.length == i) {
+                bySequence.put(sequence, segments[i]);
+            }
+        }
+        long position = (long) segmentSize + EventJournal.SEGMENT_HEADER;
+        for (Map.Entry<Long, MappedByteBuffer> segment : bySequence.entrySet()) {
+            long sequence = segment.getKey();
+            int offset = EventJournal.SEGMENT_HEADER;
+            while (offset + EventJournal.RECORD_HEADER <= segmentSize) {
+                long header = segment.getValue().getLong(offset);
+                int length = (int) header;
+                if ((int) (header >>> 32) != (int) sequence || length == 0) {
+                    break;
+                }
+                if (length > 0) {
+                    print(segment.getValue(), offset, length);
+                }
+                offset += EventJournal.RECORD_HEADER + ((Math.abs(length) + 7) & ~7);
+            }
+            position = sequence * segmentSize + offset;
+        }
+        output.flush();
+        return position;
+    }
+
+    /**
+     * Print records written from logical position on, until the thread is interrupted.
+     */
+    public void follow(long position) throws IOException, InterruptedException {
+        long stalledSince = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            long sequence = position / segmentSize;
+            int offset = (int) (position % segmentSize);
+            MappedByteBuffer segment = segments[(int) (sequence % segments.length)];
+            long header = (offset + EventJournal.RECORD_HEADER <= segmentSize) ? segment.getLong(offset) : 0;
+            int length = (int) header;
+            if (segment.getLong(8) > sequence) {
+                // writer reused this segment already, continue by the oldest kept one
+                position = Math.max(sequence + 1, getNewestSequence() - segments.length + 1) * segmentSize
+                    + EventJournal.SEGMENT_HEADER;
+                continue;
+            }
+            boolean current = segment.getLong(8) == sequence && (int) (header >>> 32) == (int) sequence;
+            if (offset + EventJournal.RECORD_HEADER > segmentSize || (current && length == 0)) {
+                position = (sequence + 1) * segmentSize + EventJournal.SEGMENT_HEADER;
+            } else if (current && length > 0) {
+                print(segment, offset, length);
+                position += EventJournal.RECORD_HEADER + ((length + 7) & ~7);
+                stalledSince = 0;
+            } else if ((current && length < 0) || isStarted(sequence + 1)) {
+                // record of killed thread, or segment of restarted application continues in the next one
+                if (stalledSince == 0) {
+                    stalledSince = System.nanoTime();
+                } else if (System.nanoTime() - stalledSince > STALLED_NANOS) {
+                    position = current ? position + EventJournal.RECORD_HEADER + ((-length + 7) & ~7)
+                        : (sequence + 1) * segmentSize + EventJournal.SEGMENT_HEADER;
+                    stalledSince = 0;
+                    continue;
+                }
+                Thread.sleep(POLL_MILLIS);
+            } else {
+                output.flush();
+                Thread.sleep(POLL_MILLIS);
+            }
+        }
+    }
+
+    private long getNewestSequence() {
+        long newest = 0;
+        for (MappedByteBuffer segment : segments) {
+            newest = Math.max(newest, segment.getLong(8));
+        }
+        return newest;
+    }
+
+    private boolean isStarted(long sequence) {
+        MappedByteBuffer segment = segments[(int) (sequence % segments.length)];
+        return segment.getInt(0) == EventJournal.MAGIC && segment.getLong(8) == sequence;
+    }
+
+    private void print(MappedByteBuffer segment, int offset, int length) throws IOException {
+        ByteBuffer record = segment.duplicate();
+        record.position(offset + EventJournal.RECORD_HEADER);
+        record.get(payload, 0, length);
+        output.write(payload, 0, length);
+    }
+}
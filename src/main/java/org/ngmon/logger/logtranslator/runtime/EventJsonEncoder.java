@@ -0,0 +1,244 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Garbage-free JSON encoder of NGMON events, used by generated SimpleLogger instead of JSONer and Log4j.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Each event is written as one line
+ * <pre>
+ *     {"time":1400000000000,"level":1,"fqnNS":"log_events.x.XNamespace","methodName":"started","tags":["t"],"_":{"time":42}}
+ * </pre>
+ * straight into reusable byte buffer of current thread (see AbstractEventEncoder).
+ * Numbers, booleans and chars are encoded digit by digit, Strings char by char (UTF-8), so no
+ * intermediate String is created. Other objects are converted by String.valueOf(). Floating point
+ * numbers with fraction are written digit by digit with the fewest decimal places, which parse back
+ * to the same double. Only numbers, which need 17 significant digits (0.1 + 0.2) or more than 18
+ * decimal places, and numbers over 1e15 are still written by Double.toString().
+ */
+public final class EventJsonEncoder extends AbstractEventEncoder {
+
+    private static final byte[] TIME = bytes("{\"time\":");
+    private static final byte[] LEVEL = bytes(",\"level\":");
+    private static final byte[] FQN_NS = bytes(",\"fqnNS\":");
+    private static final byte[] METHOD_NAME = bytes(",\"methodName\":");
+    private static final byte[] TAGS = bytes(",\"tags\":[");
+    private static final byte[] VALUES = bytes("],\"_\":{");
+    private static final byte[] END = bytes("}}\n");
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] TRUE = bytes("true");
+    private static final byte[] FALSE = bytes("false");
+    private static final byte[] HEX = bytes("0123456789abcdef");
+    private static final byte[] MIN_LONG = bytes(String.valueOf(Long.MIN_VALUE));
+    /** powers of ten are exact doubles up to 1e22 */
+    private static final double[] DOUBLE_POWERS = new double[19];
+    private static final long[] LONG_POWERS = new long[19];
+    /** longs up to 2^53 are exact doubles */
+    private static final double MAX_EXACT_LONG = 9007199254740992.0;
+
+    static {
+        LONG_POWERS[0] = 1;
+        DOUBLE_POWERS[0] = 1;
+        for (int i = 1; i < LONG_POWERS.length; i++) {
+            LONG_POWERS[i] = LONG_POWERS[i - 1] * 10;
+            DOUBLE_POWERS[i] = LONG_POWERS[i];
+        }
+    }
+
+    /**
+     * @param channel    destination of encoded events
+     * @param bufferSize size of buffer of each thread, buffer grows for larger events
+     */
+    public EventJsonEncoder(WritableByteChannel channel, int bufferSize) {
+        super(channel, bufferSize);
+    }
+
+    /**
+     * Open encoder appending to file, directories are created.
+     */
+    public static EventJsonEncoder open(String file, int bufferSize) {
+        return open(openChannel(file), bufferSize);
+    }
+
+    /**
+     * Open encoder writing to channel, for example EventJournal.
+     */
+    public static EventJsonEncoder open(WritableByteChannel channel, int bufferSize) {
+        return new EventJsonEncoder(channel, bufferSize);
+    }
+
+    @Override
+    protected void encodeEvent(ByteBuffer buffer, long time, String fqnNS, String methodName, List<String> tags,
+                               String[] paramNames, Object[] paramValues, int level) {
+        buffer.put(TIME);
+        putLong(buffer, time);
+        buffer.put(LEVEL);
+        putLong(buffer, level);
+        buffer.put(FQN_NS);
+        putString(buffer, fqnNS);
+        buffer.put(METHOD_NAME);
+        putString(buffer, methodName);
+        buffer.put(TAGS);
+        for (int i = 0; i < tags.size(); i++) {
+            if (i > 0) {
+                buffer.put((byte) ',');
+            }
+            putString(buffer, tags.get(i));
+        }
+        buffer.put(VALUES);
+        for (int i = 0; i < paramNames.length; i++) {
+            if (i > 0) {
+                buffer.put((byte) ',');
+            }
+            putString(buffer, paramNames[i]);
+            buffer.put((byte) ':');
+            putValue(buffer, (i < paramValues.length) ? paramValues[i] : null);
+        }
+        buffer.put(END);
+    }
+
+    private static void putValue(ByteBuffer buffer, Object value) {
+        if (value == null) {
+            buffer.put(NULL);
+        } else if (value instanceof String) {
+            putString(buffer, (String) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            putLong(buffer, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            buffer.put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Character) {
+            buffer.put((byte) '"');
+            putChar(buffer, (Character) value);
+            buffer.put((byte) '"');
+        } else if (value instanceof Double || value instanceof Float) {
+            putDouble(buffer, ((Number) value).doubleValue());
+        } else {
+            putString(buffer, String.valueOf(value));
+        }
+    }
+
+    private static void putDouble(ByteBuffer buffer, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            buffer.put(NULL);
+        } else if (value == (long) value && Math.abs(value) < 1e15) {
+            putLong(buffer, (long) value);
+            buffer.put((byte) '.').put((byte) '0');
+        } else if (!putDecimal(buffer, value)) {
+            String text = Double.toString(value);
+            for (int i = 0; i < text.length(); i++) {
+                buffer.put((byte) text.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * Write number with fraction as digits / 10^scale with the lowest scale, where division of both as doubles
+     * gives the number back. Division is correctly rounded like parsing, so the decimal parses to the same double.
+     *
+     * @return false, when digits do not fit into exact range of doubles up to scale 18
+     */
+    private static boolean putDecimal(ByteBuffer buffer, double value) {
+        double abs = Math.abs(value);
+        for (int scale = 1; scale < DOUBLE_POWERS.length; scale++) {
+            double scaled = abs * DOUBLE_POWERS[scale];
+            if (scaled >= MAX_EXACT_LONG) {
+                return false;
+            }
+            long digits = Math.round(scaled);
+            if (digits / DOUBLE_POWERS[scale] == abs) {
+                if (value < 0) {
+                    buffer.put((byte) '-');
+                }
+                putLong(buffer, digits / LONG_POWERS[scale]);
+                buffer.put((byte) '.');
+                long fraction = digits % LONG_POWERS[scale];
+                while (fraction != 0 && fraction % 10 == 0) {
+                    fraction /= 10;
+                    scale--;
+                }
+                // leading zeros of fraction
+                for (int zeros = scale - 1; zeros > 0 && fraction < LONG_POWERS[zeros]; zeros--) {
+                    buffer.put((byte) '0');
+                }
+                putLong(buffer, fraction);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static void putLong(ByteBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put(MIN_LONG);
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        int position = buffer.position();
+        if (buffer.remaining() < digits) {
+            throw new BufferOverflowException();
+        }
+        // digits from the last one, division by constant is compiled to multiplication
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(position + digits);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        buffer.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xf0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+            } else {
+                putChar(buffer, c);
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    /** UTF-8 and JSON escaping of one char, unpaired surrogate is written as '?' */
+    private static void putChar(ByteBuffer buffer, char c) {
+        if (c == '"' || c == '\\') {
+            buffer.put((byte) '\\').put((byte) c);
+        } else if (c < 0x20) {
+            buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                .put(HEX[c >> 4]).put(HEX[c & 0xf]);
+        } else if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xc0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3f)));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xe0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+            buffer.put((byte) (0x80 | (c & 0x3f)));
+        }
+    }
+
+    private static byte[] bytes(String ascii) {
+        byte[] bytes = new byte[ascii.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) ascii.charAt(i);
+        }
+        return bytes;
+    }
+}
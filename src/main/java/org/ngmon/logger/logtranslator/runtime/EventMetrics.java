@@ -0,0 +1,305 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts and estimated bytes of requested and emitted events of one generated namespace (event_metrics=true).
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Generated namespace keeps its metrics in static final field, each method records requested event with
+ * estimate of JSON event size - constant part computed by LogTranslator and lengths of String values:
+ * <pre>
+ *     public static final EventMetrics METRICS = EventMetrics.register("log_events.x.XNamespace",
+ *         "block_received", "packet_sent");
+ *
+ *     public AbstractNamespace block_received(long id, String host) {
+ *         METRICS.requested(0, 96 + EventMetrics.length(host));
+ *         return this;
+ *     }
+ * </pre>
+ * Requested events are counted whether they are written or not, calls guarded by isXEnabled() of LogGlobal
+ * are not counted. Generated SimpleLogger records emitted event by emitted() only after its level check and
+ * repeat filter let it through, estimate is computed from the same names and values, so difference of both
+ * is what these checks dropped.
+ * <p/>
+ * Counters are striped like LongAdder (not available in Java 7) - each thread adds to stripe chosen
+ * by its ID, stripes are padded to own cache lines, readers sum all stripes.
+ * Every namespace is registered in JMX. Counters of all namespaces are written into file of system
+ * property ngmon.metrics.file (Prometheus text format) every ngmon.metrics.interval milliseconds
+ * (default 60000) and on JVM shutdown.
+ */
+public final class EventMetrics implements EventMetricsMBean {
+
+    public static final String OBJECT_NAME = "org.ngmon.logger:type=EventMetrics,namespace=";
+    public static final String FILE_PROPERTY = "ngmon.metrics.file";
+    public static final String INTERVAL_PROPERTY = "ngmon.metrics.interval";
+
+    /** number of longs in one cache line (64 bytes) */
+    private static final int PADDING = 8;
+    private static final int STRIPES = Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+    private static final ConcurrentMap<String, EventMetrics> namespaces = new ConcurrentHashMap<>();
+
+    static {
+        final String file = System.getProperty(FILE_PROPERTY);
+        if (file != null && !file.isEmpty()) {
+            long interval = Long.getLong(INTERVAL_PROPERTY, 60000L);
+            if (interval > 0) {
+                new Timer("NGMON-event-metrics", true).schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        exportAll(file);
+                    }
+                }, interval, interval);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread("NGMON-event-metrics-shutdown") {
+                @Override
+                public void run() {
+                    exportAll(file);
+                }
+            });
+        }
+    }
+
+    /** offsets of counters of one method in its cells */
+    private static final int REQUESTED = 0;
+    private static final int REQUESTED_BYTES = 1;
+    private static final int EMITTED = 2;
+    private static final int EMITTED_BYTES = 3;
+    private static final int COUNTERS = 4;
+
+    private final String namespace;
+    private final String[] methods;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    /** stripe i holds COUNTERS counters of method m from i * stride + PADDING + COUNTERS * m */
+    private final int stride;
+    private final AtomicLongArray cells;
+
+    EventMetrics(String namespace, String... methods) {
+        this.namespace = namespace;
+        this.methods = methods.clone();
+        for (int i = 0; i < methods.length; i++) {
+            indexes.put(methods[i], i);
+        }
+        this.stride = (COUNTERS * methods.length + PADDING - 1) / PADDING * PADDING + PADDING;
+        this.cells = new AtomicLongArray(STRIPES * stride + PADDING);
+    }
+
+    /**
+     * Create metrics of namespace and register them in JMX, called from static initializer of generated namespace.
+     *
+     * @param namespace fully qualified name of namespace class
+     * @param methods   names of namespace methods, method is referenced by its index in requested()
+     */
+    public static EventMetrics register(String namespace, String... methods) {
+        EventMetrics metrics = new EventMetrics(namespace, methods);
+        EventMetrics existing = namespaces.putIfAbsent(namespace, metrics);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME + namespace));
+        } catch (JMException e) {
+            // already registered by another class loader, or JMX is not available - counters work anyway
+        }
+        return metrics;
+    }
+
+    /**
+     * Record call of namespace method, called by generated namespace before event level is known.
+     *
+     * @param method index of method in names passed to register()
+     * @param bytes  estimated size of event
+     */
+    public void requested(int method, long bytes) {
+        add(method, REQUESTED, bytes);
+    }
+
+    /**
+     * Record event written by SimpleLogger. Estimate is the same as estimate of requested event
+     * computed by LogTranslator and namespace method, events of namespaces without metrics are ignored.
+     *
+     * @param fqnNS       fully qualified name of namespace
+     * @param methodName  name of NGMON method
+     * @param paramNames  names of parameters
+     * @param paramValues values of parameters
+     */
+    public static void emitted(String fqnNS, String methodName, String[] paramNames, Object[] paramValues) {
+        EventMetrics metrics = namespaces.get(fqnNS);
+        if (metrics == null) {
+            return;
+        }
+        Integer method = metrics.indexes.get(methodName);
+        if (method == null) {
+            return;
+        }
+        // dots between prefix, namespace and class are not counted by LogTranslator
+        long bytes = 46 + fqnNS.length() + methodName.length();
+        for (int i = 0; i < paramNames.length; i++) {
+            bytes += paramNames[i].length() + 6 + valueLength(paramValues[i]);
+        }
+        metrics.add(method, EMITTED, bytes);
+    }
+
+    /**
+     * @return length of String value in estimate of event size
+     */
+    public static int length(String value) {
+        return (value == null) ? 4 : value.length();
+    }
+
+    /**
+     * @return length of any value in estimate of event size, primitive values have fixed size
+     */
+    private static int valueLength(Object value) {
+        if (value == null || value instanceof String) {
+            return length((String) value);
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 8;
+        }
+        return 16;
+    }
+
+    private void add(int method, int counter, long bytes) {
+        int cell = (int) (Thread.currentThread().getId() & (STRIPES - 1)) * stride + PADDING + COUNTERS * method + counter;
+        cells.getAndIncrement(cell);
+        cells.getAndAdd(cell + 1, bytes);
+    }
+
+    @Override
+    public String getNamespace() {
+        return namespace;
+    }
+
+    @Override
+    public String[] getMethods() {
+        return methods.clone();
+    }
+
+    @Override
+    public long[] getRequested() {
+        return sum(REQUESTED);
+    }
+
+    @Override
+    public long[] getRequestedBytes() {
+        return sum(REQUESTED_BYTES);
+    }
+
+    @Override
+    public long[] getEmitted() {
+        return sum(EMITTED);
+    }
+
+    @Override
+    public long[] getEmittedBytes() {
+        return sum(EMITTED_BYTES);
+    }
+
+    @Override
+    public long getTotalRequested() {
+        return total(getRequested());
+    }
+
+    @Override
+    public long getTotalRequestedBytes() {
+        return total(getRequestedBytes());
+    }
+
+    @Override
+    public long getTotalEmitted() {
+        return total(getEmitted());
+    }
+
+    @Override
+    public long getTotalEmittedBytes() {
+        return total(getEmittedBytes());
+    }
+
+    @Override
+    public void exportSnapshot(String file) {
+        exportAll(file);
+    }
+
+    /**
+     * Write counters of all registered namespaces into file in Prometheus text format, file is replaced.
+     */
+    public static synchronized void exportAll(String file) {
+        File snapshot = new File(file);
+        File parent = snapshot.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        File temp = new File(snapshot.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            writer.write(snapshot());
+        } catch (IOException e) {
+            System.err.println("NGMON cannot write event metrics into " + file + ": " + e);
+            return;
+        }
+        if (!temp.renameTo(snapshot)) {
+            snapshot.delete();
+            temp.renameTo(snapshot);
+        }
+    }
+
+    /**
+     * @return counters of all registered namespaces in Prometheus text format
+     */
+    static String snapshot() {
+        String[] names = {"ngmon_event_requested_total", "ngmon_event_requested_estimated_bytes_total",
+            "ngmon_event_emitted_total", "ngmon_event_emitted_estimated_bytes_total"};
+        StringBuilder[] counters = new StringBuilder[COUNTERS];
+        for (int counter = 0; counter < COUNTERS; counter++) {
+            counters[counter] = new StringBuilder("# TYPE ").append(names[counter]).append(" counter\n");
+        }
+        for (Map.Entry<String, EventMetrics> entry : namespaces.entrySet()) {
+            EventMetrics metrics = entry.getValue();
+            for (int counter = 0; counter < COUNTERS; counter++) {
+                long[] values = metrics.sum(counter);
+                for (int i = 0; i < metrics.methods.length; i++) {
+                    counters[counter].append(names[counter]).append("{namespace=\"").append(entry.getKey())
+                        .append("\",method=\"").append(metrics.methods[i]).append("\"} ").append(values[i]).append('\n');
+                }
+            }
+        }
+        StringBuilder snapshot = new StringBuilder();
+        for (StringBuilder counter : counters) {
+            snapshot.append(counter);
+        }
+        return snapshot.toString();
+    }
+
+    private long[] sum(int counter) {
+        long[] sums = new long[methods.length];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            for (int i = 0; i < methods.length; i++) {
+                sums[i] += cells.get(stripe * stride + PADDING + COUNTERS * i + counter);
+            }
+        }
+        return sums;
+    }
+
+    private static long total(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
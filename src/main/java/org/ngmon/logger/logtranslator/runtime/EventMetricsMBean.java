@@ -0,0 +1,46 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+/**
+ * JMX counters of events of one generated namespace, registered as
+ * org.ngmon.logger:type=EventMetrics,namespace=&lt;fully qualified namespace class&gt;.
+ * Arrays of counters are in order of getMethods().
+ */
+public interface EventMetricsMBean {
+
+    String getNamespace();
+
+    String[] getMethods();
+
+    /**
+     * @return number of calls of each namespace method since start of application
+     */
+    long[] getRequested();
+
+    /**
+     * @return estimated number of bytes of JSON events of all calls of each method
+     */
+    long[] getRequestedBytes();
+
+    /**
+     * @return number of events of each method written by SimpleLogger (level enabled, not a filtered repeat)
+     */
+    long[] getEmitted();
+
+    /**
+     * @return estimated number of bytes of JSON events of each method written by SimpleLogger
+     */
+    long[] getEmittedBytes();
+
+    long getTotalRequested();
+
+    long getTotalRequestedBytes();
+
+    long getTotalEmitted();
+
+    long getTotalEmittedBytes();
+
+    /**
+     * Write counters of all namespaces into file in Prometheus text format.
+     */
+    void exportSnapshot(String file);
+}
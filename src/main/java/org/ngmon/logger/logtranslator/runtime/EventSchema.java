@@ -0,0 +1,174 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema of NGMON events written by LogTranslator's EventSchemaGenerator, used by BinaryEventEncoder
+ * and ColumnarEventStore. This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Schema has one line per method of generated namespaces, lines starting with '#' are comments:
+ * <pre>
+ *     id TAB namespace FQN TAB method name TAB name:type,name:type
+ * </pre>
+ * Values of primitive types are encoded by their type code, other types (String, Object, boxed types) as String.
+ */
+public final class EventSchema {
+
+    public static final String SCHEMA_RESOURCE = "/ngmon-event-schema.txt";
+    static final char LONG = 'L';
+    static final char DOUBLE = 'D';
+    static final char BOOLEAN = 'Z';
+    static final char CHAR = 'C';
+    static final char STRING = 'S';
+
+    /** One method of generated namespace, as declared by schema. */
+    static final class EventType {
+        final int id;
+        final String fqnNS;
+        final String methodName;
+        final String[] paramNames;
+        final char[] types;
+
+        EventType(int id, String fqnNS, String methodName, String[] paramNames, char[] types) {
+            this.id = id;
+            this.fqnNS = fqnNS;
+            this.methodName = methodName;
+            this.paramNames = paramNames;
+            this.types = types;
+        }
+
+        /** overloaded methods can have the same parameter names, primitive values decide then */
+        boolean matches(String[] names, Object[] values) {
+            if (names != paramNames && !Arrays.equals(names, paramNames)) {
+                return false;
+            }
+            for (int i = 0; i < types.length; i++) {
+                Object value = (i < values.length) ? values[i] : null;
+                if ((types[i] == LONG && !(value instanceof Long || value instanceof Integer
+                    || value instanceof Short || value instanceof Byte))
+                    || (types[i] == DOUBLE && !(value instanceof Double || value instanceof Float))
+                    || (types[i] == BOOLEAN && !(value instanceof Boolean))
+                    || (types[i] == CHAR && !(value instanceof Character))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final List<EventType> eventTypes;
+    /** event types by namespace FQN and method name */
+    private final Map<String, Map<String, EventType[]>> byName = new HashMap<>();
+
+    public EventSchema(List<EventType> eventTypes) {
+        this.eventTypes = eventTypes;
+        for (EventType eventType : eventTypes) {
+            Map<String, EventType[]> methods = byName.get(eventType.fqnNS);
+            if (methods == null) {
+                methods = new HashMap<>();
+                byName.put(eventType.fqnNS, methods);
+            }
+            EventType[] overloads = methods.get(eventType.methodName);
+            if (overloads == null) {
+                overloads = new EventType[]{eventType};
+            } else {
+                overloads = Arrays.copyOf(overloads, overloads.length + 1);
+                overloads[overloads.length - 1] = eventType;
+            }
+            methods.put(eventType.methodName, overloads);
+        }
+    }
+
+    /**
+     * Read schema from classpath, it is empty when it is missing (events are then written as unknown).
+     */
+    public static EventSchema load() {
+        InputStream schema = EventSchema.class.getResourceAsStream(SCHEMA_RESOURCE);
+        if (schema != null) {
+            try {
+                return read(schema);
+            } catch (IOException e) {
+                // events are written with their names then
+            }
+        }
+        return new EventSchema(new ArrayList<EventType>());
+    }
+
+    /**
+     * Read schema written by EventSchemaGenerator.
+     */
+    public static EventSchema read(InputStream input) throws IOException {
+        List<EventType> eventTypes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                String[] parameters = columns[3].isEmpty() ? new String[0] : columns[3].split(",");
+                String[] paramNames = new String[parameters.length];
+                char[] types = new char[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    int colon = parameters[i].indexOf(':');
+                    paramNames[i] = parameters[i].substring(0, colon);
+                    types[i] = getTypeCode(parameters[i].substring(colon + 1));
+                }
+                eventTypes.add(new EventType(Integer.parseInt(columns[0]), columns[1], columns[2], paramNames, types));
+            }
+        }
+        return new EventSchema(eventTypes);
+    }
+
+    /**
+     * @param type Java type of namespace method parameter
+     * @return code of its encoding, only primitive types are not encoded as String
+     */
+    static char getTypeCode(String type) {
+        switch (type) {
+            case "byte":
+            case "short":
+            case "int":
+            case "long":
+                return LONG;
+            case "float":
+            case "double":
+                return DOUBLE;
+            case "boolean":
+                return BOOLEAN;
+            case "char":
+                return CHAR;
+            default:
+                return STRING;
+        }
+    }
+
+    /**
+     * @return type of event, null when it is not in schema
+     */
+    EventType getEventType(String fqnNS, String methodName, String[] paramNames, Object[] paramValues) {
+        Map<String, EventType[]> methods = byName.get(fqnNS);
+        EventType[] overloads = (methods == null) ? null : methods.get(methodName);
+        if (overloads != null) {
+            for (EventType eventType : overloads) {
+                if (eventType.matches(paramNames, paramValues)) {
+                    return eventType;
+                }
+            }
+        }
+        return null;
+    }
+
+    List<EventType> getEventTypes() {
+        return eventTypes;
+    }
+}
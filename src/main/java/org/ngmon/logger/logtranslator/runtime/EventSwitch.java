@@ -0,0 +1,130 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Runtime on/off switches of single NGMON events (methods of generated namespaces).
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Each event has its own MutableCallSite, returning constant true or false. Generated namespace
+ * keeps site's invoker in static final field and translated log call is guarded by it:
+ * <pre>
+ *     public static final MethodHandle started_SWITCH = EventSwitch.register("log_events.x.XNamespace", "started");
+ *     if (EventSwitch.isOn(XNamespace.started_SWITCH)) { LOG.started(time).info(); }
+ * </pre>
+ * JIT treats target of call site as constant, so guard costs nothing and disabled call
+ * (including evaluation of its arguments) is dropped from compiled code. Switching event
+ * deoptimizes dependent code, which is compiled again with new constant.
+ * <p/>
+ * Events are switched by JMX (EventSwitchControl MBean) or by this class. Events listed in
+ * system property ngmon.events.disabled (comma separated namespace.method names) start disabled.
+ */
+public final class EventSwitch {
+
+    public static final String DISABLED_EVENTS_PROPERTY = "ngmon.events.disabled";
+    public static final String OBJECT_NAME = "org.ngmon.logger:type=EventSwitch";
+
+    private static final MethodHandle ON = MethodHandles.constant(boolean.class, true);
+    private static final MethodHandle OFF = MethodHandles.constant(boolean.class, false);
+    private static final ConcurrentMap<String, MutableCallSite> switches = new ConcurrentHashMap<>();
+    private static final Set<String> initiallyDisabled = new HashSet<>();
+
+    static {
+        String disabled = System.getProperty(DISABLED_EVENTS_PROPERTY);
+        if (disabled != null) {
+            for (String event : Arrays.asList(disabled.split(","))) {
+                if (!event.trim().isEmpty()) {
+                    initiallyDisabled.add(event.trim());
+                }
+            }
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new EventSwitchControl(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // already registered by another class loader, or JMX is not available - switches work anyway
+        }
+    }
+
+    private EventSwitch() {
+    }
+
+    /**
+     * Create switch of one event, called from static initializer of generated namespace.
+     *
+     * @param namespace fully qualified name of namespace class
+     * @param method    name of event method
+     * @return invoker of event's switch, to be stored in static final field
+     */
+    public static MethodHandle register(String namespace, String method) {
+        String event = namespace + "." + method;
+        MutableCallSite site = new MutableCallSite(initiallyDisabled.contains(event) ? OFF : ON);
+        MutableCallSite existing = switches.putIfAbsent(event, site);
+        return (existing == null) ? site.dynamicInvoker() : existing.dynamicInvoker();
+    }
+
+    /**
+     * @param eventSwitch invoker returned by register()
+     * @return true if event is enabled
+     */
+    public static boolean isOn(MethodHandle eventSwitch) {
+        try {
+            return (boolean) eventSwitch.invokeExact();
+        } catch (Throwable t) {
+            throw new IllegalStateException("Broken event switch " + eventSwitch, t);
+        }
+    }
+
+    /**
+     * Enable or disable one event in all threads.
+     *
+     * @param event   namespace.method name of event
+     * @param enabled new state of event
+     * @return false if no such event is registered
+     */
+    public static boolean setEnabled(String event, boolean enabled) {
+        MutableCallSite site = switches.get(event);
+        if (site == null) {
+            return false;
+        }
+        synchronized (site) {
+            site.setTarget(enabled ? ON : OFF);
+            MutableCallSite.syncAll(new MutableCallSite[]{site});
+        }
+        return true;
+    }
+
+    /**
+     * @param event namespace.method name of event
+     * @return true if event is registered and enabled
+     */
+    public static boolean isEnabled(String event) {
+        MutableCallSite site = switches.get(event);
+        return site != null && site.getTarget() == ON;
+    }
+
+    public static SortedSet<String> getEvents() {
+        return new TreeSet<>(switches.keySet());
+    }
+
+    public static SortedSet<String> getDisabledEvents() {
+        SortedSet<String> disabled = new TreeSet<>();
+        for (String event : switches.keySet()) {
+            if (!isEnabled(event)) {
+                disabled.add(event);
+            }
+        }
+        return disabled;
+    }
+}
@@ -0,0 +1,32 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+/**
+ * MBean registered by EventSwitch under name org.ngmon.logger:type=EventSwitch.
+ */
+public class EventSwitchControl implements EventSwitchControlMBean {
+
+    @Override
+    public String[] getEvents() {
+        return EventSwitch.getEvents().toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getDisabledEvents() {
+        return EventSwitch.getDisabledEvents().toArray(new String[0]);
+    }
+
+    @Override
+    public boolean isEnabled(String event) {
+        return EventSwitch.isEnabled(event);
+    }
+
+    @Override
+    public boolean enable(String event) {
+        return EventSwitch.setEnabled(event, true);
+    }
+
+    @Override
+    public boolean disable(String event) {
+        return EventSwitch.setEnabled(event, false);
+    }
+}
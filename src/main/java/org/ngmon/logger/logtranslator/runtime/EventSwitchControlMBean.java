@@ -0,0 +1,25 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+/**
+ * JMX interface for switching single NGMON events on and off in running application.
+ * Events are named by fully qualified namespace class and method, for example
+ * log_events.org.apache.hadoop.hdfs.HdfsNamespace.block_report_received
+ */
+public interface EventSwitchControlMBean {
+
+    String[] getEvents();
+
+    String[] getDisabledEvents();
+
+    boolean isEnabled(String event);
+
+    /**
+     * @return false if no such event is registered
+     */
+    boolean enable(String event);
+
+    /**
+     * @return false if no such event is registered
+     */
+    boolean disable(String event);
+}
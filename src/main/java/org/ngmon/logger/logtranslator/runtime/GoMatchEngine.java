@@ -0,0 +1,432 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matcher of legacy log messages compiled from GoMatch patterns written by GoMatchGenerator (gomatch_generated_files),
+ * used by LegacyLogConverter. This class is not copied into translated application.
+ * <pre>
+ *     org.apache.hadoop.testdir2namespace.scheduled_snapshot_period_second##Scheduled snapshot period at %{INT:period} second(s).
+ * </pre>
+ * Each pattern is compiled into literal segments and typed variables %{TYPE:name} between them, matching whole
+ * message like regular expression with quoted literals (any whitespace char matches space of pattern), reluctant
+ * .*? for STRING and greedy number, boolean or char groups for other NGMON types - but without regex. Literal after
+ * STRING variable is found by indexOf, typed variable takes the longest run of chars of its type, other possible
+ * splits are tried only when the rest of message does not match. Part of pattern before ## is namespace and
+ * method name of converted event.
+ * <p/>
+ * Patterns are not tried one by one. Their literal prefixes (text before the first variable) are stored in trie,
+ * message walks the trie and only patterns of visited nodes are candidates, the longest prefix first.
+ * Patterns starting with variable are candidates of every message, tried last.
+ */
+public final class GoMatchEngine {
+
+    private static final String SEPARATOR = "##";
+    private static final Pattern VARIABLE = Pattern.compile("%\\{(\\w+):([^}]*)\\}");
+    private static final char STRING = 'S';
+    private static final char INTEGER = 'I';
+    private static final char DECIMAL = 'D';
+    private static final char BOOLEAN = 'B';
+    private static final char CHAR = 'C';
+
+    private final List<GoMatchPattern> patterns = new ArrayList<>();
+    private final Node root = new Node();
+
+    /**
+     * @param patternLines lines of gomatch patterns file, empty lines and # comments (gomatch_debug) are skipped
+     */
+    public GoMatchEngine(List<String> patternLines) {
+        for (String line : patternLines) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int separator = line.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("GoMatch pattern without " + SEPARATOR + ": " + line);
+            }
+            patterns.add(new GoMatchPattern(patterns.size(), line.substring(0, separator),
+                line.substring(separator + SEPARATOR.length())));
+        }
+        for (GoMatchPattern pattern : patterns) {
+            Node node = root;
+            String prefix = pattern.literals[0];
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = normalize(prefix.charAt(i));
+                node = node.addChild(c);
+            }
+            node.patterns.add(pattern);
+        }
+        sortPatterns(root);
+    }
+
+    public static GoMatchEngine load(String file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                lines.add(line);
+            }
+        }
+        return new GoMatchEngine(lines);
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * @return new matcher, matcher keeps bounds of values of the last message and must not be shared by threads
+     */
+    public MessageMatcher newMatcher() {
+        return new MessageMatcher();
+    }
+
+    /**
+     * Space, tab and other whitespace chars of message match space of pattern.
+     */
+    private static char normalize(char c) {
+        return (c > ' ' && c < 0x80) || !Character.isWhitespace(c) ? c : ' ';
+    }
+
+    /**
+     * Patterns with more literal text are more specific, they are tried first. Equal patterns keep order of file.
+     */
+    private static void sortPatterns(Node node) {
+        Collections.sort(node.patterns, new Comparator<GoMatchPattern>() {
+            @Override
+            public int compare(GoMatchPattern first, GoMatchPattern second) {
+                int result = Integer.compare(second.literalLength, first.literalLength);
+                return (result != 0) ? result : Integer.compare(first.id, second.id);
+            }
+        });
+        for (Node child : node.children) {
+            sortPatterns(child);
+        }
+    }
+
+    /**
+     * Node of trie, children are sorted by their char for binary search.
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private final List<GoMatchPattern> patterns = new ArrayList<>();
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return (index >= 0) ? children[index] : null;
+        }
+
+        private Node addChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            newKeys[index] = c;
+            newChildren[index] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[index];
+        }
+    }
+
+    /**
+     * One compiled GoMatch pattern - NGMON event type, literal segments and types of variables between them.
+     */
+    public static final class GoMatchPattern {
+
+        private final int id;
+        private final String fqnNS;
+        private final String methodName;
+        private final String[] paramNames;
+        private final char[] paramTypes;
+        /** literal text around variables, one more than variables */
+        private final String[] literals;
+        private final int literalLength;
+
+        GoMatchPattern(int id, String eventType, String text) {
+            this.id = id;
+            int dot = eventType.lastIndexOf('.');
+            this.fqnNS = (dot > 0) ? eventType.substring(0, dot) : eventType;
+            this.methodName = eventType.substring(dot + 1);
+            text = text.trim();
+            List<String> names = new ArrayList<>();
+            StringBuilder types = new StringBuilder();
+            List<String> literals = new ArrayList<>();
+            Matcher variable = VARIABLE.matcher(text);
+            int end = 0;
+            while (variable.find()) {
+                literals.add(text.substring(end, variable.start()));
+                types.append(typeCode(variable.group(1).toUpperCase()));
+                names.add(variable.group(2));
+                end = variable.end();
+            }
+            literals.add(text.substring(end));
+            this.paramNames = names.toArray(new String[names.size()]);
+            this.paramTypes = types.toString().toCharArray();
+            this.literals = literals.toArray(new String[literals.size()]);
+            int length = 0;
+            for (String literal : this.literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        private static char typeCode(String type) {
+            switch (type) {
+                case "INT":
+                case "LONG":
+                case "SHORT":
+                case "BYTE":
+                    return INTEGER;
+                case "DOUBLE":
+                case "FLOAT":
+                    return DECIMAL;
+                case "BOOLEAN":
+                    return BOOLEAN;
+                case "CHAR":
+                    return CHAR;
+                default:
+                    return STRING;
+            }
+        }
+
+        /**
+         * Match whole message, prefix (the first literal) is already matched by trie.
+         *
+         * @param bounds start and end of each variable in message, filled on match
+         */
+        private boolean match(String message, int[] bounds) {
+            return matchVariable(message, 0, literals[0].length(), bounds);
+        }
+
+        /**
+         * Variable and literal after it at position of message, then the rest of pattern. STRING variable
+         * is the shortest possible (like reluctant .*?), typed variables the longest value of their type.
+         */
+        private boolean matchVariable(String message, int variable, int position, int[] bounds) {
+            if (variable == paramTypes.length) {
+                return position == message.length();
+            }
+            String literal = literals[variable + 1];
+            boolean last = variable + 1 == paramTypes.length;
+            char type = paramTypes[variable];
+            if (type == STRING) {
+                if (last) {
+                    int end = message.length() - literal.length();
+                    return end >= position && literalAt(message, literal, end)
+                        && bind(bounds, variable, position, end);
+                }
+                for (int end = indexOf(message, literal, position); end >= 0; end = indexOf(message, literal, end + 1)) {
+                    if (matchVariable(message, variable + 1, end + literal.length(), bounds)) {
+                        return bind(bounds, variable, position, end);
+                    }
+                }
+                return false;
+            }
+            for (int end = valueEnd(message, position, type); end > position; end--) {
+                if (isValue(message, position, end, type) && literalAt(message, literal, end)
+                    && matchVariable(message, variable + 1, end + literal.length(), bounds)) {
+                    return bind(bounds, variable, position, end);
+                }
+            }
+            return false;
+        }
+
+        private static boolean bind(int[] bounds, int variable, int start, int end) {
+            bounds[2 * variable] = start;
+            bounds[2 * variable + 1] = end;
+            return true;
+        }
+
+        /**
+         * @return end of the longest run of chars, which may be part of value of type
+         */
+        private static int valueEnd(String message, int position, char type) {
+            if (type == CHAR) {
+                return Math.min(message.length(), position + 1);
+            }
+            if (message.startsWith("null", position)) {
+                return position + 4;
+            }
+            int end = position;
+            while (end < message.length() && isValueChar(message.charAt(end), type)) {
+                end++;
+            }
+            return end;
+        }
+
+        private static boolean isValueChar(char c, char type) {
+            switch (type) {
+                case INTEGER:
+                    return (c >= '0' && c <= '9') || c == '-';
+                case DECIMAL:
+                    return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E'
+                        || "NaInfity".indexOf(c) >= 0;
+                default:
+                    return c >= 'a' && c <= 'u';
+            }
+        }
+
+        private static boolean isValue(String message, int start, int end, char type) {
+            String text = message.substring(start, end);
+            if (type == CHAR || "null".equals(text)) {
+                return true;
+            }
+            switch (type) {
+                case INTEGER:
+                    int sign = (text.charAt(0) == '-') ? 1 : 0;
+                    if (sign == text.length()) {
+                        return false;
+                    }
+                    for (int i = sign; i < text.length(); i++) {
+                        if (!Character.isDigit(text.charAt(i))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case DECIMAL:
+                    if (text.endsWith("NaN") || text.endsWith("Infinity")) {
+                        return text.equals("NaN") || text.equals("Infinity") || text.equals("-Infinity");
+                    }
+                    try {
+                        Double.parseDouble(text);
+                        return Character.isDigit(text.charAt(text.length() - 1)) || text.endsWith(".");
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                default:
+                    return "true".equals(text) || "false".equals(text);
+            }
+        }
+
+        private static boolean literalAt(String message, String literal, int position) {
+            if (position + literal.length() > message.length()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (normalize(message.charAt(position + i)) != normalize(literal.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int indexOf(String message, String literal, int from) {
+            for (int i = from; i + literal.length() <= message.length(); i++) {
+                if (literalAt(message, literal, i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return value of parameter converted to its NGMON type, String when it does not fit
+         */
+        private Object value(int param, String text) {
+            if ("null".equals(text) && paramTypes[param] != STRING) {
+                return null;
+            }
+            try {
+                switch (paramTypes[param]) {
+                    case INTEGER:
+                        return Long.parseLong(text);
+                    case DECIMAL:
+                        return Double.parseDouble(text);
+                    case BOOLEAN:
+                        return Boolean.valueOf(text);
+                    case CHAR:
+                        return text.charAt(0);
+                    default:
+                        return text;
+                }
+            } catch (NumberFormatException e) {
+                // number out of range of long
+                return text;
+            }
+        }
+
+        public String getFqnNS() {
+            return fqnNS;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public String[] getParamNames() {
+            return paramNames;
+        }
+    }
+
+    /**
+     * Matcher of messages used by one thread.
+     */
+    public final class MessageMatcher {
+
+        private final List<Node> path = new ArrayList<>();
+        private int[] bounds = new int[16];
+        private GoMatchPattern matched;
+        private Object[] values;
+
+        /**
+         * @param message legacy log message without trailing whitespace
+         * @return true when message matches some pattern, see getPattern() and getValues()
+         */
+        public boolean match(String message) {
+            path.clear();
+            Node node = root;
+            for (int i = 0; node != null; i++) {
+                path.add(node);
+                node = (i < message.length()) ? node.child(normalize(message.charAt(i))) : null;
+            }
+            for (int i = path.size() - 1; i >= 0; i--) {
+                for (GoMatchPattern pattern : path.get(i).patterns) {
+                    if (bounds.length < 2 * pattern.paramTypes.length) {
+                        bounds = new int[2 * pattern.paramTypes.length];
+                    }
+                    if (pattern.match(message, bounds)) {
+                        matched = pattern;
+                        values = new Object[pattern.paramNames.length];
+                        for (int param = 0; param < values.length; param++) {
+                            values[param] = pattern.value(param, message.substring(bounds[2 * param], bounds[2 * param + 1]));
+                        }
+                        return true;
+                    }
+                }
+            }
+            matched = null;
+            values = null;
+            return false;
+        }
+
+        public GoMatchPattern getPattern() {
+            return matched;
+        }
+
+        /**
+         * @return parameter values of the last matched message, in order of getPattern().getParamNames()
+         */
+        public Object[] getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Command line tool converting legacy (Log4j) log files of application into NGMON JSON events of EventJsonEncoder,
+ * messages are matched by GoMatch patterns written by translation (gomatch_generated_files).
+ * This class is not copied into translated application, run it from LogTranslator jar.
+ * <pre>
+ *     java -cp logtranslator.jar org.ngmon.logger.logtranslator.runtime.LegacyLogConverter [-o events.json] \
+ *         [-p threads] [-c chunk MB] [-l layout regex] [-t time format] generated/gomatch-patterns hadoop.log...
+ * </pre>
+ * Lines are parsed by layout regex with named groups time, level, message and optional logger, default is Hadoop
+ * layout "%d{ISO8601} %p %c: %m%n". Lines not matching layout (stack traces) belong to the previous line, they are
+ * added to its event as parameter stackTrace. Messages matched by pattern are events of its namespace and method,
+ * other messages are events "unmatched" of namespace log_events.legacy.LegacyNamespace with logger and message.
+ * <p/>
+ * Input files are memory-mapped and split into chunks of the same size, converted in parallel. Chunk begins with
+ * the first line matching layout after its start and ends with the last event starting in it, so an event is never
+ * split. Events of each chunk are encoded into its own buffer, buffers are written in order of chunks - output is
+ * in order of input. Only a few chunks per thread are converted ahead of output, so memory does not grow with input.
+ */
+public final class LegacyLogConverter {
+
+    public static final String HADOOP_LAYOUT =
+        "(?<time>\\d{4}-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d,\\d{3}) (?<level>[A-Z]+) (?<logger>\\S+): (?<message>.*)";
+    public static final String HADOOP_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss,SSS";
+    public static final String UNMATCHED_NAMESPACE = "log_events.legacy.LegacyNamespace";
+    public static final String UNMATCHED_METHOD = "unmatched";
+    public static final String STACK_TRACE = "stackTrace";
+
+    private static final String[] UNMATCHED_PARAMS = {"logger", "message"};
+    private static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR", "FATAL"};
+    private static final int CHUNKS_AHEAD_PER_THREAD = 2;
+    /** chunk maps file up to this size past its start, event must not span more */
+    private static final int MAX_MAPPING = Integer.MAX_VALUE;
+
+    private final GoMatchEngine engine;
+    private final Pattern layout;
+    private final boolean hasLogger;
+    private final String timeFormat;
+    private final int threads;
+    private final long chunkSize;
+
+    /**
+     * @param engine     compiled GoMatch patterns
+     * @param layout     regex of line with named groups time, level, message and optional logger
+     * @param timeFormat SimpleDateFormat of time group
+     * @param threads    number of threads converting chunks
+     * @param chunkSize  size of chunk in bytes
+     */
+    public LegacyLogConverter(GoMatchEngine engine, String layout, String timeFormat, int threads, long chunkSize) {
+        if (chunkSize <= 0 || chunkSize > MAX_MAPPING / 2) {
+            throw new IllegalArgumentException("Chunk size must be between 1 byte and 1 GB: " + chunkSize);
+        }
+        this.engine = engine;
+        this.layout = Pattern.compile(layout);
+        this.hasLogger = layout.contains("(?<logger>");
+        this.timeFormat = timeFormat;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long chunkSize = 16L << 20;
+        String layout = HADOOP_LAYOUT;
+        String timeFormat = HADOOP_TIME_FORMAT;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-o".equals(args[i]) && i + 1 < args.length) {
+                output = args[++i];
+            } else if ("-p".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("-c".equals(args[i]) && i + 1 < args.length) {
+                chunkSize = Long.parseLong(args[++i]) << 20;
+            } else if ("-l".equals(args[i]) && i + 1 < args.length) {
+                layout = args[++i];
+            } else if ("-t".equals(args[i]) && i + 1 < args.length) {
+                timeFormat = args[++i];
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.size() < 2) {
+            System.err.println("Usage: LegacyLogConverter [-o events file] [-p threads] [-c chunk MB] [-l layout regex] "
+                + "[-t time format] <gomatch patterns file> <log file>...");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        GoMatchEngine engine = GoMatchEngine.load(files.get(0));
+        LegacyLogConverter converter = new LegacyLogConverter(engine, layout, timeFormat, threads, chunkSize);
+        Statistics statistics;
+        if (output == null) {
+            statistics = converter.convert(files.subList(1, files.size()), System.out);
+            System.out.flush();
+        } else {
+            Path path = Paths.get(output);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (OutputStream events = Files.newOutputStream(path)) {
+                statistics = converter.convert(files.subList(1, files.size()), events);
+            }
+        }
+        System.err.println(statistics + " with " + engine.size() + " patterns in "
+            + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Convert log files one after another, each split into chunks converted in parallel.
+     *
+     * @param files  legacy log files
+     * @param output destination of JSON events, in order of files and lines
+     * @return numbers of converted lines and events
+     */
+    public Statistics convert(List<String> files, OutputStream output) throws IOException, InterruptedException {
+        List<Chunk> chunks = new ArrayList<>();
+        for (String file : files) {
+            Path path = Paths.get(file);
+            long size = Files.size(path);
+            for (long start = 0; start < size; start += chunkSize) {
+                chunks.add(new Chunk(path, start, Math.min(size, start + chunkSize), size));
+            }
+        }
+        Statistics total = new Statistics();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Deque<Future<Result>> pending = new ArrayDeque<>();
+            int next = 0;
+            while (next < chunks.size() || !pending.isEmpty()) {
+                while (next < chunks.size() && pending.size() < threads * CHUNKS_AHEAD_PER_THREAD) {
+                    pending.add(executor.submit(chunks.get(next++)));
+                }
+                Result result;
+                try {
+                    result = pending.poll().get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Conversion of chunk failed", e.getCause());
+                }
+                result.events.writeTo(output);
+                total.add(result.statistics);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return total;
+    }
+
+    /**
+     * Convert lines of one chunk of mapped file.
+     *
+     * @param buffer file mapped from start of chunk, or from the byte before it
+     * @param start  start of chunk relative to buffer, 0 at start of file
+     * @param end    end of chunk relative to buffer, the last event may continue after it
+     */
+    Result convert(ByteBuffer buffer, int start, int end) {
+        Result result = new Result();
+        EventJsonEncoder encoder = new EventJsonEncoder(Channels.newChannel(result.events), 65536);
+        ChunkConverter converter = new ChunkConverter(encoder, result.statistics);
+        // line started in previous chunk belongs to it
+        int position = (start == 0) ? 0 : nextLine(buffer, start - 1);
+        byte[] bytes = new byte[256];
+        while (position < buffer.limit()) {
+            int lineEnd = lineEnd(buffer, position);
+            int length = lineEnd - position;
+            if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            buffer.position(position);
+            buffer.get(bytes, 0, length);
+            String line = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            Matcher matcher = layout.matcher(line);
+            if (matcher.matches()) {
+                if (position >= end) {
+                    break;
+                }
+                converter.flush();
+                converter.start(matcher);
+                result.statistics.lines++;
+            } else if (converter.hasEvent()) {
+                converter.append(line);
+                result.statistics.lines++;
+            } else if (position >= end) {
+                break;
+            } else if (start == 0) {
+                // lines at start of file do not belong to any event
+                result.statistics.lines++;
+                result.statistics.orphanLines++;
+            }
+            // else stack trace of event of previous chunk, converted by that chunk
+            position = nextLine(buffer, lineEnd);
+        }
+        converter.flush();
+        encoder.flush();
+        return result;
+    }
+
+    private static int lineEnd(ByteBuffer buffer, int position) {
+        while (position < buffer.limit() && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int nextLine(ByteBuffer buffer, int position) {
+        return Math.min(buffer.limit(), lineEnd(buffer, position) + 1);
+    }
+
+    static int level(String level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level)) {
+                return i;
+            }
+        }
+        return DirectNamespace.LOG;
+    }
+
+    /**
+     * Event being converted - its first line and following stack trace lines.
+     */
+    private final class ChunkConverter {
+
+        private final EventJsonEncoder encoder;
+        private final Statistics statistics;
+        private final GoMatchEngine.MessageMatcher messageMatcher = engine.newMatcher();
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat(timeFormat);
+        private final boolean millisAtEnd = timeFormat.endsWith("SSS");
+        private final StringBuilder stackTrace = new StringBuilder();
+        private String lastTimeText;
+        private long lastTime;
+        private boolean event;
+        private long time;
+        private int level;
+        private String logger;
+        private String message;
+
+        ChunkConverter(EventJsonEncoder encoder, Statistics statistics) {
+            this.encoder = encoder;
+            this.statistics = statistics;
+        }
+
+        boolean hasEvent() {
+            return event;
+        }
+
+        void start(Matcher line) {
+            event = true;
+            time = parseTime(line.group("time"));
+            level = level(line.group("level"));
+            logger = hasLogger ? line.group("logger") : "";
+            message = line.group("message");
+            stackTrace.setLength(0);
+        }
+
+        void append(String line) {
+            if (stackTrace.length() > 0) {
+                stackTrace.append('\n');
+            }
+            stackTrace.append(line);
+        }
+
+        void flush() {
+            if (!event) {
+                return;
+            }
+            event = false;
+            statistics.events++;
+            String fqnNS;
+            String methodName;
+            String[] names;
+            Object[] values;
+            int end = message.length();
+            while (end > 0 && Character.isWhitespace(message.charAt(end - 1))) {
+                end--;
+            }
+            if (messageMatcher.match(message.substring(0, end))) {
+                statistics.matched++;
+                GoMatchEngine.GoMatchPattern pattern = messageMatcher.getPattern();
+                fqnNS = pattern.getFqnNS();
+                methodName = pattern.getMethodName();
+                names = pattern.getParamNames();
+                values = messageMatcher.getValues();
+            } else {
+                fqnNS = UNMATCHED_NAMESPACE;
+                methodName = UNMATCHED_METHOD;
+                names = UNMATCHED_PARAMS;
+                values = new Object[]{logger, message};
+            }
+            if (stackTrace.length() > 0) {
+                names = append(names, STACK_TRACE);
+                values = append(values, stackTrace.toString());
+            }
+            encoder.encode(time, fqnNS, methodName, Collections.<String>emptyList(), names, values, level, false);
+        }
+
+        /**
+         * Lines of the same second differ only in milliseconds, they are not parsed again.
+         */
+        private long parseTime(String text) {
+            if (lastTimeText != null && text.length() == lastTimeText.length()) {
+                if (text.equals(lastTimeText)) {
+                    return lastTime;
+                }
+                int seconds = text.length() - 3;
+                if (millisAtEnd && text.regionMatches(0, lastTimeText, 0, seconds)) {
+                    try {
+                        long time = lastTime - Integer.parseInt(lastTimeText.substring(seconds))
+                            + Integer.parseInt(text.substring(seconds));
+                        lastTimeText = text;
+                        lastTime = time;
+                        return time;
+                    } catch (NumberFormatException e) {
+                        // parsed by date format
+                    }
+                }
+            }
+            try {
+                lastTime = dateFormat.parse(text).getTime();
+                lastTimeText = text;
+                return lastTime;
+            } catch (ParseException e) {
+                statistics.badTimes++;
+                return 0;
+            }
+        }
+
+        private <T> T[] append(T[] array, T item) {
+            T[] result = Arrays.copyOf(array, array.length + 1);
+            result[array.length] = item;
+            return result;
+        }
+    }
+
+    /**
+     * Part of input file converted by one task.
+     */
+    private final class Chunk implements Callable<Result> {
+
+        private final Path file;
+        private final long start;
+        private final long end;
+        private final long size;
+
+        Chunk(Path file, long start, long end, long size) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.size = size;
+        }
+
+        @Override
+        public Result call() throws IOException {
+            // byte before chunk tells, whether chunk starts with new line; mapping stays valid after channel is closed
+            long mapStart = (start == 0) ? 0 : start - 1;
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, Math.min(size - mapStart, MAX_MAPPING));
+            }
+            return convert(buffer, (int) (start - mapStart), (int) (end - mapStart));
+        }
+    }
+
+    static final class Result {
+        private final ByteArrayOutputStream events = new ByteArrayOutputStream();
+        private final Statistics statistics = new Statistics();
+
+        byte[] getEvents() {
+            return events.toByteArray();
+        }
+    }
+
+    /**
+     * Numbers of converted lines and events.
+     */
+    public static final class Statistics {
+        private long lines;
+        private long events;
+        private long matched;
+        private long orphanLines;
+        private long badTimes;
+
+        private void add(Statistics other) {
+            lines += other.lines;
+            events += other.events;
+            matched += other.matched;
+            orphanLines += other.orphanLines;
+            badTimes += other.badTimes;
+        }
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        public long getMatched() {
+            return matched;
+        }
+
+        @Override
+        public String toString() {
+            return "Converted lines: " + lines + ", events: " + events + ", matched by pattern: " + matched
+                + ", unmatched: " + (events - matched) + ", skipped lines: " + orphanLines
+                + ", unparsed times: " + badTimes;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sampling and rate limiting of single NGMON events (methods of generated namespaces), as configured
+ * by log_site_policy_file of LogTranslator. This class is not used by LogTranslator itself, it is copied
+ * into translated application.
+ * <p/>
+ * Generated namespace keeps site of each limited event in static final field and translated log call
+ * is guarded by it, so suppressed call does not evaluate any of its arguments:
+ * <pre>
+ *     public static final LogSite block_received_SITE = LogSite.sample("log_events.x.XNamespace", "block_received", 100);
+ *     if (XNamespace.block_received_SITE.tryLog()) { LOG.block_received(block, size).debug(); }
+ * </pre>
+ * Sampled site logs the first call and then every N-th call. Rate limited site is token bucket holding
+ * one second of calls, kept as one timestamp (theoretical arrival time of next call) updated by CAS.
+ * Counter of site is padded to its own cache line, so threads logging different events do not contend.
+ * <p/>
+ * Numbers of suppressed calls are printed to standard error every ngmon.sites.report.interval milliseconds
+ * (system property, default 60000, 0 disables reports).
+ */
+public final class LogSite {
+
+    public static final String REPORT_INTERVAL_PROPERTY = "ngmon.sites.report.interval";
+
+    /** number of longs in one cache line (64 bytes), state is surrounded by one line on both sides */
+    private static final int PADDING = 8;
+    private static final int STATE = PADDING;
+    private static final int SUPPRESSED = PADDING + 1;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final ConcurrentMap<String, LogSite> sites = new ConcurrentHashMap<>();
+
+    static {
+        long interval = Long.getLong(REPORT_INTERVAL_PROPERTY, 60000L);
+        if (interval > 0) {
+            new Timer("NGMON-log-site-report", true).schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    report();
+                }
+            }, interval, interval);
+        }
+    }
+
+    private final String event;
+    private final String policy;
+    /** sampled site logs every sample-th call, rate limited site has sample 0 */
+    private final long sample;
+    /** rate limited site - nanoseconds per logged call and number of calls logged at once */
+    private final long interval;
+    private final long burst;
+    private final AtomicLongArray cells = new AtomicLongArray(3 * PADDING);
+    /** suppressed calls at last report, used only by report timer */
+    private long reported;
+
+    private LogSite(String event, String policy, long sample, long perSecond) {
+        this.event = event;
+        this.policy = policy;
+        this.sample = sample;
+        this.interval = (perSecond > 0) ? Math.max(1, SECOND / perSecond) : 0;
+        this.burst = SECOND - interval;
+        if (sample == 0) {
+            cells.set(STATE, System.nanoTime());
+        }
+    }
+
+    /**
+     * Create sampled site, called from static initializer of generated namespace.
+     *
+     * @param namespace fully qualified name of namespace class
+     * @param method    name of event method
+     * @param n         every n-th call of event is logged
+     */
+    public static LogSite sample(String namespace, String method, int n) {
+        return register(new LogSite(namespace + "." + method, "1/" + n, Math.max(1, n), 0));
+    }
+
+    /**
+     * Create rate limited site, called from static initializer of generated namespace.
+     *
+     * @param namespace fully qualified name of namespace class
+     * @param method    name of event method
+     * @param perSecond maximum number of logged calls of event per second
+     */
+    public static LogSite rate(String namespace, String method, int perSecond) {
+        return register(new LogSite(namespace + "." + method, perSecond + "/s", 0, Math.max(1, perSecond)));
+    }
+
+    private static LogSite register(LogSite site) {
+        LogSite existing = sites.putIfAbsent(site.event, site);
+        return (existing == null) ? site : existing;
+    }
+
+    /**
+     * @return true if this call of event is logged, false if it is suppressed by sample rate or max rate
+     */
+    public boolean tryLog() {
+        if (sample > 0) {
+            return sample == 1 || (cells.getAndIncrement(STATE) % sample) == 0;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long next = cells.get(STATE);
+            long start = (next - now < 0) ? now : next;
+            if (start - now > burst) {
+                cells.getAndIncrement(SUPPRESSED);
+                return false;
+            }
+            if (cells.compareAndSet(STATE, next, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return number of calls suppressed since start of application
+     */
+    public long getSuppressed() {
+        if (sample > 0) {
+            long calls = cells.get(STATE);
+            return calls - (calls + sample - 1) / sample;
+        }
+        return cells.get(SUPPRESSED);
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Print numbers of calls suppressed since last report, sites without suppressed calls are not printed.
+     */
+    static synchronized void report() {
+        for (Map.Entry<String, LogSite> entry : sites.entrySet()) {
+            LogSite site = entry.getValue();
+            long suppressed = site.getSuppressed();
+            if (suppressed > site.reported) {
+                System.err.println("NGMON " + entry.getKey() + " (" + site.policy + "): "
+                    + (suppressed - site.reported) + " calls suppressed");
+                site.reported = suppressed;
+            }
+        }
+    }
+}
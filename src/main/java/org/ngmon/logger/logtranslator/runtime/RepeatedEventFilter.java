@@ -0,0 +1,227 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Suppression of repeated events in generated SimpleLogger.
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Event is identified by hash of namespace, method name, level and parameter values. The first event
+ * is written and repeats of it during window are only counted. When window ends (timer checks windows
+ * every window ms), or when event comes again after window, one summary event is written - the same
+ * event with tag "repeated" and parameter repeated holding number of suppressed events. With binary
+ * or columnar encoder, summary has other parameter names than schema and is written as unknown event.
+ * <p/>
+ * Table of events is bounded - it is split into lock-striped parts, event is kept in one of PROBES slots
+ * of its part, the oldest event of these slots is replaced (and its summary written) when all are taken.
+ * Values other than String, numbers, Boolean and Character (exceptions, lazy arguments) are compared by
+ * their String, which is also written in summary.
+ */
+public final class RepeatedEventFilter {
+
+    public static final String REPEATED = "repeated";
+
+    /** Writer of summary events, called by logging thread or by timer thread. */
+    public interface Handler {
+        void onRepeated(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,
+                        int level);
+    }
+
+    private static final int STRIPES = 64;
+    private static final int PROBES = 8;
+
+    private static final class Entry {
+        private long hash;
+        private String fqnNS;
+        private String methodName;
+        private List<String> tags;
+        private String[] paramNames;
+        /** copy of values, objects other than basic types are replaced by their String */
+        private Object[] values;
+        private int level;
+        /** time of written event, 0 for free slot */
+        private long windowStart;
+        private long repeats;
+
+        /** @return summary of suppressed events (values end by number of repeats), this entry can be reused then */
+        private Entry summary() {
+            Entry summary = new Entry();
+            summary.fqnNS = fqnNS;
+            summary.methodName = methodName;
+            summary.tags = tags;
+            summary.paramNames = paramNames;
+            summary.values = Arrays.copyOf(values, values.length + 1);
+            summary.values[values.length] = repeats;
+            summary.level = level;
+            return summary;
+        }
+    }
+
+    private final Handler handler;
+    private final long window;
+    private final Entry[][] stripes = new Entry[STRIPES][];
+    private final int slotMask;
+
+    /**
+     * @param handler   writer of summary events
+     * @param window    length of window in milliseconds
+     * @param tableSize maximum number of distinct events tracked at once
+     */
+    public RepeatedEventFilter(Handler handler, long window, int tableSize) {
+        this.handler = handler;
+        this.window = window;
+        int slots = Integer.highestOneBit(Math.max(PROBES, tableSize / STRIPES) * 2 - 1);
+        this.slotMask = slots - 1;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Entry[slots];
+            for (int j = 0; j < slots; j++) {
+                stripes[i][j] = new Entry();
+            }
+        }
+    }
+
+    /**
+     * Create filter and start daemon timer writing summaries of ended windows.
+     * System properties ngmon.repeat.window and ngmon.repeat.table_size override defaults baked into SimpleLogger.
+     */
+    public static RepeatedEventFilter start(Handler handler, long window, int tableSize) {
+        final RepeatedEventFilter filter = new RepeatedEventFilter(handler,
+            Long.getLong("ngmon.repeat.window", window), Integer.getInteger("ngmon.repeat.table_size", tableSize));
+        new Timer("NGMON-repeated-events", true).schedule(new TimerTask() {
+            @Override
+            public void run() {
+                filter.flush(System.currentTimeMillis());
+            }
+        }, Math.max(1, filter.window), Math.max(1, filter.window));
+        return filter;
+    }
+
+    /**
+     * @param paramValues array (and tags) can be reused by caller, filter keeps its copy
+     * @return true if event should be written, false if it repeats event written during window
+     */
+    public boolean isFirst(String fqnNS, String methodName, List<String> tags, String[] paramNames, Object[] paramValues,
+                           int level) {
+        long hash = hash(fqnNS, methodName, paramValues, level);
+        long now = System.currentTimeMillis();
+        Entry[] stripe = stripes[(int) (hash >>> 58)];
+        Entry summary = null;
+        synchronized (stripe) {
+            Entry oldest = null;
+            for (int probe = 0; probe < PROBES; probe++) {
+                Entry entry = stripe[((int) hash + probe) & slotMask];
+                if (entry.windowStart != 0 && entry.hash == hash && entry.level == level
+                    && entry.methodName.equals(methodName) && entry.fqnNS.equals(fqnNS) && isEqual(entry.values, paramValues)) {
+                    if (now - entry.windowStart < window) {
+                        entry.repeats++;
+                        return false;
+                    }
+                    // window has ended, its summary goes before new event
+                    oldest = entry;
+                    break;
+                }
+                if (oldest == null || entry.windowStart < oldest.windowStart) {
+                    oldest = entry;
+                }
+            }
+            if (oldest.windowStart != 0 && oldest.repeats > 0) {
+                summary = oldest.summary();
+            }
+            oldest.hash = hash;
+            oldest.fqnNS = fqnNS;
+            oldest.methodName = methodName;
+            oldest.tags = tags.isEmpty() ? Collections.<String>emptyList() : new ArrayList<>(tags);
+            oldest.paramNames = paramNames;
+            oldest.values = copyValues(paramValues);
+            oldest.level = level;
+            oldest.windowStart = now;
+            oldest.repeats = 0;
+        }
+        if (summary != null) {
+            writeSummary(summary);
+        }
+        return true;
+    }
+
+    /**
+     * Write summaries of windows ended before now, events without repeats are forgotten.
+     */
+    public void flush(long now) {
+        List<Entry> summaries = new ArrayList<>();
+        for (Entry[] stripe : stripes) {
+            synchronized (stripe) {
+                for (Entry entry : stripe) {
+                    if (entry.windowStart == 0 || now - entry.windowStart < window) {
+                        continue;
+                    }
+                    if (entry.repeats > 0) {
+                        summaries.add(entry.summary());
+                    }
+                    entry.windowStart = 0;
+                    entry.values = null;
+                }
+            }
+        }
+        for (Entry summary : summaries) {
+            writeSummary(summary);
+        }
+    }
+
+    private void writeSummary(Entry summary) {
+        List<String> tags = new ArrayList<>(summary.tags);
+        tags.add(REPEATED);
+        String[] names = Arrays.copyOf(summary.paramNames, summary.paramNames.length + 1);
+        names[summary.paramNames.length] = REPEATED;
+        handler.onRepeated(summary.fqnNS, summary.methodName, tags, names, summary.values, summary.level);
+    }
+
+    private static long hash(String fqnNS, String methodName, Object[] values, int level) {
+        long hash = fqnNS.hashCode() * 31L + methodName.hashCode();
+        hash = hash * 31 + level;
+        for (Object value : values) {
+            Object key = toKey(value);
+            hash = hash * 31 + (key == null ? 0 : key.hashCode());
+        }
+        // spread bits, stripe is taken from the highest ones
+        hash *= 0x9e3779b97f4a7c15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static boolean isEqual(Object[] kept, Object[] values) {
+        if (kept.length != values.length) {
+            return false;
+        }
+        for (int i = 0; i < kept.length; i++) {
+            Object value = toKey(values[i]);
+            if (kept[i] == null ? value != null : !kept[i].equals(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object[] copyValues(Object[] values) {
+        Object[] copy = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copy[i] = toKey(values[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * null, String, numbers, Boolean and Character are kept and compared as they are, other values by their String
+     * (null when their toString() returns null)
+     */
+    private static Object toKey(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof Character) {
+            return value;
+        }
+        return value.toString();
+    }
+}
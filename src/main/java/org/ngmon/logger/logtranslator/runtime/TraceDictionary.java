@@ -0,0 +1,143 @@
+package org.ngmon.logger.logtranslator.runtime;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of stack traces of exceptions logged by translated catch blocks (exception_traces=true).
+ * This class is not used by LogTranslator itself, it is copied into translated application.
+ * <p/>
+ * Generated SimpleLogger replaces each Throwable value of event by its String and ID of its stack trace,
+ * before event is written:
+ * <pre>
+ *     java.net.ConnectException: Connection refused #trace 5f3c2a1b9e0d4c77
+ * </pre>
+ * ID is fingerprint of exception classes and stack frames of whole cause chain (not of messages). The first
+ * exception with new fingerprint is printed into dictionary file, following events only refer to it:
+ * <pre>
+ *     #trace 5f3c2a1b9e0d4c77
+ *     java.net.ConnectException: Connection refused
+ *         at ...
+ * </pre>
+ * IDs already in dictionary file are read when application starts. At most MAX_TRACES IDs are remembered,
+ * dictionary forgets all of them when it is full, so new traces are written again.
+ */
+public final class TraceDictionary {
+
+    public static final String TRACE_PREFIX = "#trace ";
+    static final int MAX_TRACES = 65536;
+    /** causes deeper than this are not part of fingerprint */
+    private static final int MAX_CAUSES = 16;
+
+    private final Set<Long> written = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+    private final Writer output;
+
+    /**
+     * @param output destination of new stack traces
+     */
+    public TraceDictionary(Writer output) {
+        this.output = output;
+    }
+
+    /**
+     * Open dictionary appending to file, directories are created and IDs of traces in file are read.
+     */
+    public static TraceDictionary open(String file) {
+        File dictionary = new File(file);
+        if (dictionary.getAbsoluteFile().getParentFile() != null) {
+            dictionary.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        try {
+            TraceDictionary traces = new TraceDictionary(
+                new OutputStreamWriter(new FileOutputStream(dictionary, true), StandardCharsets.UTF_8));
+            if (dictionary.length() > 0) {
+                try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(dictionary), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null && traces.written.size() < MAX_TRACES) {
+                        if (line.startsWith(TRACE_PREFIX)) {
+                            traces.written.add(parseId(line.substring(TRACE_PREFIX.length()).trim()));
+                        }
+                    }
+                }
+            }
+            return traces;
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Cannot open NGMON trace dictionary " + file, e);
+        }
+    }
+
+    /**
+     * Replace Throwable values by their references, array is changed in place.
+     */
+    public void replaceThrowables(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof Throwable) {
+                values[i] = reference((Throwable) values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return String of throwable and ID of its stack trace, trace is written into dictionary if it is new
+     */
+    public String reference(Throwable throwable) {
+        long id = fingerprint(throwable);
+        String hex = Long.toHexString(id);
+        hex = "0000000000000000".substring(hex.length()) + hex;
+        if (!written.contains(id)) {
+            if (written.size() >= MAX_TRACES) {
+                written.clear();
+            }
+            if (written.add(id)) {
+                write(hex, throwable);
+            }
+        }
+        return throwable + " " + TRACE_PREFIX + hex;
+    }
+
+    /**
+     * @return hash of exception classes and stack frames of throwable and its causes
+     */
+    static long fingerprint(Throwable throwable) {
+        long hash = 1125899906842597L;
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+        for (Throwable cause = throwable; cause != null && seen.size() < MAX_CAUSES && seen.add(cause); cause = cause.getCause()) {
+            hash = hash * 31 + cause.getClass().getName().hashCode();
+            for (StackTraceElement frame : cause.getStackTrace()) {
+                hash = hash * 31 + frame.hashCode();
+            }
+        }
+        hash *= 0x9e3779b97f4a7c15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /** ID has 16 hexadecimal digits, it does not fit into signed long */
+    private static long parseId(String hex) {
+        return (Long.parseLong(hex.substring(0, 8), 16) << 32) | Long.parseLong(hex.substring(8), 16);
+    }
+
+    private synchronized void write(String id, Throwable throwable) {
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        try {
+            output.write(TRACE_PREFIX + id + "\n" + trace);
+            output.flush();
+        } catch (IOException e) {
+            // event still refers to trace, it is only missing in dictionary
+        }
+    }
+}
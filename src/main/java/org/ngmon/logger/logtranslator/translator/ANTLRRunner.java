@@ -7,6 +7,8 @@ import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.ngmon.logger.logtranslator.antlr.JavaLexer;
 import org.ngmon.logger.logtranslator.antlr.JavaParser;
 import org.ngmon.logger.logtranslator.common.LogFile;
+import org.ngmon.logger.logtranslator.common.Statistics;
+import org.ngmon.logger.logtranslator.common.TranslationMetrics;
 import org.ngmon.logger.logtranslator.common.Utils;
 import org.ngmon.logger.logtranslator.ngmonLogging.LogTranslatorNamespace;
 
@@ -44,12 +46,15 @@ public class ANTLRRunner {
             logFile.setRewrittenJavaContent(listener.getRewriter().getText());
 
         } catch (IOException e){
+            Statistics.addFailure(TranslationMetrics.FAILURE_PARSE_ERROR);
             LOG.fileError(e.toString()).error();
         } catch (NullPointerException exc) {
+            Statistics.addFailure(TranslationMetrics.FAILURE_PARSE_ERROR);
             LOG.exception("NullPointerException", logFile.getFilepath()).error();
             exc.printStackTrace();
             System.exit(100);
         } catch (Exception e) {
+            Statistics.addFailure(TranslationMetrics.FAILURE_PARSE_ERROR);
             e.printStackTrace();
         }
     }
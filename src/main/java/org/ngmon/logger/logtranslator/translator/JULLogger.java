@@ -1,6 +1,8 @@
 package org.ngmon.logger.logtranslator.translator;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Class represents Java Util logging logger,
@@ -8,15 +10,23 @@ import java.util.Collection;
  */
 public class JULLogger extends LoggerLoader {
     // TODO not implemented! as it has not been used in Apache Hadoop
+    // JUL calls are found, but left untranslated.
+
+    public JULLogger() {
+        super();
+        List<String> imports = LoggerFactory.getActualLoggingImports();
+        setLogger(imports.subList(1, imports.size()));
+        setLogFactory(imports.get(0));  // JULi has no logFactory
+    }
 
     @Override
     public Collection getTranslateLogMethods() {
-        return null;
+        return Collections.emptyList();
     }
 
     @Override
     public Collection<String> getCheckerLogMethods() {
-        return null;
+        return Collections.emptyList();
     }
 
     @Override
@@ -9,11 +9,16 @@ import org.ngmon.logger.logtranslator.antlr.JavaBaseListener;
 import org.ngmon.logger.logtranslator.antlr.JavaParser;
 import org.ngmon.logger.logtranslator.common.*;
 import org.ngmon.logger.logtranslator.generator.HelperGenerator;
+import org.ngmon.logger.logtranslator.generator.NamespaceFileCreator;
+import org.ngmon.logger.logtranslator.generator.RuntimeSupportGenerator;
 import org.ngmon.logger.logtranslator.ngmonLogging.LogTranslatorNamespace;
 
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -38,6 +43,12 @@ public class LogTranslator extends JavaBaseListener {
     private String logType = null; // reference to original LOG variable type
     private boolean ignoreLogs = false;
     private String classname;
+    /** levels of log calls, which can be guarded by LogGlobal.isXEnabled() (level_guards) */
+    private static final List<String> LEVEL_GUARDED = Arrays.asList("trace", "debug", "info", "warn", "error", "fatal");
+    /** loops around current statement in current method, outer methods (of anonymous classes) keep their depth */
+    private int loopDepth = 0;
+    private Deque<Integer> outerLoopDepths = new ArrayDeque<>();
+    private Deque<String> enclosingMethods = new ArrayDeque<>();
 
     public LogTranslator(BufferedTokenStream tokens, LogFile logfile, boolean ignoreLogStatements, boolean isExtending) {
         this.ignoreLogs = ignoreLogStatements;
@@ -102,7 +113,9 @@ public class LogTranslator extends JavaBaseListener {
                     }
             }
 
-            LOG.extending_search_file_isPackage(extendingFileTosearch, isPackage).trace();
+            if (Utils.isTraceEnabled()) {
+                LOG.extending_search_file_isPackage(extendingFileTosearch, isPackage).trace();
+            }
             if (extendingFileTosearch != null) {
                 // set here current logFile
                 LogFile originalLogFile = logFile;
@@ -164,7 +177,9 @@ public class LogTranslator extends JavaBaseListener {
                 if (!logFile.getFilepath().equals(lf.getFilepath())) {
                     if (!lf.isFinishedParsing()) {
                         // parseFile & connect it with this logFile
-                        LOG.starting_antlr_on_file(lf.getFilepath(), logFile.getFilepath()).debug();
+                        if (Utils.isDebugEnabled()) {
+                            LOG.starting_antlr_on_file(lf.getFilepath(), logFile.getFilepath()).debug();
+                        }
                         ANTLRRunner.run(lf, false, true);
                         parsedExtendingClass = true;
 
@@ -180,10 +195,14 @@ public class LogTranslator extends JavaBaseListener {
 
         if (!parsedExtendingClass) {
             /** We haven't found/added variables from extending class - search from all files. Dig deeper. */
-            LOG.not_found_yet_digging_deeper(fileNameFromImport).debug();
+            if (Utils.isDebugEnabled()) {
+                LOG.not_found_yet_digging_deeper(fileNameFromImport).debug();
+            }
             for (String javaFile : LogFilesFinder.getAllJavaFiles()) {
                 if (javaFile.contains(fileNameFromImport)) {
-                    LOG.found(javaFile).debug();
+                    if (Utils.isDebugEnabled()) {
+                        LOG.found(javaFile).debug();
+                    }
                     /** if this file is not the same file, go into it, else exit method */
                     if (!logFile.getFilepath().equals(javaFile)) {
                         LogFile nonLogLogFile = new LogFile(javaFile);
@@ -227,7 +246,9 @@ public class LogTranslator extends JavaBaseListener {
                 int star = ctx.getText().length() - 3;
                 int lastDot = ctx.getText().substring(0, ctx.getText().length() - 4).lastIndexOf(".") + 1;
                 String staticImport = ctx.getText().substring(lastDot, star);
-                LOG.static_import(staticImport).debug();
+                if (Utils.isDebugEnabled()) {
+                    LOG.static_import(staticImport).debug();
+                }
                 logFile.addStaticImports(staticImport);
             }
         }
@@ -258,7 +279,9 @@ public class LogTranslator extends JavaBaseListener {
                 /** Change logger factory import */
                 if (loggerLoader.getLogFactory() != null) {
                     if (ctx.getText().toLowerCase().contains(loggerLoader.getLogFactory().toLowerCase())) {
-                        LOG.loggerloader_logFactory(loggerLoader.getLogFactory(), ctx.getText()).debug();
+                        if (Utils.isDebugEnabled()) {
+                            LOG.loggerloader_logFactory(loggerLoader.getLogFactory(), ctx.getText()).debug();
+                        }
                         rewriter.replace(ctx.getStart(), ctx.getStop(), Utils.getNgmonLogFactoryImport());
                     }
                 }
@@ -267,7 +290,9 @@ public class LogTranslator extends JavaBaseListener {
                     if (ctx.getText().toLowerCase().equals(logImport.toLowerCase())) {
                         if (getLogType() == null) {
                             logType = ctx.getText();
-                            LOG.log_type(logType).debug();
+                            if (Utils.isDebugEnabled()) {
+                                LOG.log_type(logType).debug();
+                            }
                         }
                         replaceLogImports(ctx);
                     }
@@ -404,6 +429,66 @@ public class LogTranslator extends JavaBaseListener {
         LogFile.Variable var = returnLastValue(errorVarName);
     }
 
+    /**
+     * Count loops around log calls, see HotLogSiteReport.
+     *
+     * @param ctx ANTLR's JavaParser.StatementContext context
+     */
+    @Override
+    public void enterStatement(@NotNull JavaParser.StatementContext ctx) {
+        if (isLoop(ctx)) {
+            loopDepth++;
+        }
+    }
+
+    @Override
+    public void exitStatement(@NotNull JavaParser.StatementContext ctx) {
+        if (isLoop(ctx)) {
+            loopDepth--;
+        }
+    }
+
+    private static boolean isLoop(JavaParser.StatementContext ctx) {
+        String keyword = ctx.getStart().getText();
+        return (keyword.equals("for") || keyword.equals("while") || keyword.equals("do")) && ctx.statement().size() > 0;
+    }
+
+    /**
+     * Method body (of anonymous class too) is not repeated by loops around its declaration.
+     *
+     * @param ctx ANTLR's JavaParser.MethodDeclarationContext context
+     */
+    @Override
+    public void enterMethodDeclaration(@NotNull JavaParser.MethodDeclarationContext ctx) {
+        enterMethod(ctx.Identifier().getText());
+    }
+
+    @Override
+    public void exitMethodDeclaration(@NotNull JavaParser.MethodDeclarationContext ctx) {
+        exitMethod();
+    }
+
+    @Override
+    public void enterConstructorDeclaration(@NotNull JavaParser.ConstructorDeclarationContext ctx) {
+        enterMethod(ctx.Identifier().getText());
+    }
+
+    @Override
+    public void exitConstructorDeclaration(@NotNull JavaParser.ConstructorDeclarationContext ctx) {
+        exitMethod();
+    }
+
+    private void enterMethod(String methodName) {
+        outerLoopDepths.push(loopDepth);
+        enclosingMethods.push(methodName);
+        loopDepth = 0;
+    }
+
+    private void exitMethod() {
+        loopDepth = outerLoopDepths.pop();
+        enclosingMethods.pop();
+    }
+
     /**
      * Get type and name of variable from enhanced for-loop and store it.
      *
@@ -459,6 +544,7 @@ public class LogTranslator extends JavaBaseListener {
                         rewriter.replace(log.start, log.stop,
                             Utils.getQualifiedNameEnd(Utils.getNgmonLogGlobal()));
                     } else {
+                        Statistics.addFailure(TranslationMetrics.FAILURE_UNSUPPORTED_CHECKER);
                         LOG.translation_of_log_call_not_implemented(exp.getText()).error();
                         System.err.println("Not implemented translation of log call! " +
                             "Don't know what to do with '" + exp.getText() + "'." + loggerLoader.getCheckerLogMethods());
@@ -485,6 +571,7 @@ public class LogTranslator extends JavaBaseListener {
              * which acts as any logger.
              */
 
+            Statistics.addFailure(TranslationMetrics.FAILURE_MISSING_LOG_FACTORY);
             LOG.unableToChangeLogCallsLogFactoryNotDefined(logFile.getFilepath(), ctx.getText()).error();
             /** starts with log followed by ALPHANUM (dot) */
             String logCall = ctx.getText().toLowerCase();
@@ -511,11 +598,16 @@ public class LogTranslator extends JavaBaseListener {
                     String methodCall = ctx.expression().expression(0).getChild(2).getText();
 
                     /** if Log.operation is in currentLoggerMethodList - transform it, generate new stuff... */
-                    if (loggerLoader.getTranslateLogMethods().contains(methodCall)) {
+                    if (Utils.isStrippedLevel(methodCall)) {
+                        stripLogMethod(ctx, methodCall);
+                    } else if (loggerLoader.getTranslateLogMethods().contains(methodCall)) {
                         Log log = transformMethodStatement(ctx.expression().expressionList());
                         log.setOriginalLog(ctx.getText());
                         HelperGenerator.generateMethodName(log, logFile);
                         log.setLevel(methodCall);
+                        log.setLoopDepth(loopDepth);
+                        log.setEnclosingMethod(enclosingMethods.peek());
+                        log.setLine(ctx.getStart().getLine());
                         logFile.addLog(log);
                         replaceLogMethod(ctx, log);
 
@@ -599,7 +691,9 @@ public class LogTranslator extends JavaBaseListener {
             determineLogTypeAndStore(log, expression, formattedVar);
         } else if (childCount == 2) {
             // 'new Exception()' found only
-            LOG.exception("TranslatorException", expression.getText()).debug();
+            if (Utils.isDebugEnabled()) {
+                LOG.exception("TranslatorException", expression.getText()).debug();
+            }
             // new is followed by 'creator context'
             if (expression.getChild(0).getText().equals("new")) {
                 determineLogTypeAndStore(log, expression, formattedVar);
@@ -705,13 +799,26 @@ public class LogTranslator extends JavaBaseListener {
      *               which holds variable to find
      */
     private LogFile.Variable findVariable(Log log, JavaParser.ExpressionContext findMe, boolean formattedVar) {
-        LOG.lookingForInFile(findMe.getText(), logFile.getFilepath(), findMe.start.getLine()).trace();
+        if (Utils.isTraceEnabled()) {
+            LOG.lookingForInFile(findMe.getText(), logFile.getFilepath(), findMe.start.getLine()).trace();
+        }
         LogFile.Variable foundVar = findVariableInLogFile(logFile, findMe);
         String ngmonNewName = null;
         String findMeText = findMe.getText();
         boolean skipAddingFormattedVar = false;
+        String resolutionPath;
 
-        if (foundVar == null) {
+        if (foundVar != null) {
+            if (!logFile.getVariableList().containsKey(findMeText) && !isArray(findMe)) {
+                resolutionPath = TranslationMetrics.RESOLVED_SUPERCLASS;
+            } else if (foundVar.isField()) {
+                resolutionPath = TranslationMetrics.RESOLVED_FIELD;
+            } else {
+                resolutionPath = TranslationMetrics.RESOLVED_LOCAL;
+            }
+        } else {
+            /** Variable is not declared anywhere, it is resolved by one of special cases below */
+            resolutionPath = TranslationMetrics.RESOLVED_FAILSAFE;
             String varType;
             String varName;
             String tag;
@@ -735,7 +842,9 @@ public class LogTranslator extends JavaBaseListener {
 
                 /** Hadoop's StringUtils internal function */
             } else if (findMeText.startsWith("StringUtils")) {
-                LOG.string_utils(findMeText).debug();
+                if (Utils.isDebugEnabled()) {
+                    LOG.string_utils(findMeText).debug();
+                }
                 String replacementText = null;
                 if (findMeText.contains("newException")) {
                     int newExcPos = findMeText.indexOf("newException");
@@ -752,7 +861,9 @@ public class LogTranslator extends JavaBaseListener {
                 /** Handle new Path creation object */
                 // findMeText.startsWith("new")
             } else if (findMe.creator() != null && findMeText.contains("Path")) {
-                LOG.path(findMeText).debug();
+                if (Utils.isDebugEnabled()) {
+                    LOG.path(findMeText).debug();
+                }
                 logFile.storeVariable(findMe, findMeText, "String", false, "newPath");
                 foundVar = returnLastValue(findMeText);
                 foundVar.setTag("methodCall"); // special
@@ -830,7 +941,9 @@ public class LogTranslator extends JavaBaseListener {
                 }
                 varName = varName.substring(0, varName.indexOf("[")) + varName.substring(varName.indexOf("]") + 1);
                 ngmonNewName = HelperGenerator.removeSpecialCharsFromText(varName);
-                LOG.storing_array(varName, findMe.expression(0).getText()).debug();
+                if (Utils.isDebugEnabled()) {
+                    LOG.storing_array(varName, findMe.expression(0).getText()).debug();
+                }
                 logFile.storeVariable(findMe, findMeText, varType, false, ngmonNewName);
                 foundVar = returnLastValue(findMeText);
                 foundVar.setChangeOriginalName(HelperGenerator.addStringTypeCast(findMeText));
@@ -987,7 +1100,9 @@ public class LogTranslator extends JavaBaseListener {
                 List<String> methodArgumentsTypeList = new ArrayList<>();
                 if (findMe.expressionList() != null) {
                     LogFile.Variable tempList;
-                    LOG.formal_parameters(findMe.expressionList().getText()).debug();
+                    if (Utils.isDebugEnabled()) {
+                        LOG.formal_parameters(findMe.expressionList().getText()).debug();
+                    }
                     /** get types of formal parameters for correct method finding */
                     for (JavaParser.ExpressionContext ec : findMe.expressionList().expression()) {
                         if (ec.getText().startsWith("\"") && ec.getText().endsWith("\"")) {
@@ -1005,7 +1120,10 @@ public class LogTranslator extends JavaBaseListener {
                     methodArgumentsTypeList = null;
                 }
                 /** Look into extending class for this method call */
-                LOG.lookingForInFile(findMeText, logFile.getFilepath(), findMe.start.getLine()).debug();
+                resolutionPath = TranslationMetrics.RESOLVED_METHOD_CALL;
+                if (Utils.isDebugEnabled()) {
+                    LOG.lookingForInFile(findMeText, logFile.getFilepath(), findMe.start.getLine()).debug();
+                }
                 if (!HelperLogTranslator.findMethod(logFile, findMeText, methodArgumentsTypeList)) {
                     /** Method has not been found in class. Store it anyway.
                      * Exactly same situation as variable containing "." */
@@ -1062,7 +1180,9 @@ public class LogTranslator extends JavaBaseListener {
                 /** if whole text is uppercase & we have static imports, assume this is static variable
                  * and store it */
             } else if (logFile.isContainsStaticImport() && findMeText.equals(findMeText.toUpperCase())) {
-                LOG.assuming_external_variable_from_static_import(findMeText).debug();
+                if (Utils.isDebugEnabled()) {
+                    LOG.assuming_external_variable_from_static_import(findMeText).debug();
+                }
                 logFile.storeVariable(findMe, findMeText, "String", false, null);
                 foundVar = returnLastValue(findMeText);
 
@@ -1090,11 +1210,13 @@ public class LogTranslator extends JavaBaseListener {
                     foundVar = findVariableInLogFile(lf, findMe);
                 }
                 if (foundVar != null) {
+                    resolutionPath = TranslationMetrics.RESOLVED_SUPERCLASS;
                     logFile.storeVariable(findMe, foundVar.getName(), foundVar.getType(), foundVar.isField(), foundVar.getNgmonName());
                 }
 
                 /** We have ran out of luck. Have not found given variable in my known parsing list. */
             } else {
+                Statistics.addFailure(TranslationMetrics.FAILURE_UNRESOLVED_VARIABLE);
                 System.err.println("Unable to find variable " + findMeText + " in file " +
                     findMe.start.getLine() + " :" + logFile.getFilepath() + "\n" + logFile.getVariableList().keySet());
                 if (Utils.ignoreParsingErrors) {
@@ -1108,6 +1230,9 @@ public class LogTranslator extends JavaBaseListener {
         if (formattedVar && !skipAddingFormattedVar) {
             log.addFormattedVariables(foundVar);
         }
+        if (foundVar != null) {
+            Statistics.addVariableResolution(resolutionPath);
+        }
         return foundVar;
     }
 
@@ -1178,7 +1303,9 @@ public class LogTranslator extends JavaBaseListener {
 
     private boolean isArray(JavaParser.ExpressionContext context) {
         if (context == null) {
-            System.out.println("NULL CONTEXT=" + logFile.getFilepath());
+            if (Utils.verbose) {
+                System.out.println("NULL CONTEXT=" + logFile.getFilepath());
+            }
             return false;
         } else {
             return (context.getText().contains("[") && context.getText().endsWith("]"));
@@ -1197,7 +1324,9 @@ public class LogTranslator extends JavaBaseListener {
      * @return returns Variable object for given variable input
      */
     private LogFile.Variable returnLastValue(String variable) {
-        LOG.lookingFor(variable).debug();
+        if (Utils.isDebugEnabled()) {
+            LOG.lookingFor(variable).debug();
+        }
         List<LogFile.Variable> list = logFile.getVariableList().get(variable);
         if (list == null) {
             return null;
@@ -1228,10 +1357,18 @@ public class LogTranslator extends JavaBaseListener {
      */
     private void replaceLogImports(JavaParser.QualifiedNameContext context) {
         String namespaceImport = Utils.getNgmongLogEventsImportPrefix() + "." +
-            ANTLRRunner.getCurrentFile().getNamespace() + "." +
-            ANTLRRunner.getCurrentFile().getNamespaceClass() + ";";
+            logFile.getNamespace() + "." +
+            logFile.getNamespaceClass() + ";";
         String logGlobalImport = "import " + Utils.getNgmonLogGlobal();
         String simpleLoggerImport = "import " + Utils.getNgmonSimpleLoggerImport() + ";";
+        if (Utils.sharedLoggers) {
+            // holder creates namespace and its SimpleLogger
+            simpleLoggerImport = "import " + Utils.getNgmongLogEventsImportPrefix() + "." + logFile.getNamespace() + "." +
+                NamespaceFileCreator.getHolderClassName(logFile.getNamespaceClass()) + ";";
+        }
+        if (Utils.eventSwitches) {
+            simpleLoggerImport += "\n" + RuntimeSupportGenerator.getImport("EventSwitch") + ";";
+        }
         // Change Log import with Ngmon Log, currentNameSpace and LogGlobal imports
         rewriter.replace(context.start, context.stop, namespaceImport + "\n" +
             simpleLoggerImport + "\n" + logGlobalImport);
@@ -1246,7 +1383,19 @@ public class LogTranslator extends JavaBaseListener {
         String nsClass = logFile.getNamespaceClass();
         String logFactoryFieldDeclaration = "/* " + ctx.getText() + " */\n\t\t\t" + nsClass +
             " LOG = LoggerFactory.getLogger(" + nsClass + ".class, new SimpleLogger());";
-        LOG.replacing(ctx.getText(), logFactoryFieldDeclaration).trace();
+        if (Utils.directDispatch) {
+            // direct dispatch namespace is not woven, it gets its Logger by constructor
+            logFactoryFieldDeclaration = "/* " + ctx.getText() + " */\n\t\t\t" + nsClass +
+                " LOG = new " + nsClass + "(new SimpleLogger());";
+        }
+        if (Utils.sharedLoggers) {
+            // all classes of namespace share instance of its holder
+            logFactoryFieldDeclaration = "/* " + ctx.getText() + " */\n\t\t\t" + nsClass +
+                " LOG = " + NamespaceFileCreator.getHolderClassName(nsClass) + ".LOG;";
+        }
+        if (Utils.isTraceEnabled()) {
+            LOG.replacing(ctx.getText(), logFactoryFieldDeclaration).trace();
+        }
         if (logFactoryFieldDeclaration.contains("null")) {
             System.err.println("logfactory contains null!" + logFactoryFieldDeclaration);
         }
@@ -1262,10 +1411,80 @@ public class LogTranslator extends JavaBaseListener {
      */
     private void replaceLogMethod(JavaParser.StatementExpressionContext ctx, Log log) {
         String ngmonLogReplacement = HelperGenerator.generateLogMethod(logName, log);
-        LOG.original_replacement_log(log.getOriginalLog(), ngmonLogReplacement).debug();
+        if (Utils.isDebugEnabled()) {
+            LOG.original_replacement_log(log.getOriginalLog(), ngmonLogReplacement).debug();
+        }
         String commentedOriginalLog = "/* " + log.getOriginalLog() + " */";
         String spaces = HelperGenerator.generateEmptySpaces(ctx.start.getCharPositionInLine());
+        String condition = null;
+        if (Utils.levelGuards && LEVEL_GUARDED.contains(log.getLevel()) && HelperGenerator.hasExpensiveArguments(log)
+            && !isGuardedByLevelCheck(ctx)) {
+            // disabled level does not build arguments, level is checked before switch and site
+            String level = log.getLevel();
+            condition = Utils.getQualifiedNameEnd(Utils.getNgmonLogGlobal()) + ".is" +
+                Character.toUpperCase(level.charAt(0)) + level.substring(1) + "Enabled()";
+            Statistics.addLevelGuard(level);
+        }
+        if (Utils.eventSwitches) {
+            String eventSwitch = "EventSwitch.isOn(" + logFile.getNamespaceClass() + "." +
+                NamespaceFileCreator.getEventSwitchName(log.getMethodName()) + ")";
+            condition = (condition == null) ? eventSwitch : condition + " && " + eventSwitch;
+        }
+        if (Utils.getLogSitePolicy(logFile.getNamespace(), logFile.getNamespaceClass(), log.getMethodName()) != null) {
+            // sampled or rate limited event, site is checked after switch
+            String site = logFile.getNamespaceClass() + "." + NamespaceFileCreator.getLogSiteName(log.getMethodName()) + ".tryLog()";
+            condition = (condition == null) ? site : condition + " && " + site;
+        }
+        if (condition != null && (ctx.getParent() instanceof JavaParser.StatementContext)
+            && ((JavaParser.StatementContext) ctx.getParent()).stop.getText().equals(";")) {
+            /** Guard call by switch and site of its event: if (EventSwitch.isOn(XNamespace.method_SWITCH)) { LOG.method().level(); }
+             * Log call, which is not in block (if (x) LOG.debug();), is wrapped into another block for else to stay with its if */
+            JavaParser.StatementContext statement = (JavaParser.StatementContext) ctx.getParent();
+            boolean inBlock = statement.getParent() instanceof JavaParser.BlockStatementContext;
+            String guard = "if (" + condition + ") { ";
+            ngmonLogReplacement = (inBlock ? guard : "{ " + guard) + ngmonLogReplacement;
+            rewriter.insertAfter(statement.stop, inBlock ? " }" : " } }");
+        }
         rewriter.replace(ctx.start, ctx.stop, commentedOriginalLog + "\n" + spaces + ngmonLogReplacement);
-        Statistics.addChangedLogMethodsCount();
+        Statistics.addTranslatedCall(loggerLoader.getLogType(), log.getLevel(), logFile.getWholeNamespace());
+    }
+
+    /**
+     * @param ctx log call statement
+     * @return true if log call is in then-branch of if statement checking isXEnabled() of original logger,
+     * searched up to enclosing method
+     */
+    private boolean isGuardedByLevelCheck(ParserRuleContext ctx) {
+        ParserRuleContext child = ctx;
+        for (ParserRuleContext parent = ctx.getParent(); parent != null; child = parent, parent = parent.getParent()) {
+            if (parent instanceof JavaParser.MethodBodyContext || parent instanceof JavaParser.ConstructorBodyContext) {
+                return false;
+            }
+            if (parent instanceof JavaParser.StatementContext && parent.getStart().getText().equals("if")) {
+                JavaParser.StatementContext statement = (JavaParser.StatementContext) parent;
+                String check = statement.parExpression().getText();
+                if (child == statement.statement(0) && check.contains(logName + ".is") && check.contains("Enabled(")
+                    && !check.startsWith("(" + Utils.NEGATION)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method removes log call below minimum level (min_log_level) from source, only commented
+     * original log call is left. No NGMON method nor GoMatch pattern is generated for it.
+     * Statement's semicolon stays, so log call used as body of if or loop is replaced by empty statement.
+     *
+     * @param ctx   ANTLR's JavaParser.StatementExpressionContext context
+     * @param level level of removed log call
+     */
+    private void stripLogMethod(JavaParser.StatementExpressionContext ctx, String level) {
+        if (Utils.isTraceEnabled()) {
+            LOG.replacing(ctx.getText(), "").trace();
+        }
+        rewriter.replace(ctx.start, ctx.stop, "/* " + ctx.getText() + " */");
+        Statistics.addStrippedCall(level);
     }
 }
@@ -0,0 +1,168 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.runtime.AbstractEventEncoder;
+import org.ngmon.logger.logtranslator.runtime.BinaryEventDecoder;
+import org.ngmon.logger.logtranslator.runtime.BinaryEventEncoder;
+import org.ngmon.logger.logtranslator.runtime.EventJsonEncoder;
+import org.ngmon.logger.logtranslator.runtime.EventSchema;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test round trip of events through BinaryEventEncoder and BinaryEventDecoder.
+ * Decoded JSON lines must be the same as lines written by EventJsonEncoder for the same events.
+ */
+public class BinaryEventCodecTest extends TestBase {
+
+    private static final String NAMESPACE = "log_events.org.apache.hadoop.HadoopNamespace";
+    private static final String SCHEMA = "# id\tnamespace\tmethod\tparameters\n" +
+        "1\t" + NAMESPACE + "\tblock_received\tsize:long,ratio:double,local:boolean,state:char,host:String\n" +
+        "2\t" + NAMESPACE + "\tblock_received\tsize:int\n" +
+        "3\t" + NAMESPACE + "\tstarted\t\n";
+    private static final String[] NAMES = {"size", "ratio", "local", "state", "host"};
+    private static final List<String> TAGS = Arrays.asList("hdfs", "block");
+
+    private EventSchema schema;
+
+    @BeforeClass
+    public void readSchema() throws IOException {
+        schema = EventSchema.read(new ByteArrayInputStream(SCHEMA.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void zigzagLongsTest() {
+        long[] numbers = {0, 1, -1, 63, -64, 64, -65, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        BinaryEventEncoder encoder = new BinaryEventEncoder(Channels.newChannel(binary), 256, schema);
+        EventJsonEncoder expected = new EventJsonEncoder(Channels.newChannel(json), 256);
+        for (long number : numbers) {
+            Object[] values = {number, 0.5, true, 'a', "datanode-1"};
+            encodeBoth(encoder, expected, 1400000000000L + number, NAMES, values);
+        }
+        assertEquals(decode(binary.toByteArray(), numbers.length), toString(json));
+    }
+
+    @Test
+    public void nullStringsTest() {
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        BinaryEventEncoder encoder = new BinaryEventEncoder(Channels.newChannel(binary), 256, schema);
+        EventJsonEncoder expected = new EventJsonEncoder(Channels.newChannel(json), 256);
+        encodeBoth(encoder, expected, 1L, NAMES, new Object[]{1L, 1.5, false, 'b', null});
+        encodeBoth(encoder, expected, 2L, NAMES, new Object[]{2L, 2.5, false, 'c', ""});
+        encodeBoth(encoder, expected, 3L, NAMES, new Object[]{3L, 3.5, false, 'd', "\u017elu\u0165ou\u010dk\u00fd k\u016f\u0148 \ud83d\udc0e"});
+        assertEquals(decode(binary.toByteArray(), 3), toString(json));
+    }
+
+    @Test
+    public void charsTest() {
+        char[] chars = {'x', '"', '\\', '\n', '\u00e9', '\u20ac', '\uffff'};
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        BinaryEventEncoder encoder = new BinaryEventEncoder(Channels.newChannel(binary), 256, schema);
+        EventJsonEncoder expected = new EventJsonEncoder(Channels.newChannel(json), 256);
+        for (char c : chars) {
+            encodeBoth(encoder, expected, c, NAMES, new Object[]{(long) c, -0.25, true, c, "host"});
+        }
+        assertEquals(decode(binary.toByteArray(), chars.length), toString(json));
+    }
+
+    @Test
+    public void overloadsAndEmptyEventTest() {
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        BinaryEventEncoder encoder = new BinaryEventEncoder(Channels.newChannel(binary), 256, schema);
+        EventJsonEncoder expected = new EventJsonEncoder(Channels.newChannel(json), 256);
+        encodeBoth(encoder, expected, 10L, new String[]{"size"}, new Object[]{-7});
+        encodeBoth(encoder, expected, 11L, NAMES, new Object[]{7, 0.0, true, 'z', "host"});
+        encoder.encode(12L, NAMESPACE, "started", Collections.<String>emptyList(), new String[0], new Object[0], 6, true);
+        expected.encode(12L, NAMESPACE, "started", Collections.<String>emptyList(), new String[0], new Object[0], 6, true);
+        assertEquals(decode(binary.toByteArray(), 3), toString(json));
+    }
+
+    /** events missing in schema carry their names and all values are written as String */
+    @Test
+    public void unknownEventTest() {
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        BinaryEventEncoder encoder = new BinaryEventEncoder(Channels.newChannel(binary), 256, schema);
+        EventJsonEncoder expected = new EventJsonEncoder(Channels.newChannel(json), 256);
+        String[] names = {"user", "attempts", "missing"};
+        encoder.encode(20L, "log_events.org.apache.hadoop.SecurityNamespace", "login_failed", TAGS, names,
+            new Object[]{"hdfs", 3}, 4, true);
+        expected.encode(20L, "log_events.org.apache.hadoop.SecurityNamespace", "login_failed", TAGS, names,
+            new Object[]{"hdfs", "3", null}, 4, true);
+        // known method with values of other types than in schema
+        encoder.encode(21L, NAMESPACE, "block_received", TAGS, NAMES, new Object[]{"big", 1.0, true, 'a', "host"}, 2, true);
+        expected.encode(21L, NAMESPACE, "block_received", TAGS, NAMES, new Object[]{"big", "1.0", "true", "a", "host"}, 2, true);
+        assertEquals(decode(binary.toByteArray(), 2), toString(json));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void eventMissingInDecoderSchemaTest() throws IOException {
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        new BinaryEventEncoder(Channels.newChannel(binary), 256, schema)
+            .encode(1L, NAMESPACE, "started", TAGS, new String[0], new Object[0], 2, true);
+        EventSchema older = EventSchema.read(new ByteArrayInputStream(SCHEMA.substring(0, SCHEMA.lastIndexOf("3\t"))
+            .getBytes(StandardCharsets.UTF_8)));
+        new BinaryEventDecoder(older, Channels.newChannel(new ByteArrayOutputStream()))
+            .decode(ByteBuffer.wrap(binary.toByteArray()));
+    }
+
+    /** file written by open() starts by header, which is written only once and skipped by decoder */
+    @Test
+    public void headerTest() throws IOException {
+        Path file = Files.createTempFile("ngmon-events", ".bin");
+        try {
+            Files.delete(file);
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            EventJsonEncoder expected = new EventJsonEncoder(Channels.newChannel(json), 256);
+            // schema is not on test classpath, events are written as unknown
+            Object[] values = {"blk_1", "datanode-1"};
+            String[] names = {"block", "host"};
+            BinaryEventEncoder.open(file.toString(), 256).encode(30L, NAMESPACE, "replicated", TAGS, names, values, 2, true);
+            BinaryEventEncoder.open(file.toString(), 256).encode(31L, NAMESPACE, "replicated", TAGS, names, values, 2, true);
+            expected.encode(30L, NAMESPACE, "replicated", TAGS, names, values, 2, false);
+            expected.encode(31L, NAMESPACE, "replicated", TAGS, names, values, 2, true);
+
+            byte[] bytes = Files.readAllBytes(file);
+            assertEquals(new String(bytes, 0, 4, StandardCharsets.US_ASCII), "NGMB");
+            assertEquals(bytes[4], 1);
+            assertEquals(decode(bytes, 2), toString(json));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void encodeBoth(AbstractEventEncoder encoder, AbstractEventEncoder expected, long time,
+                                   String[] names, Object[] values) {
+        encoder.encode(time, NAMESPACE, "block_received", TAGS, names, values, 2, true);
+        expected.encode(time, NAMESPACE, "block_received", TAGS, names, values, 2, true);
+    }
+
+    private String decode(byte[] events, int expectedCount) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = new BinaryEventDecoder(schema, Channels.newChannel(output)).decode(ByteBuffer.wrap(events));
+        assertEquals(count, expectedCount);
+        return toString(output);
+    }
+
+    private static String toString(ByteArrayOutputStream json) {
+        return new String(json.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,170 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.runtime.ColumnarEventScanner;
+import org.ngmon.logger.logtranslator.runtime.ColumnarEventStore;
+import org.ngmon.logger.logtranslator.runtime.EventJsonEncoder;
+import org.ngmon.logger.logtranslator.runtime.EventSchema;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test that events appended to ColumnarEventStore are scanned back by ColumnarEventScanner
+ * as the same JSON lines EventJsonEncoder writes, with and without filters.
+ */
+public class ColumnarEventStoreTest extends TestBase {
+
+    private static final int BLOCK_ROWS = 10;
+    private static final int ROWS = 35;
+    private static final String NAMESPACE = "log_events.org.apache.hadoop.HadoopNamespace";
+    private static final String SCHEMA =
+        "1\t" + NAMESPACE + "\tblock_received\tsize:long,ratio:double,local:boolean,state:char,host:String\n" +
+        "2\t" + NAMESPACE + "\tstarted\tversion:String\n";
+    private static final String[] NAMES = {"size", "ratio", "local", "state", "host"};
+
+    private EventSchema schema;
+    /** blocks of both event types, block_received events span several blocks */
+    private byte[] blocks;
+    private List<Object[]> received = new ArrayList<>();
+    private List<Object[]> started = new ArrayList<>();
+
+    @BeforeClass
+    public void appendEvents() throws IOException {
+        schema = EventSchema.read(new ByteArrayInputStream(SCHEMA.getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ColumnarEventStore store = new ColumnarEventStore(Channels.newChannel(output), schema, BLOCK_ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            Object[] values = {row * 1000L - 5000, row / 4.0, row % 2 == 0, (char) ('a' + row % 3),
+                (row % 7 == 0) ? null : "datanode-" + row % 5};
+            received.add(values);
+            store.append(1400000000000L + row * 10, NAMESPACE, "block_received", getTags(row), NAMES, values, row % 6);
+            if (row % 10 == 0) {
+                Object[] version = {"2." + row};
+                started.add(version);
+                store.append(1400000000000L + row * 10, NAMESPACE, "started", getTags(row), new String[]{"version"}, version, 2);
+            }
+        }
+        store.flush();
+        blocks = output.toByteArray();
+    }
+
+    @Test
+    public void scanAllTest() {
+        String expected = toJson(0, ROWS, "block_received") + toJson(0, started.size(), "started");
+        assertEquals(sortLines(scan(new ColumnarEventScanner(null, null), ROWS + started.size())), sortLines(expected));
+    }
+
+    @Test
+    public void scanEventTypeTest() {
+        ColumnarEventScanner scanner = new ColumnarEventScanner("block_received", null);
+        assertEquals(scan(scanner, ROWS), toJson(0, ROWS, "block_received"));
+        assertEquals(scanner.getScannedBlocks(), (ROWS + BLOCK_ROWS - 1) / BLOCK_ROWS);
+        assertEquals(scanner.getSkippedBlocks(), 1);
+
+        assertEquals(scan(new ColumnarEventScanner(NAMESPACE + ".started", null), started.size()),
+            toJson(0, started.size(), "started"));
+    }
+
+    /** size of rows from 8 on is over 2500, filter starts in the middle of the first block and spans all of them */
+    @Test
+    public void filterSpanningBlocksTest() {
+        ColumnarEventScanner scanner = new ColumnarEventScanner("block_received", "size>2500");
+        assertEquals(scan(scanner, ROWS - 8), toJson(8, ROWS, "block_received"));
+        assertEquals(scanner.getScannedBlocks(), (ROWS + BLOCK_ROWS - 1) / BLOCK_ROWS);
+
+        StringBuilder expected = new StringBuilder();
+        for (int row = 1; row < ROWS; row += 3) {
+            expected.append(toJson(row, row + 1, "block_received"));
+        }
+        assertEquals(scan(new ColumnarEventScanner("block_received", "state=b"), (ROWS + 1) / 3), expected.toString());
+    }
+
+    /** STRING filter is evaluated on dictionary of each block, null equals only "null" */
+    @Test
+    public void filterStringTest() {
+        StringBuilder expected = new StringBuilder();
+        StringBuilder expectedNull = new StringBuilder();
+        int count = 0;
+        int nullCount = 0;
+        for (int row = 0; row < ROWS; row++) {
+            if ("datanode-3".equals(received.get(row)[4])) {
+                expected.append(toJson(row, row + 1, "block_received"));
+                count++;
+            } else if (received.get(row)[4] == null) {
+                expectedNull.append(toJson(row, row + 1, "block_received"));
+                nullCount++;
+            }
+        }
+        assertEquals(scan(new ColumnarEventScanner("block_received", "host=datanode-3"), count), expected.toString());
+        assertEquals(scan(new ColumnarEventScanner("block_received", "host=null"), nullCount), expectedNull.toString());
+    }
+
+    @Test
+    public void filterMatchingNothingTest() {
+        ColumnarEventScanner scanner = new ColumnarEventScanner(null, "size>1000000");
+        assertEquals(scan(scanner, 0), "");
+        // min and max of blocks exclude filter, blocks without size column do not have it
+        assertEquals(scanner.getScannedBlocks(), 0);
+        assertEquals(scanner.getSkippedBlocks(), (ROWS + BLOCK_ROWS - 1) / BLOCK_ROWS + 1);
+
+        assertEquals(scan(new ColumnarEventScanner("block_received", "host=datanode-9"), 0), "");
+        assertEquals(scan(new ColumnarEventScanner("block_received", "ratio>100"), 0), "");
+        assertEquals(new ColumnarEventScanner("started", "size=0").scan(ByteBuffer.wrap(blocks), null), 0);
+    }
+
+    private static List<String> getTags(int row) {
+        switch (row % 3) {
+            case 0:
+                return Collections.emptyList();
+            case 1:
+                return Collections.singletonList("hdfs");
+            default:
+                return Arrays.asList("hdfs", "block");
+        }
+    }
+
+    /** JSON lines of appended events from row (inclusive) to row (exclusive) */
+    private String toJson(int from, int to, String methodName) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        EventJsonEncoder encoder = new EventJsonEncoder(Channels.newChannel(output), 256);
+        for (int row = from; row < to; row++) {
+            if (methodName.equals("started")) {
+                encoder.encode(1400000000000L + row * 100, NAMESPACE, methodName, getTags(row * 10),
+                    new String[]{"version"}, started.get(row), 2, true);
+            } else {
+                encoder.encode(1400000000000L + row * 10, NAMESPACE, methodName, getTags(row), NAMES, received.get(row),
+                    row % 6, true);
+            }
+        }
+        return toString(output);
+    }
+
+    private String scan(ColumnarEventScanner scanner, long expectedCount) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = scanner.scan(ByteBuffer.wrap(blocks), new EventJsonEncoder(Channels.newChannel(output), 256));
+        assertEquals(count, expectedCount);
+        return toString(output);
+    }
+
+    private static List<String> sortLines(String lines) {
+        List<String> sorted = new ArrayList<>(Arrays.asList(lines.split("\n")));
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static String toString(ByteArrayOutputStream output) {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,124 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.runtime.EventJournal;
+import org.ngmon.logger.logtranslator.runtime.EventJournalReader;
+import org.ngmon.logger.logtranslator.runtime.EventJsonEncoder;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test that events written into EventJournal are printed back by EventJournalReader,
+ * in order of writing and only the last ones, when journal is full.
+ */
+public class EventJournalTest extends TestBase {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final String NAMESPACE = "log_events.org.apache.hadoop.HadoopNamespace";
+    private static final List<String> TAGS = Arrays.asList("hdfs");
+    private static final String[] NAMES = {"block", "size"};
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("ngmon-journal");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        Files.walkFileTree(directory, new DeleteFilesFoldersWalker());
+    }
+
+    @Test
+    public void writeReadTest() throws IOException {
+        EventJournal journal = EventJournal.open(directory.toString(), SEGMENT_SIZE, 4);
+        EventJsonEncoder encoder = new EventJsonEncoder(journal, 256);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        EventJsonEncoder expectedEncoder = new EventJsonEncoder(Channels.newChannel(expected), 256);
+        // more than one segment, less than whole journal
+        int events = 0;
+        while (expected.size() < 2 * SEGMENT_SIZE) {
+            encodeBoth(encoder, expectedEncoder, events++);
+        }
+
+        assertEquals(journal.getRecords(), events);
+        assertEquals(journal.getDropped(), 0);
+        assertEquals(dump(), toString(expected));
+    }
+
+    @Test
+    public void oldestSegmentsReusedTest() throws IOException {
+        EventJournal journal = EventJournal.open(directory.toString(), SEGMENT_SIZE, 2);
+        EventJsonEncoder encoder = new EventJsonEncoder(journal, 256);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        EventJsonEncoder expectedEncoder = new EventJsonEncoder(Channels.newChannel(expected), 256);
+        int events = 0;
+        while (expected.size() < 5 * SEGMENT_SIZE) {
+            encodeBoth(encoder, expectedEncoder, events++);
+        }
+
+        String all = toString(expected);
+        String kept = dump();
+        assertTrue(kept.length() > SEGMENT_SIZE / 2, "journal keeps last segments, got " + kept.length() + " bytes");
+        assertTrue(all.endsWith(kept), "journal keeps only the last events in order of writing");
+        assertTrue(all.charAt(all.length() - kept.length() - 1) == '\n', "journal keeps whole events");
+    }
+
+    /** the next run continues after segments of previous one, both runs are printed */
+    @Test
+    public void reopenTest() throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        EventJsonEncoder expectedEncoder = new EventJsonEncoder(Channels.newChannel(expected), 256);
+        encodeBoth(new EventJsonEncoder(EventJournal.open(directory.toString(), SEGMENT_SIZE, 4), 256), expectedEncoder, 1);
+        encodeBoth(new EventJsonEncoder(EventJournal.open(directory.toString(), SEGMENT_SIZE, 4), 256), expectedEncoder, 2);
+
+        assertEquals(dump(), toString(expected));
+    }
+
+    @Test
+    public void recordLargerThanSegmentDroppedTest() throws IOException {
+        EventJournal journal = EventJournal.open(directory.toString(), SEGMENT_SIZE, 2);
+        EventJsonEncoder encoder = new EventJsonEncoder(journal, 256);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        EventJsonEncoder expectedEncoder = new EventJsonEncoder(Channels.newChannel(expected), 256);
+        StringBuilder large = new StringBuilder();
+        while (large.length() < SEGMENT_SIZE) {
+            large.append("blk_0123456789");
+        }
+        encoder.encode(1L, NAMESPACE, "block_received", TAGS, NAMES, new Object[]{large.toString(), 1}, 2, true);
+        encodeBoth(encoder, expectedEncoder, 2);
+
+        assertEquals(journal.getRecords(), 1);
+        assertEquals(journal.getDropped(), 1);
+        assertEquals(dump(), toString(expected));
+    }
+
+    private static void encodeBoth(EventJsonEncoder encoder, EventJsonEncoder expectedEncoder, int event) {
+        Object[] values = {"blk_" + event, event * 1024L};
+        encoder.encode(event, NAMESPACE, "block_received", TAGS, NAMES, values, 2, true);
+        expectedEncoder.encode(event, NAMESPACE, "block_received", TAGS, NAMES, values, 2, true);
+    }
+
+    private String dump() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new EventJournalReader(directory.toFile(), output).dump();
+        return toString(output);
+    }
+
+    private static String toString(ByteArrayOutputStream output) {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
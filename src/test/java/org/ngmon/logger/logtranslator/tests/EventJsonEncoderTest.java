@@ -0,0 +1,61 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.runtime.EventJsonEncoder;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test that EventJsonEncoder writes doubles with the fewest decimal places, which parse back to the same double.
+ */
+public class EventJsonEncoderTest extends TestBase {
+
+    private static final String NAMESPACE = "log_events.org.apache.hadoop.HadoopNamespace";
+
+    @Test
+    public void decimalDoublesTest() {
+        assertEquals(encodeDouble(0.5), "0.5");
+        assertEquals(encodeDouble(-0.25), "-0.25");
+        assertEquals(encodeDouble(0.1), "0.1");
+        assertEquals(encodeDouble(3.14159), "3.14159");
+        assertEquals(encodeDouble(0.005), "0.005");
+        assertEquals(encodeDouble(100.015), "100.015");
+        assertEquals(encodeDouble(1.0 / 3), "0.3333333333333333");
+        assertEquals(encodeDouble(1.5e-5), "0.000015");
+        assertEquals(encodeDouble(-1500.0), "-1500.0");
+        assertEquals(encodeDouble(Double.NaN), "null");
+    }
+
+    /** numbers, which need 17 significant digits, are written as by Double.toString() */
+    @Test
+    public void notDecimalDoublesTest() {
+        for (double value : new double[]{0.1 + 0.2, 1e-20, 1.5e15, 123456789.12345678, Double.MIN_VALUE, Double.MAX_VALUE}) {
+            assertEquals(encodeDouble(value), Double.toString(value));
+        }
+    }
+
+    @Test
+    public void randomDoublesTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+            double rounded = Math.round(value * 1000) / 1000.0;
+            assertEquals(Double.parseDouble(encodeDouble(value)), value);
+            assertEquals(Double.parseDouble(encodeDouble(rounded)), rounded);
+        }
+    }
+
+    private static String encodeDouble(double value) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new EventJsonEncoder(Channels.newChannel(output), 256).encode(1L, NAMESPACE, "ratio",
+            Collections.<String>emptyList(), new String[]{"ratio"}, new Object[]{value}, 2, true);
+        String json = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        return json.substring(json.indexOf("\"ratio\":") + "\"ratio\":".length(), json.lastIndexOf("}}"));
+    }
+}
@@ -0,0 +1,113 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.runtime.GoMatchEngine;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test matching of legacy log messages by GoMatchEngine. Values must be the same as groups of regular expression
+ * with quoted literals, reluctant .*? for STRING and greedy groups for typed variables.
+ */
+public class GoMatchEngineTest extends TestBase {
+
+    private static final String NAMESPACE = "org.apache.hadoop.hdfsnamespace";
+
+    @Test
+    public void noVariablesTest() {
+        GoMatchEngine.MessageMatcher matcher = newMatcher(NAMESPACE + ".service_started##Service started");
+        assertTrue(matcher.match("Service started"));
+        assertEquals(matcher.getPattern().getFqnNS(), NAMESPACE);
+        assertEquals(matcher.getPattern().getMethodName(), "service_started");
+        assertEquals(matcher.getValues(), new Object[0]);
+        assertFalse(matcher.match("Service started now"));
+        assertFalse(matcher.match("Service start"));
+        assertFalse(matcher.match(""));
+    }
+
+    /** the first STRING variable is the shortest possible, as (.*?)(.*?) of regex */
+    @Test
+    public void adjacentStringVariablesTest() {
+        GoMatchEngine.MessageMatcher matcher = newMatcher(
+            NAMESPACE + ".copied##Copied %{STRING:source}%{STRING:target} done",
+            NAMESPACE + ".moved##Moved %{STRING:source}%{STRING:target}");
+        assertMatch(matcher, "Copied ab done", "copied", "", "ab");
+        assertMatch(matcher, "Copied  done", "copied", "", "");
+        assertMatch(matcher, "Copied a done done", "copied", "", "a done");
+        assertMatch(matcher, "Moved a to b", "moved", "", "a to b");
+    }
+
+    /** typed variable gives back its last digits, when literal after it starts by them */
+    @Test
+    public void typedValueFollowedByDigitsTest() {
+        GoMatchEngine.MessageMatcher matcher = newMatcher(
+            NAMESPACE + ".blocks_copied##Copied %{INT:count}00 blocks",
+            NAMESPACE + ".ratio##Ratio %{DOUBLE:ratio}5 of %{LONG:total}",
+            NAMESPACE + ".flag##Flag %{BOOLEAN:flag}1");
+        assertMatch(matcher, "Copied 1200 blocks", "blocks_copied", 12L);
+        assertMatch(matcher, "Copied -100 blocks", "blocks_copied", -1L);
+        assertFalse(matcher.match("Copied 00 blocks"));
+        assertMatch(matcher, "Ratio 0.255 of 7", "ratio", 0.25, 7L);
+        assertMatch(matcher, "Flag true1", "flag", true);
+        // number too large for long stays String
+        assertMatch(matcher, "Copied 9999999999999999999900 blocks", "blocks_copied", "99999999999999999999");
+    }
+
+    /** null of typed variable is null value, STRING keeps text "null" */
+    @Test
+    public void nullValuesTest() {
+        GoMatchEngine.MessageMatcher matcher = newMatcher(
+            NAMESPACE + ".checked##Checked %{INT:count} of %{STRING:name}, ok %{BOOLEAN:ok}, ratio %{DOUBLE:ratio}");
+        assertMatch(matcher, "Checked null of null, ok null, ratio null", "checked", null, "null", null, null);
+        assertMatch(matcher, "Checked 3 of dn, ok false, ratio -1.5E3", "checked", 3L, "dn", false, -1500.0);
+    }
+
+    /** any whitespace char of message matches space of pattern, one to one, no-break space is not whitespace */
+    @Test
+    public void whitespaceNormalizationTest() {
+        GoMatchEngine.MessageMatcher matcher = newMatcher(
+            NAMESPACE + ".block_received##Block %{STRING:block} received from %{STRING:host}");
+        assertMatch(matcher, "Block blk_1 received from dn1", "block_received", "blk_1", "dn1");
+        assertMatch(matcher, "Block\tblk_1\treceived from dn1", "block_received", "blk_1", "dn1");
+        assertMatch(matcher, "Block\u2003blk_1 received\u2003from dn1", "block_received", "blk_1", "dn1");
+        assertMatch(matcher, "Block blk_1 received\u00a0from dn1 received from dn2", "block_received",
+            "blk_1 received\u00a0from dn1", "dn2");
+        assertFalse(matcher.match("Block blk_1 received  from dn1"));
+        assertFalse(matcher.match("Block_blk_1 received from dn1"));
+    }
+
+    /** patterns with more literal text are tried first, patterns with the same length in order of file */
+    @Test
+    public void longestLiteralFirstTest() {
+        String anything = NAMESPACE + ".got##Got %{STRING:what}";
+        String to = NAMESPACE + ".got_to##Got %{STRING:what} to %{STRING:where}";
+        String in = NAMESPACE + ".got_in##Got %{STRING:what} in %{STRING:where}";
+        String number = NAMESPACE + ".got_number##%{INT:count} got";
+
+        GoMatchEngine.MessageMatcher matcher = newMatcher(anything, to, in, number);
+        assertMatch(matcher, "Got x", "got", "x");
+        assertMatch(matcher, "Got x to y", "got_to", "x", "y");
+        assertMatch(matcher, "Got x in y", "got_in", "x", "y");
+        assertMatch(matcher, "Got x to y in z", "got_to", "x", "y in z");
+        assertMatch(matcher, "12 got", "got_number", 12L);
+
+        matcher = newMatcher(in, anything, number, to);
+        assertMatch(matcher, "Got x to y in z", "got_in", "x to y", "z");
+        assertMatch(matcher, "Got x to y", "got_to", "x", "y");
+    }
+
+    private static GoMatchEngine.MessageMatcher newMatcher(String... patterns) {
+        return new GoMatchEngine(Arrays.asList(patterns)).newMatcher();
+    }
+
+    private static void assertMatch(GoMatchEngine.MessageMatcher matcher, String message, String methodName,
+                                    Object... values) {
+        assertTrue(matcher.match(message), message);
+        assertEquals(matcher.getPattern().getMethodName(), methodName, message);
+        assertEquals(matcher.getValues(), values, message);
+    }
+}
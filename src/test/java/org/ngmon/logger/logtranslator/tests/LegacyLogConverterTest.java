@@ -0,0 +1,101 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.runtime.EventJsonEncoder;
+import org.ngmon.logger.logtranslator.runtime.GoMatchEngine;
+import org.ngmon.logger.logtranslator.runtime.LegacyLogConverter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test conversion of legacy Hadoop log file into NGMON JSON events - matched and unmatched messages,
+ * stack traces and lines before the first event - and that output does not depend on chunks and threads.
+ */
+public class LegacyLogConverterTest extends TestBase {
+
+    private static final String NAMESPACE = "org.apache.hadoop.hdfsnamespace";
+    private static final String LOGGER = "org.apache.hadoop.hdfs.server.datanode.DataNode";
+    private static final int REPEATS = 20;
+
+    private GoMatchEngine engine;
+    private Path logFile;
+    private String expected;
+
+    @BeforeClass
+    public void writeLog() throws IOException, ParseException {
+        engine = new GoMatchEngine(Arrays.asList(
+            "# gomatch_debug comment",
+            NAMESPACE + ".block_received##Block %{STRING:block} received from %{STRING:host}",
+            NAMESPACE + ".blocks_copied##Copied %{INT:count}00 blocks"));
+        StringBuilder log = new StringBuilder("Starting DataNode\n");
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        EventJsonEncoder encoder = new EventJsonEncoder(Channels.newChannel(json), 256);
+        SimpleDateFormat dateFormat = new SimpleDateFormat(LegacyLogConverter.HADOOP_TIME_FORMAT);
+        for (int i = 10; i < 10 + REPEATS; i++) {
+            String second = "2014-03-01 12:10:" + i;
+            log.append(second).append(",100 INFO ").append(LOGGER).append(": Block blk_").append(i)
+                .append(" received from dn1\n");
+            encoder.encode(dateFormat.parse(second + ",100").getTime(), NAMESPACE, "block_received",
+                Collections.<String>emptyList(), new String[]{"block", "host"}, new Object[]{"blk_" + i, "dn1"}, 2, true);
+
+            log.append(second).append(",250 WARN ").append(LOGGER).append(": Disk failed \n")
+                .append("java.io.IOException: disk full\n")
+                .append("\tat org.apache.hadoop.hdfs.server.datanode.DataNode.write(DataNode.java:10)\n");
+            encoder.encode(dateFormat.parse(second + ",250").getTime(), LegacyLogConverter.UNMATCHED_NAMESPACE,
+                LegacyLogConverter.UNMATCHED_METHOD, Collections.<String>emptyList(),
+                new String[]{"logger", "message", LegacyLogConverter.STACK_TRACE},
+                new Object[]{LOGGER, "Disk failed ", "java.io.IOException: disk full\n" +
+                    "\tat org.apache.hadoop.hdfs.server.datanode.DataNode.write(DataNode.java:10)"}, 3, true);
+
+            // trailing whitespace and \r are not part of matched message
+            log.append(second).append(",999 ERROR ").append(LOGGER).append(": Copied ").append(i).append("00 blocks \r\n");
+            encoder.encode(dateFormat.parse(second + ",999").getTime(), NAMESPACE, "blocks_copied",
+                Collections.<String>emptyList(), new String[]{"count"}, new Object[]{(long) i}, 4, true);
+        }
+        logFile = Files.createTempFile("hadoop", ".log");
+        Files.write(logFile, log.toString().getBytes(StandardCharsets.UTF_8));
+        expected = new String(json.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteLog() throws IOException {
+        Files.deleteIfExists(logFile);
+    }
+
+    @Test
+    public void convertTest() throws IOException, InterruptedException {
+        assertEquals(convert(1, 1 << 20), expected);
+    }
+
+    /** chunks smaller than events split them and their stack traces, output keeps order of lines */
+    @Test
+    public void convertByChunksTest() throws IOException, InterruptedException {
+        for (int chunkSize : new int[]{1, 37, 100, 1000}) {
+            assertEquals(convert(3, chunkSize), expected, "chunk size " + chunkSize);
+        }
+    }
+
+    private String convert(int threads, int chunkSize) throws IOException, InterruptedException {
+        LegacyLogConverter converter = new LegacyLogConverter(engine, LegacyLogConverter.HADOOP_LAYOUT,
+            LegacyLogConverter.HADOOP_TIME_FORMAT, threads, chunkSize);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        LegacyLogConverter.Statistics statistics = converter.convert(Collections.singletonList(logFile.toString()), output);
+        assertEquals(statistics.getLines(), 1 + 5 * REPEATS);
+        assertEquals(statistics.getEvents(), 3 * REPEATS);
+        assertEquals(statistics.getMatched(), 2 * REPEATS);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,233 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.common.TranslatorStarter;
+import org.ngmon.logger.logtranslator.common.Utils;
+import org.ngmon.logger.logtranslator.generator.FileCreator;
+import org.ngmon.logger.logtranslator.generator.SyntheticProjectGenerator;
+import org.ngmon.logger.logtranslator.ngmonLogging.LogTranslatorNamespace;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Performance regression gate. Whole LogTranslator run is measured on fixed corpus -
+ * ProjectTesting and project written by SyntheticProjectGenerator. Wall time, CPU time,
+ * peak heap and allocated bytes are compared with baseline file and test fails, when
+ * any metric grows over its tolerance. Settings are in logtranslator-test.properties.
+ * <p/>
+ * Each corpus is translated several times from fresh copy, the best (lowest) value of
+ * each metric is taken. CPU time and allocated bytes are counted for translating thread only.
+ * Baseline is valid only for machine, where it was recorded, so it is not part of sources -
+ * missing baseline values are recorded (by default into target/), -Dperformance.update_baseline=true
+ * records all of them.
+ */
+public class PerformanceRegressionTest extends TestBase {
+
+    private static final String PROPERTY_FILE = "src/test/resources/logtranslator-test.properties";
+    private static final String PROJECT_TESTING = "ProjectTesting";
+    private static final String SYNTHETIC = "Synthetic";
+    private static LogTranslatorNamespace LOG = Utils.getLogger();
+
+    private Properties testProperties = new Properties();
+    private Properties baseline = new Properties();
+    private Path baselineFile;
+    private boolean updateBaseline;
+    private boolean baselineChanged;
+
+    @BeforeClass
+    public void loadBaseline() throws IOException {
+        try (InputStream is = new FileInputStream(PROPERTY_FILE)) {
+            testProperties.load(is);
+        }
+        baselineFile = FileCreator.createPathFromString(getSetting("performance.baseline"));
+        updateBaseline = Boolean.parseBoolean(getSetting("performance.update_baseline"));
+        if (Files.exists(baselineFile)) {
+            try (InputStream is = Files.newInputStream(baselineFile)) {
+                baseline.load(is);
+            }
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void storeBaseline() throws IOException {
+        if (baselineChanged) {
+            if (baselineFile.getParent() != null) {
+                Files.createDirectories(baselineFile.getParent());
+            }
+            try (OutputStream os = new FileOutputStream(baselineFile.toFile())) {
+                baseline.store(os, "LogTranslator performance baseline, see PerformanceRegressionTest");
+            }
+        }
+    }
+
+    /** Measurements would influence each other, corpora are translated one after another */
+    @DataProvider
+    private Object[][] corpora() {
+        return new Object[][]{{PROJECT_TESTING}, {SYNTHETIC}};
+    }
+
+    @Test(dataProvider = "corpora")
+    public void performanceTest(String corpus) throws IOException {
+        int runs = Integer.parseInt(getSetting("performance.runs"));
+        Map<String, Long> best = null;
+        for (int i = 0; i < runs; i++) {
+            Map<String, Long> measured = measureRun(corpus);
+            if (best == null) {
+                best = measured;
+            } else {
+                for (Map.Entry<String, Long> metric : measured.entrySet()) {
+                    best.put(metric.getKey(), Math.min(best.get(metric.getKey()), metric.getValue()));
+                }
+            }
+        }
+        LOG.translationPerformance(corpus, best.toString()).info();
+
+        StringBuilder regressions = new StringBuilder();
+        for (Map.Entry<String, Long> metric : best.entrySet()) {
+            String key = corpus + "." + metric.getKey();
+            String expected = baseline.getProperty(key);
+            if (expected == null || updateBaseline) {
+                baseline.setProperty(key, String.valueOf(metric.getValue()));
+                baselineChanged = true;
+                continue;
+            }
+            double tolerance = Double.parseDouble(getSetting("performance.tolerance." + metric.getKey(), getSetting("performance.tolerance")));
+            long limit = (long) (Long.parseLong(expected) * (1 + tolerance));
+            if (metric.getValue() > limit) {
+                regressions.append(String.format("%s=%d exceeds baseline %s by more than %.0f%%; ",
+                    key, metric.getValue(), expected, tolerance * 100));
+            }
+        }
+        assertTrue(regressions.length() == 0, regressions.toString());
+    }
+
+    /**
+     * Prepare fresh corpus in temporary directory and run whole translation on it.
+     *
+     * @param corpus name of corpus to translate
+     * @return measured metrics
+     */
+    private Map<String, Long> measureRun(String corpus) throws IOException {
+        Path workDirectory = Files.createTempDirectory("logtranslator-perf");
+        Path applicationHome = workDirectory.resolve("project");
+        Properties properties = new Properties();
+        properties.putAll(testProperties);
+        properties.setProperty("application_home", applicationHome.toString());
+        properties.setProperty("debug_output_location", workDirectory.resolve("generated-output-logs").toString());
+        properties.setProperty("gomatch_generated_files", workDirectory.resolve("gomatch-patterns").toString());
+        properties.setProperty("hot_log_sites_location", workDirectory.resolve("hot-log-sites").toString());
+        properties.setProperty("metrics_json_location", workDirectory.resolve("translation-metrics.json").toString());
+        properties.setProperty("metrics_prometheus_location", workDirectory.resolve("translation-metrics.prom").toString());
+
+        if (corpus.equals(SYNTHETIC)) {
+            SyntheticProjectGenerator generator = new SyntheticProjectGenerator();
+            generator.setFiles(Integer.parseInt(getSetting("performance.synthetic_files")));
+            generator.generate(applicationHome);
+            properties.setProperty("application_namespace", "org.synthetic");
+        } else {
+            copyDirectory(FileCreator.createPathFromString(TESTS_ORIG_LOCATION), applicationHome);
+        }
+        Path propertyFile = workDirectory.resolve("logtranslator-perf.properties");
+        try (OutputStream os = Files.newOutputStream(propertyFile)) {
+            properties.store(os, "generated by PerformanceRegressionTest");
+        }
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        long allocatedStart = getAllocatedBytes(threadBean, threadId);
+        long cpuStart = threadBean.getCurrentThreadCpuTime();
+        long wallStart = System.nanoTime();
+
+        TranslatorStarter.main(new String[]{propertyFile.toString()});
+
+        long wall = System.nanoTime() - wallStart;
+        long cpu = threadBean.getCurrentThreadCpuTime() - cpuStart;
+        long allocated = getAllocatedBytes(threadBean, threadId) - allocatedStart;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        Files.walkFileTree(workDirectory, new DeleteFilesFoldersWalker());
+
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("wall_ms", wall / 1000000);
+        metrics.put("cpu_ms", cpu / 1000000);
+        metrics.put("peak_heap_kb", peakHeap / 1024);
+        if (allocatedStart >= 0) {
+            metrics.put("allocated_kb", allocated / 1024);
+        }
+        return metrics;
+    }
+
+    /**
+     * Copy files and subdirectories of one directory into another.
+     */
+    private void copyDirectory(final Path fromPath, final Path toPath) throws IOException {
+        Files.walkFileTree(fromPath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(toPath.resolve(fromPath.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, toPath.resolve(fromPath.relativize(file)));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @return bytes allocated by given thread so far, -1 when JVM does not count them
+     */
+    private long getAllocatedBytes(ThreadMXBean threadBean, long threadId) {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) threadBean;
+            if (hotspotBean.isThreadAllocatedMemorySupported() && hotspotBean.isThreadAllocatedMemoryEnabled()) {
+                return hotspotBean.getThreadAllocatedBytes(threadId);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * System property (e.g. -Dperformance.tolerance=0.5) overrides value from test property file.
+     */
+    private String getSetting(String key) {
+        return getSetting(key, null);
+    }
+
+    private String getSetting(String key, String defaultValue) {
+        return System.getProperty(key, testProperties.getProperty(key, defaultValue));
+    }
+}
@@ -0,0 +1,120 @@
+package org.ngmon.logger.logtranslator.tests;
+
+import org.ngmon.logger.logtranslator.runtime.RepeatedEventFilter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test that RepeatedEventFilter lets through the first of repeated events, counts the others
+ * and writes their summary when window ends, and that distinct events are all written.
+ */
+public class RepeatedEventFilterTest extends TestBase {
+
+    private static final long WINDOW = 60000;
+    private static final String NAMESPACE = "log_events.org.apache.hadoop.HadoopNamespace";
+    private static final List<String> TAGS = Collections.singletonList("hdfs");
+    private static final String[] NAMES = {"block", "host"};
+
+    private List<Object[]> summaries;
+    private List<List<String>> summaryTags;
+    private RepeatedEventFilter filter;
+
+    @BeforeMethod
+    public void createFilter() {
+        summaries = new ArrayList<>();
+        summaryTags = new ArrayList<>();
+        filter = new RepeatedEventFilter(new RepeatedEventFilter.Handler() {
+            @Override
+            public void onRepeated(String fqnNS, String methodName, List<String> tags, String[] paramNames,
+                                   Object[] paramValues, int level) {
+                assertEquals(paramNames, new String[]{"block", "host", RepeatedEventFilter.REPEATED});
+                summaries.add(paramValues);
+                summaryTags.add(tags);
+            }
+        }, WINDOW, 1024);
+    }
+
+    @Test
+    public void nullValuesTest() {
+        assertTrue(isFirst("retry", null, null, 2));
+        assertFalse(isFirst("retry", null, null, 2));
+        assertTrue(isFirst("retry", "blk_1", null, 2));
+        assertFalse(isFirst("retry", "blk_1", null, 2));
+        // null is not its String, value whose toString() is null equals null
+        assertTrue(isFirst("retry", "null", null, 2));
+        assertFalse(isFirst("retry", "blk_1", new Host(null), 2));
+
+        filter.flush(System.currentTimeMillis() + WINDOW);
+        assertEquals(summaries.size(), 2);
+    }
+
+    @Test
+    public void repeatedEventsTest() {
+        assertTrue(isFirst("retry", "blk_1", "datanode-1", 3));
+        for (int i = 0; i < 5; i++) {
+            assertFalse(isFirst("retry", "blk_1", "datanode-1", 3));
+        }
+        // values other than basic types are compared by their String
+        assertTrue(isFirst("retry", "blk_2", new Host("datanode-2"), 3));
+        assertFalse(isFirst("retry", "blk_2", new Host("datanode-2"), 3));
+        assertTrue(isFirst("once", "blk_3", "datanode-3", 3));
+        assertTrue(summaries.isEmpty());
+
+        filter.flush(System.currentTimeMillis() + WINDOW);
+        assertEquals(summaries.size(), 2);
+        List<String> summaryList = new ArrayList<>();
+        for (Object[] summary : summaries) {
+            summaryList.add(Arrays.toString(summary));
+        }
+        Collections.sort(summaryList);
+        assertEquals(summaryList, Arrays.asList("[blk_1, datanode-1, 5]", "[blk_2, datanode-2, 1]"));
+        assertEquals(summaryTags.get(0), Arrays.asList("hdfs", RepeatedEventFilter.REPEATED));
+
+        // window has ended, the same event is written again
+        summaries.clear();
+        assertTrue(isFirst("retry", "blk_1", "datanode-1", 3));
+        filter.flush(System.currentTimeMillis() + WINDOW);
+        assertTrue(summaries.isEmpty());
+    }
+
+    @Test
+    public void distinctEventsTest() {
+        assertTrue(isFirst("retry", "blk_1", "datanode-1", 3));
+        assertTrue(isFirst("retry", "blk_1", "datanode-2", 3));
+        assertTrue(isFirst("retry", "blk_1", "datanode-1", 4));
+        assertTrue(isFirst("failed", "blk_1", "datanode-1", 3));
+        assertTrue(filter.isFirst(NAMESPACE + "2", "retry", TAGS, NAMES, new Object[]{"blk_1", "datanode-1"}, 3));
+        assertTrue(isFirst("retry", 1L, "datanode-1", 3));
+        assertTrue(isFirst("retry", 1, "datanode-1", 3));
+
+        filter.flush(System.currentTimeMillis() + WINDOW);
+        assertTrue(summaries.isEmpty());
+    }
+
+    private boolean isFirst(String methodName, Object block, Object host, int level) {
+        return filter.isFirst(NAMESPACE, methodName, TAGS, NAMES, new Object[]{block, host}, level);
+    }
+
+    /** value passed to namespace method as Object */
+    private static final class Host {
+        private final String name;
+
+        private Host(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -24,7 +24,11 @@ import static org.testng.Assert.assertEquals;
  */
 public class TranslatorTest extends TestBase {
 
-    @DataProvider()
+    /**
+     * Translation with its static state runs once in translateTestProject() before any comparison,
+     * comparisons only read translated and expected files, so they run in parallel.
+     */
+    @DataProvider(parallel = true)
     private Object[][] JavaFilesInput() {
         Object[][] mappingArray = new Object[5][2];
         String appDir = System.getProperty("user.dir");
@@ -84,7 +84,7 @@ public class MBeans {
     final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
     if (mbeanName == null) {
       /* LOG.debug("Stacktrace: ",newThrowable()) */
-      LOG.stacktrace(new Throwable()).tag("methodCall").debug();
+      LOG.stacktrace(new Throwable().toString()).tag("methodCall").debug();
       return;
     }
     try {
@@ -181,7 +181,7 @@ public class MetricsSystemImpl extends MetricsSystem implements MetricsSource {
     checkNotNull(prefix, "prefix");
     if (monitoring) {
       /* LOG.warn(prefix+" metrics system already started!",newMetricsException("Illegal start")) */
-      LOG.metrics_system_already_started(prefix, new MetricsException("Illegal start")).tag("methodCall").warn();
+      LOG.metrics_system_already_started(prefix, new MetricsException("Illegal start").toString()).tag("methodCall").warn();
       return;
     }
     for (Callback cb : callbacks) cb.preStart();
@@ -197,7 +197,7 @@ public class MetricsSystemImpl extends MetricsSystem implements MetricsSource {
   public synchronized void stop() {
     if (!monitoring && !DefaultMetricsSystem.inMiniClusterMode()) {
       /* LOG.warn(prefix+" metrics system not yet started!",newMetricsException("Illegal stop")) */
-      LOG.metrics_system_not_yet_started(prefix, new MetricsException("Illegal stop")).tag("methodCall").warn();
+      LOG.metrics_system_not_yet_started(prefix, new MetricsException("Illegal stop").toString()).tag("methodCall").warn();
       return;
     }
     if (!monitoring) {
@@ -574,7 +574,7 @@ public class MetricsSystemImpl extends MetricsSystem implements MetricsSource {
     LOG.refcount(refCount).debug();
     if (refCount <= 0) {
       /* LOG.debug("Redundant shutdown",newThrowable()) */
-      LOG.redundant_shutdown(new Throwable()).tag("methodCall").debug();
+      LOG.redundant_shutdown(new Throwable().toString()).tag("methodCall").debug();
       return true; // already shutdown
     }
     if (--refCount > 0) return false;
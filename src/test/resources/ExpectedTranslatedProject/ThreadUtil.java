@@ -46,7 +46,7 @@ public class ThreadUtil {
         Thread.sleep(timeToSleep);
       } catch (InterruptedException ie) {
         /* LOG.warn("interrupted while sleeping",ie) */
-        LOG.interrupted_while_sleeping(ie).warn();
+        LOG.interrupted_while_sleeping(ie.toString()).warn();
       }
     }
   }
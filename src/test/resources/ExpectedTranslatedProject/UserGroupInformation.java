@@ -1630,7 +1630,7 @@ public class UserGroupInformation {
       Throwable cause = pae.getCause();
       if (LogGlobal.isDebugEnabled()) {
         /* LOG.debug("PrivilegedActionException as:"+this+" cause:"+cause) */
-        LOG.privilegedactionexception_cause(this, cause.toString()).debug();
+        LOG.privilegedactionexception_cause(this.toString(), cause.toString()).debug();
       }
       if (cause instanceof IOException) {
         throw (IOException) cause;
@@ -1651,7 +1651,7 @@ public class UserGroupInformation {
       // would be nice if action included a descriptive toString()
       String where = new Throwable().getStackTrace()[2].toString();
       /* LOG.debug("PrivilegedAction as:"+this+" from:"+where) */
-      LOG.privilegedaction_from(this, where).debug();
+      LOG.privilegedaction_from(this.toString(), where).debug();
     }
   }
 